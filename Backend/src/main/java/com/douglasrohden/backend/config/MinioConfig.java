@@ -2,6 +2,7 @@ package com.douglasrohden.backend.config;
 
 import io.minio.MinioClient;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.util.StringUtils;
@@ -12,7 +13,9 @@ public class MinioConfig {
 
     private final MinioProperties properties;
 
+    // Backends locais (filesystem, memory) sobem sem endpoint nem credenciais do MinIO.
     @Bean
+    @ConditionalOnProperty(name = "storage.backend", havingValue = "minio", matchIfMissing = true)
     public MinioClient minioClient() {
         MinioClient.Builder builder = MinioClient.builder()
                 .endpoint(properties.getEndpoint())
@@ -22,6 +25,12 @@ public class MinioConfig {
             builder.region(properties.getRegion());
         }
 
-        return builder.build();
+        MinioClient client = builder.build();
+        // Timeouts curtos: o circuit breaker do storage só abre se as chamadas lentas terminarem.
+        client.setTimeout(
+                properties.getConnectTimeout().toMillis(),
+                properties.getWriteTimeout().toMillis(),
+                properties.getReadTimeout().toMillis());
+        return client;
     }
 }
@@ -1,5 +1,6 @@
 package com.douglasrohden.backend.config;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -17,6 +18,9 @@ public class MinioProperties {
     private String region;
     private String externalEndpoint; // URL externa visível para o usuário (ex: http://localhost:9000)
     private Integer presignExpirationMinutes = 30;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(5);
+    private Duration writeTimeout = Duration.ofSeconds(15);
 
     public void setExternalEndpoint(String externalEndpoint) {
         this.externalEndpoint = externalEndpoint;
@@ -95,4 +99,28 @@ public class MinioProperties {
     public void setAllowedContentTypes(List<String> allowedContentTypes) {
         this.allowedContentTypes = allowedContentTypes;
     }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public Duration getReadTimeout() {
+        return readTimeout;
+    }
+
+    public void setReadTimeout(Duration readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    public Duration getWriteTimeout() {
+        return writeTimeout;
+    }
+
+    public void setWriteTimeout(Duration writeTimeout) {
+        this.writeTimeout = writeTimeout;
+    }
 }
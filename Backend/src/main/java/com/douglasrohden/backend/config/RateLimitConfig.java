@@ -0,0 +1,127 @@
+package com.douglasrohden.backend.config;
+
+import com.douglasrohden.backend.service.ratelimit.GcraBackend;
+import com.douglasrohden.backend.service.ratelimit.JdbcLeaseStore;
+import com.douglasrohden.backend.service.ratelimit.LeaseStore;
+import com.douglasrohden.backend.service.ratelimit.LeasedRateLimitBackend;
+import com.douglasrohden.backend.service.ratelimit.LocalBucketBackend;
+import com.douglasrohden.backend.service.ratelimit.PolicyMatcher;
+import com.douglasrohden.backend.service.ratelimit.RateLimitBackend;
+import com.douglasrohden.backend.service.ratelimit.RateLimitPolicy;
+import com.douglasrohden.backend.service.ratelimit.RateLimitPolicyRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Seleciona onde os buckets de rate limit vivem: {@code rate-limit.mode=local} (padrão, por JVM)
+ * ou {@code distributed} (saldo global no Postgres com arrendamento local de tokens),
+ * e o algoritmo local: {@code rate-limit.algorithm=bucket4j} (padrão) ou {@code gcra} (um {@code long} por chave).
+ */
+@Configuration
+@Slf4j
+public class RateLimitConfig {
+
+    @Value("${rate-limit.requests-per-window:10}")
+    private long requestsPerWindow;
+
+    @Value("${rate-limit.window-seconds:60}")
+    private long windowSeconds;
+
+    @Value("${rate-limit.bucket-expire-after-seconds:600}")
+    private long bucketExpireAfterSeconds;
+
+    @Value("${rate-limit.bucket-max-size:100000}")
+    private long bucketMaxSize;
+
+    @Bean
+    public RateLimitBackend rateLimitBackend(
+            @Value("${rate-limit.mode:local}") String mode,
+            @Value("${rate-limit.algorithm:bucket4j}") String algorithm,
+            @Value("${rate-limit.distributed.lease-fraction:0.2}") double leaseFraction,
+            ObjectProvider<LeaseStore> leaseStore,
+            RateLimitPolicyProperties policies,
+            ObjectMapper objectMapper) {
+        RateLimitBackend local = localBackend(algorithm);
+        return switch (mode.trim().toLowerCase()) {
+            case "local" -> local;
+            case "distributed" -> new LeasedRateLimitBackend(leaseStore.getObject(), local,
+                    maxWindowSeconds(windowSeconds, policies.load(objectMapper)), leaseFraction, bucketMaxSize,
+                    System::currentTimeMillis);
+            default -> throw new IllegalArgumentException("rate-limit.mode must be 'local' or 'distributed'");
+        };
+    }
+
+    private RateLimitBackend localBackend(String algorithm) {
+        return switch (algorithm.trim().toLowerCase()) {
+            case "bucket4j" -> new LocalBucketBackend(
+                    bucketExpireAfterSeconds, bucketMaxSize, System::currentTimeMillis);
+            case "gcra" -> new GcraBackend(
+                    bucketExpireAfterSeconds, bucketMaxSize, System::currentTimeMillis, System::nanoTime);
+            default -> throw new IllegalArgumentException("rate-limit.algorithm must be 'bucket4j' or 'gcra'");
+        };
+    }
+
+    /**
+     * Políticas por rota; a padrão ({@code requests-per-window}/{@code window-seconds}) cobre o resto de /v1/**.
+     */
+    @Bean
+    public RateLimitPolicyRegistry rateLimitPolicyRegistry(RateLimitPolicyProperties policies, ObjectMapper objectMapper) {
+        RateLimitPolicy fallback = new RateLimitPolicy(RateLimitPolicy.DEFAULT_NAME, "/**", List.of(),
+                requestsPerWindow, windowSeconds, 1, 0);
+        return new RateLimitPolicyRegistry(() -> policies.load(objectMapper), fallback);
+    }
+
+    // A janela mais longa define por quanto tempo o near-cache de leases pode guardar um bucket.
+    static long maxWindowSeconds(long defaultWindowSeconds, List<RateLimitPolicy> policies) {
+        long max = defaultWindowSeconds;
+        for (RateLimitPolicy policy : policies) {
+            max = Math.max(max, policy.windowSeconds());
+        }
+        return max;
+    }
+
+    @Configuration
+    @ConditionalOnProperty(name = "rate-limit.mode", havingValue = "distributed")
+    static class DistributedRateLimitConfig {
+
+        private final LeaseStore leaseStore;
+        private final RateLimitPolicyRegistry policyRegistry;
+
+        DistributedRateLimitConfig(NamedParameterJdbcTemplate jdbcTemplate, RateLimitPolicyRegistry policyRegistry) {
+            this.leaseStore = new JdbcLeaseStore(jdbcTemplate);
+            this.policyRegistry = policyRegistry;
+        }
+
+        @Bean
+        LeaseStore leaseStore() {
+            return leaseStore;
+        }
+
+        /**
+         * Remove buckets ociosos há mais de duas janelas da política mais longa (lida a cada execução,
+         * então acompanha recargas); a tabela é UNLOGGED e não precisa de histórico.
+         */
+        @Scheduled(fixedDelayString = "${rate-limit.distributed.purge-interval-ms:300000}",
+                initialDelayString = "${rate-limit.distributed.purge-interval-ms:300000}")
+        void purgeIdleBuckets() {
+            try {
+                PolicyMatcher matcher = policyRegistry.current();
+                long windowSeconds = maxWindowSeconds(matcher.fallback().windowSeconds(), matcher.policies());
+                int removed = leaseStore.purgeIdle(2 * windowSeconds * 1000L);
+                if (removed > 0) {
+                    log.debug("Rate limit: {} buckets ociosos removidos", removed);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Falha ao limpar buckets de rate limit: {}", e.getMessage());
+            }
+        }
+    }
+}
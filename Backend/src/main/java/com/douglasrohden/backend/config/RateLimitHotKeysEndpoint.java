@@ -0,0 +1,36 @@
+package com.douglasrohden.backend.config;
+
+import com.douglasrohden.backend.service.RateLimitService;
+import com.douglasrohden.backend.service.ratelimit.HeavyHitters;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code GET /actuator/ratelimithotkeys?limit=N} lista as chaves mais rejeitadas pelo rate limit
+ * ({@code política chave}, contagem e erro máximo da estimativa); {@code DELETE} zera a contagem.
+ */
+@Component
+@Endpoint(id = "ratelimithotkeys")
+@RequiredArgsConstructor
+public class RateLimitHotKeysEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final RateLimitService rateLimitService;
+
+    @ReadOperation
+    public List<HeavyHitters.HeavyHitter> hotKeys(@Nullable Integer limit) {
+        int n = limit == null || limit <= 0 ? DEFAULT_LIMIT : limit;
+        return rateLimitService.topRejectedKeys(n);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        rateLimitService.resetRejectedKeys();
+    }
+}
@@ -0,0 +1,71 @@
+package com.douglasrohden.backend.config;
+
+import com.douglasrohden.backend.service.ratelimit.PolicyMatcher;
+import com.douglasrohden.backend.service.ratelimit.RateLimitPolicy;
+import com.douglasrohden.backend.service.ratelimit.RateLimitPolicyRegistry;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@code GET /actuator/ratelimitpolicies} lista as políticas compiladas;
+ * {@code POST} recarrega do {@code rate-limit.policies-file} sem reiniciar.
+ */
+@Component
+@Endpoint(id = "ratelimitpolicies")
+@RequiredArgsConstructor
+public class RateLimitPolicyEndpoint {
+
+    private final RateLimitPolicyRegistry registry;
+    private final RateLimitPolicyProperties properties;
+
+    @ReadOperation
+    public Map<String, Object> policies() {
+        return describe(registry.current());
+    }
+
+    /**
+     * Só há o que recarregar com {@code rate-limit.policies-file}: as políticas inline já foram
+     * ligadas na inicialização, então sem arquivo a resposta é 409 em vez de um sucesso vazio.
+     */
+    @WriteOperation
+    public WebEndpointResponse<Map<String, Object>> reload() {
+        if (!StringUtils.hasText(properties.getPoliciesFile())) {
+            Map<String, Object> body = describe(registry.current());
+            body.put("error", "rate-limit.policies-file não configurado; políticas inline exigem reinício");
+            return new WebEndpointResponse<>(body, HttpStatus.CONFLICT.value());
+        }
+        try {
+            return new WebEndpointResponse<>(describe(registry.reload()));
+        } catch (RuntimeException e) {
+            Map<String, Object> body = describe(registry.current());
+            body.put("error", e.getMessage());
+            return new WebEndpointResponse<>(body, WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+    }
+
+    private static Map<String, Object> describe(PolicyMatcher matcher) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("policies", matcher.policies().stream().map(RateLimitPolicyEndpoint::toMap).toList());
+        body.put("default", toMap(matcher.fallback()));
+        return body;
+    }
+
+    private static Map<String, Object> toMap(RateLimitPolicy p) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("name", p.name());
+        m.put("pattern", p.pattern());
+        m.put("limit", p.limit());
+        m.put("windowSeconds", p.windowSeconds());
+        m.put("cost", p.baseCost());
+        m.put("bytesPerToken", p.bytesPerToken());
+        return m;
+    }
+}
@@ -0,0 +1,60 @@
+package com.douglasrohden.backend.config;
+
+import com.douglasrohden.backend.service.ratelimit.RateLimitPolicy;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Políticas de rate limit por rota ({@code rate-limit.policies[n].*}).
+ * <p>
+ * Com {@code rate-limit.policies-file} definido, as políticas vêm desse arquivo JSON
+ * (mesmos campos, em lista) e podem ser recarregadas via {@code POST /actuator/ratelimitpolicies}.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitPolicyProperties {
+
+    private List<PolicyDefinition> policies = new ArrayList<>();
+    private String policiesFile;
+
+    @Data
+    public static class PolicyDefinition {
+        private String name;
+        private String pattern;
+        private List<String> methods = new ArrayList<>();
+        private long limit;
+        private long windowSeconds = 60;
+        private long cost = 1;
+        // 0 = custo fixo; > 0 = +1 token a cada N bytes de Content-Length
+        private long bytesPerToken;
+
+        RateLimitPolicy toPolicy() {
+            return new RateLimitPolicy(name, pattern, methods, limit, windowSeconds, cost, bytesPerToken);
+        }
+    }
+
+    List<RateLimitPolicy> load(ObjectMapper objectMapper) {
+        List<PolicyDefinition> definitions = policies;
+        if (StringUtils.hasText(policiesFile)) {
+            try {
+                definitions = objectMapper.readValue(Files.readAllBytes(Path.of(policiesFile)),
+                        new TypeReference<List<PolicyDefinition>>() {
+                        });
+            } catch (IOException e) {
+                throw new UncheckedIOException("Falha ao ler rate-limit.policies-file " + policiesFile, e);
+            }
+        }
+        return definitions.stream().map(PolicyDefinition::toPolicy).toList();
+    }
+}
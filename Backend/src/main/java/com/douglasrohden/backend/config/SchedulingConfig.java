@@ -0,0 +1,14 @@
+package com.douglasrohden.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita os {@code @Scheduled} da aplicação: limpeza de buckets de rate limit, manutenção de
+ * refresh tokens, sincronização e expurgo de revogações de token, varredura de sessões STOMP e
+ * expurgo do outbox.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,7 +1,9 @@
 package com.douglasrohden.backend.config;
 
 import com.douglasrohden.backend.config.filter.ApiRateLimitFilter;
+import com.douglasrohden.backend.config.filter.IpLoadSheddingFilter;
 import com.douglasrohden.backend.security.JwtAuthenticationFilter;
+import com.douglasrohden.backend.security.UserRoles;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -36,6 +38,8 @@ public class SecurityConfig {
     private static final String[] PERMIT_ALL = {
             "/v1/autenticacao/**",
             "/ws/**",
+            "/stomp",
+            "/media/**",
             "/actuator/**",
             "/health/**",
             "/error",
@@ -45,6 +49,7 @@ public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthFilter;
     private final ApiRateLimitFilter apiRateLimitFilter;
+    private final IpLoadSheddingFilter ipLoadSheddingFilter;
     private final UserDetailsService userDetailsService;
     private final Environment environment;
 
@@ -53,10 +58,12 @@ public class SecurityConfig {
 
     public SecurityConfig(JwtAuthenticationFilter jwtAuthFilter,
             ApiRateLimitFilter apiRateLimitFilter,
+            IpLoadSheddingFilter ipLoadSheddingFilter,
             UserDetailsService userDetailsService,
             Environment environment) {
         this.jwtAuthFilter = jwtAuthFilter;
         this.apiRateLimitFilter = apiRateLimitFilter;
+        this.ipLoadSheddingFilter = ipLoadSheddingFilter;
         this.userDetailsService = userDetailsService;
         this.environment = environment;
     }
@@ -68,6 +75,9 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                        // Recarga de políticas altera estado; hot keys expõem usuários e IPs: só administradores
+                        .requestMatchers(HttpMethod.POST, "/actuator/ratelimitpolicies").hasAuthority(UserRoles.ADMIN)
+                        .requestMatchers("/actuator/ratelimithotkeys").hasAuthority(UserRoles.ADMIN)
                         .requestMatchers(PERMIT_ALL).permitAll()
                         .anyRequest().authenticated())
                 .exceptionHandling(ex -> ex
@@ -79,6 +89,8 @@ public class SecurityConfig {
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authenticationProvider(authenticationProvider())
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                // Descarte por IP antes do JWT; o limite por usuário roda depois da autenticação.
+                .addFilterBefore(ipLoadSheddingFilter, JwtAuthenticationFilter.class)
                 .addFilterAfter(apiRateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
@@ -178,6 +190,13 @@ public class SecurityConfig {
         return registration;
     }
 
+    @Bean
+    public FilterRegistrationBean<IpLoadSheddingFilter> ipLoadSheddingFilterRegistration(IpLoadSheddingFilter filter) {
+        FilterRegistrationBean<IpLoadSheddingFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     private static List<String> parseAllowedOrigins(String value) {
         if (!StringUtils.hasText(value)) {
             return List.of();
@@ -0,0 +1,96 @@
+package com.douglasrohden.backend.config;
+
+import com.douglasrohden.backend.storage.BlobStore;
+import com.douglasrohden.backend.storage.FilesystemBlobStore;
+import com.douglasrohden.backend.storage.InMemoryBlobStore;
+import com.douglasrohden.backend.storage.LocalUrlSigner;
+import com.douglasrohden.backend.storage.MinioBlobStore;
+import com.douglasrohden.backend.storage.ResilientBlobStore;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.minio.MinioClient;
+import java.nio.file.Path;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.util.StringUtils;
+
+@Configuration
+@RequiredArgsConstructor
+@Slf4j
+public class StorageConfig {
+
+    /** Nome da instância de circuit breaker/bulkhead (resilience4j.*.instances.blobStore). */
+    public static final String RESILIENCE_INSTANCE = "blobStore";
+
+    private final StorageProperties storageProperties;
+    private final MinioProperties minioProperties;
+
+    /**
+     * Exposto com o tipo concreto para o {@code LocalMediaController}, que lê os arquivos e
+     * verifica as assinaturas diretamente.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "storage.backend", havingValue = "filesystem")
+    public FilesystemBlobStore filesystemBlobStore() {
+        return new FilesystemBlobStore(
+                Path.of(storageProperties.getFilesystem().getRootDir()),
+                new LocalUrlSigner(storageProperties.getFilesystem().getSigningSecret()),
+                storageProperties.getFilesystem().getPublicBaseUrl());
+    }
+
+    @Bean
+    @Primary
+    public BlobStore blobStore(ObjectProvider<MinioClient> minioClient,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            BulkheadRegistry bulkheadRegistry,
+            ObjectProvider<FilesystemBlobStore> filesystemBlobStore) {
+        return switch (storageProperties.getBackend()) {
+            case MEMORY -> new InMemoryBlobStore();
+            case FILESYSTEM -> filesystemBlobStore.getObject();
+            // Só o MinIO atravessa a rede: falha rápida em vez de prender workers até o timeout do OkHttp.
+            case MINIO -> minioBlobStore(minioClient.getObject(), circuitBreakerRegistry, bulkheadRegistry);
+        };
+    }
+
+    private BlobStore minioBlobStore(MinioClient minioClient,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            BulkheadRegistry bulkheadRegistry) {
+        return new ResilientBlobStore(
+                new MinioBlobStore(minioClient, buildPresignClient(minioClient), minioProperties.getBucket()),
+                circuitBreakerRegistry.circuitBreaker(RESILIENCE_INSTANCE),
+                bulkheadRegistry.bulkhead(RESILIENCE_INSTANCE));
+    }
+
+    @Bean
+    ApplicationRunner ensureBlobStoreOnStartup(BlobStore blobStore) {
+        return args -> {
+            try {
+                blobStore.ensureReady();
+                log.info("Blob store pronto: backend={}", storageProperties.getBackend());
+            } catch (Exception e) {
+                log.error("Failed to prepare blob store backend={}", storageProperties.getBackend(), e);
+                // Let the app start but surface the issue; uploads will fail until fixed.
+            }
+        };
+    }
+
+    private MinioClient buildPresignClient(MinioClient fallback) {
+        String externalEndpoint = minioProperties.getExternalEndpoint();
+        if (!StringUtils.hasText(externalEndpoint)) {
+            return fallback;
+        }
+        MinioClient.Builder builder = MinioClient.builder()
+                .endpoint(externalEndpoint)
+                .credentials(minioProperties.getAccessKey(), minioProperties.getSecretKey());
+        if (StringUtils.hasText(minioProperties.getRegion())) {
+            builder.region(minioProperties.getRegion());
+        }
+        return builder.build();
+    }
+}
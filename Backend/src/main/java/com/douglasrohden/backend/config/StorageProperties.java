@@ -0,0 +1,61 @@
+package com.douglasrohden.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "storage")
+public class StorageProperties {
+
+    public enum Backend {
+        MINIO,
+        MEMORY,
+        FILESYSTEM
+    }
+
+    private Backend backend = Backend.MINIO;
+    private final Filesystem filesystem = new Filesystem();
+
+    public Backend getBackend() {
+        return backend;
+    }
+
+    public void setBackend(Backend backend) {
+        this.backend = backend;
+    }
+
+    public Filesystem getFilesystem() {
+        return filesystem;
+    }
+
+    public static class Filesystem {
+
+        private String rootDir = "./data/media";
+        private String publicBaseUrl; // URL externa do backend (ex: http://localhost:3001); vazio = relativa
+        private String signingSecret;
+
+        public String getRootDir() {
+            return rootDir;
+        }
+
+        public void setRootDir(String rootDir) {
+            this.rootDir = rootDir;
+        }
+
+        public String getPublicBaseUrl() {
+            return publicBaseUrl;
+        }
+
+        public void setPublicBaseUrl(String publicBaseUrl) {
+            this.publicBaseUrl = publicBaseUrl;
+        }
+
+        public String getSigningSecret() {
+            return signingSecret;
+        }
+
+        public void setSigningSecret(String signingSecret) {
+            this.signingSecret = signingSecret;
+        }
+    }
+}
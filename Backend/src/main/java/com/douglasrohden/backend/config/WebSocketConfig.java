@@ -1,13 +1,17 @@
 package com.douglasrohden.backend.config;
 
+import com.douglasrohden.backend.websocket.StompAuthChannelInterceptor;
+import com.douglasrohden.backend.websocket.StompSessionRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.util.StringUtils;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 import java.util.Arrays;
 import java.util.List;
@@ -16,13 +20,37 @@ import java.util.List;
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    public static final String NATIVE_ENDPOINT = "/stomp";
+    public static final String SOCKJS_ENDPOINT = "/ws";
+
     @Value("${cors.allowed-origins:}")
     private String corsAllowedOrigins;
 
+    @Value("${websocket.transport.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs;
+
+    @Value("${websocket.transport.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    @Value("${websocket.transport.message-size-limit:65536}")
+    private int messageSizeLimit;
+
+    @Value("${websocket.outbound.pool-size:4}")
+    private int outboundPoolSize;
+
+    @Value("${websocket.outbound.queue-capacity:10000}")
+    private int outboundQueueCapacity;
+
     private final Environment environment;
+    private final StompAuthChannelInterceptor stompAuthChannelInterceptor;
+    private final StompSessionRegistry stompSessionRegistry;
 
-    public WebSocketConfig(Environment environment) {
+    public WebSocketConfig(Environment environment,
+            StompAuthChannelInterceptor stompAuthChannelInterceptor,
+            StompSessionRegistry stompSessionRegistry) {
         this.environment = environment;
+        this.stompAuthChannelInterceptor = stompAuthChannelInterceptor;
+        this.stompSessionRegistry = stompSessionRegistry;
     }
 
     @Override
@@ -34,15 +62,18 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
             throw new IllegalStateException("cors.allowed-origins must be configured when SPRING_PROFILES_ACTIVE=prod");
         }
 
-        if (configuredOrigins.isEmpty()) {
-            registry.addEndpoint("/ws")
-                    .setAllowedOriginPatterns("http://localhost:*", "http://127.0.0.1:*")
-                    .withSockJS();
-            return;
-        }
+        String[] origins = configuredOrigins.isEmpty()
+                ? new String[] { "http://localhost:*", "http://127.0.0.1:*" }
+                : configuredOrigins.toArray(String[]::new);
 
-        registry.addEndpoint("/ws")
-                .setAllowedOriginPatterns(configuredOrigins.toArray(String[]::new))
+        // WebSocket puro: sem o enquadramento do SockJS. O Tomcat negocia permessage-deflate
+        // quando o cliente oferece (navegadores oferecem por padrão); ver WebSocketCompressionTest.
+        registry.addEndpoint(NATIVE_ENDPOINT)
+                .setAllowedOriginPatterns(origins);
+
+        // SockJS mantido para navegadores/proxies sem WebSocket (fallback para streaming/polling).
+        registry.addEndpoint(SOCKJS_ENDPOINT)
+                .setAllowedOriginPatterns(origins)
                 .withSockJS();
     }
 
@@ -52,6 +83,30 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.setApplicationDestinationPrefixes("/app");
     }
 
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // JWT validado só no CONNECT; demais frames reaproveitam o principal da sessão.
+        registration.interceptors(stompAuthChannelInterceptor);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        // Fila limitada no canal de saída: o excedente é rejeitado em vez de acumular em memória.
+        registration.taskExecutor()
+                .corePoolSize(outboundPoolSize)
+                .maxPoolSize(outboundPoolSize)
+                .queueCapacity(outboundQueueCapacity);
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // Cliente lento: passando do tempo de envio ou do buffer por sessão, a sessão é encerrada.
+        registration.setSendTimeLimit(sendTimeLimitMs)
+                .setSendBufferSizeLimit(sendBufferSizeLimit)
+                .setMessageSizeLimit(messageSizeLimit)
+                .addDecoratorFactory(stompSessionRegistry);
+    }
+
     private static List<String> parseAllowedOrigins(String value) {
         if (!StringUtils.hasText(value)) {
             return List.of();
@@ -1,6 +1,8 @@
 package com.douglasrohden.backend.config.filter;
 
 import com.douglasrohden.backend.service.RateLimitService;
+import com.douglasrohden.backend.service.ratelimit.KeyClass;
+import com.douglasrohden.backend.service.ratelimit.RateLimitPolicy;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,19 +50,24 @@ public class ApiRateLimitFilter extends OncePerRequestFilter {
             @NonNull HttpServletRequest request,
             @NonNull HttpServletResponse response,
             @NonNull FilterChain filterChain) throws ServletException, IOException {
-        String key = resolveRateLimitKey(request);
-        RateLimitService.Probe probe = rateLimitService.tryConsume(key);
-
-        long limit = rateLimitService.defaultLimitPerWindow();
-        long windowSeconds = rateLimitService.windowSeconds();
+        // Classe e valor separados: "user:" + nome seria uma String nova por requisição.
+        String username = authenticatedUsername();
+        KeyClass keyClass = username != null ? KeyClass.USER : KeyClass.IP;
+        String key = username != null ? username : RateLimitService.clientIp(request);
+        RateLimitPolicy policy = rateLimitService.resolvePolicy(request.getMethod(), request.getRequestURI());
+        RateLimitService.Probe probe = rateLimitService.tryConsume(keyClass, key, policy,
+                policy.cost(request.getContentLengthLong()));
+
+        long limit = policy.limit();
+        long windowSeconds = policy.windowSeconds();
         response.setHeader("X-Rate-Limit-Limit", String.valueOf(limit));
         response.setHeader("X-Rate-Limit-Window-Seconds", String.valueOf(windowSeconds));
         response.setHeader("X-Rate-Limit-Remaining", String.valueOf(probe.remainingTokens()));
 
         if (log.isDebugEnabled()) {
             String uri = request.getRequestURI();
-            log.debug("RateLimit key={} uri={} limit={} remaining={} nanosToWait={}",
-                key, uri, limit, probe.remainingTokens(), probe.nanosToWaitForRefill());
+            log.debug("RateLimit key={} uri={} policy={} limit={} remaining={} nanosToWait={}",
+                keyClass.qualify(key), uri, policy.name(), limit, probe.remainingTokens(), probe.nanosToWaitForRefill());
         }
 
         if (probe.consumed()) {
@@ -74,18 +81,17 @@ public class ApiRateLimitFilter extends OncePerRequestFilter {
         response.setContentType(MediaType.APPLICATION_JSON_VALUE);
         response.setCharacterEncoding("UTF-8");
 
-        objectMapper.writeValue(response.getWriter(), rateLimitService.buildErrorBody(retryAfterSeconds));
+        objectMapper.writeValue(response.getWriter(), rateLimitService.buildErrorBody(retryAfterSeconds, policy));
     }
 
-    private String resolveRateLimitKey(HttpServletRequest request) {
+    private static String authenticatedUsername() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null
                 && authentication.isAuthenticated()
                 && authentication.getPrincipal() != null
                 && !"anonymousUser".equals(authentication.getPrincipal())) {
-            return "user:" + authentication.getName();
+            return authentication.getName();
         }
-
-        return "ip:" + RateLimitService.clientIp(request);
+        return null;
     }
 }
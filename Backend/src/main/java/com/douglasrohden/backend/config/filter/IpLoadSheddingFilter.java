@@ -0,0 +1,65 @@
+package com.douglasrohden.backend.config.filter;
+
+import com.douglasrohden.backend.service.RateLimitService;
+import com.douglasrohden.backend.service.ratelimit.PreAuthRateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Descarte por IP antes do {@code JwtAuthenticationFilter}: tokens inválidos em massa
+ * não chegam a ser parseados nem disparam {@code loadUserByUsername}.
+ */
+@Component
+public class IpLoadSheddingFilter extends OncePerRequestFilter {
+
+    private static final String API_PREFIX = "/v1/";
+
+    private final PreAuthRateLimiter limiter;
+    private final RateLimitService rateLimitService;
+    private final ObjectMapper objectMapper;
+
+    public IpLoadSheddingFilter(PreAuthRateLimiter limiter, RateLimitService rateLimitService,
+            ObjectMapper objectMapper) {
+        this.limiter = limiter;
+        this.rateLimitService = rateLimitService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        if ("OPTIONS".equalsIgnoreCase(request.getMethod()))
+            return true;
+
+        String uri = request.getRequestURI();
+        return uri == null || !uri.startsWith(API_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        RateLimitService.Probe probe = limiter.tryConsume(RateLimitService.clientIp(request));
+        if (probe.consumed()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long retryAfterSeconds = RateLimitService.retryAfterSeconds(probe.nanosToWaitForRefill());
+        response.setStatus(429);
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+
+        objectMapper.writeValue(response.getWriter(),
+                rateLimitService.buildErrorBody(retryAfterSeconds, limiter.policy()));
+    }
+}
@@ -18,6 +18,7 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -79,4 +80,19 @@ public class AlbumImageController {
     public void delete(@PathVariable Long albumId, @PathVariable Long coverId) {
         storageService.deleteCover(albumId, coverId);
     }
+
+    @Operation(summary = "Definir capa principal", description = "Escolhe a capa exibida nas listagens do álbum.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Capa principal definida", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Não autorizado", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Acesso negado", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Capa não encontrada", content = @Content),
+            @ApiResponse(responseCode = "429", description = "Rate limit excedido", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Erro interno", content = @Content)
+    })
+    @PutMapping("/{coverId}/principal")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void setPrimary(@PathVariable Long albumId, @PathVariable Long coverId) {
+        storageService.setPrimaryCover(albumId, coverId);
+    }
 }
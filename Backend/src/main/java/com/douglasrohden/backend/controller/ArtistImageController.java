@@ -18,6 +18,7 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestPart;
 import org.springframework.web.bind.annotation.ResponseStatus;
@@ -79,4 +80,19 @@ public class ArtistImageController {
     public void delete(@PathVariable Long artistaId, @PathVariable Long imageId) {
         storageService.deleteImage(artistaId, imageId);
     }
+
+    @Operation(summary = "Definir imagem principal", description = "Escolhe a imagem exibida nas listagens do artista.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Imagem principal definida", content = @Content),
+            @ApiResponse(responseCode = "401", description = "Não autorizado", content = @Content),
+            @ApiResponse(responseCode = "403", description = "Acesso negado", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Imagem não encontrada", content = @Content),
+            @ApiResponse(responseCode = "429", description = "Rate limit excedido", content = @Content),
+            @ApiResponse(responseCode = "500", description = "Erro interno", content = @Content)
+    })
+    @PutMapping("/{imageId}/principal")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void setPrimary(@PathVariable Long artistaId, @PathVariable Long imageId) {
+        storageService.setPrimaryImage(artistaId, imageId);
+    }
 }
@@ -73,6 +73,23 @@ public class AuthenticationController {
         return ResponseEntity.ok(result);
     }
 
+    @io.swagger.v3.oas.annotations.Operation(summary = "Logout", description = "Revoga o access token atual e o refresh token", security = {})
+    @io.swagger.v3.oas.annotations.responses.ApiResponses({
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "204", description = "Tokens revogados"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Muitas requisições"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "500", description = "Erro interno")
+    })
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody(required = false) RefreshTokenRequest request,
+                                       HttpServletRequest httpRequest,
+                                       HttpServletResponse response) {
+        String authHeader = httpRequest.getHeader(HttpHeaders.AUTHORIZATION);
+        String accessToken = authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
+        authenticationService.logout(accessToken, resolveRefreshToken(request, httpRequest));
+        clearRefreshCookie(response);
+        return ResponseEntity.noContent().build();
+    }
+
     private String resolveRefreshToken(RefreshTokenRequest request, HttpServletRequest httpRequest) {
         if (request != null && StringUtils.hasText(request.getRefreshToken())) {
             return request.getRefreshToken();
@@ -88,6 +105,17 @@ public class AuthenticationController {
         return null;
     }
 
+    private void clearRefreshCookie(HttpServletResponse response) {
+        ResponseCookie cookie = ResponseCookie.from(refreshCookieName, "")
+                .httpOnly(true)
+                .secure(refreshCookieSecure)
+                .sameSite(refreshCookieSameSite)
+                .path("/v1/autenticacao/refresh")
+                .maxAge(0)
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+
     private void setRefreshCookie(HttpServletResponse response, String refreshToken) {
         if (response == null || !StringUtils.hasText(refreshToken)) {
             return;
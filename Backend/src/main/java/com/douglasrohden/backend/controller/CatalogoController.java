@@ -0,0 +1,29 @@
+package com.douglasrohden.backend.controller;
+
+import com.douglasrohden.backend.dto.CatalogChangesResponse;
+import com.douglasrohden.backend.service.CatalogChangeLogService;
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/v1/catalogo")
+@RequiredArgsConstructor
+public class CatalogoController {
+
+    private final CatalogChangeLogService changeLogService;
+
+    @Operation(summary = "Alterações do catálogo desde uma sequência",
+            description = "Lote ordenado por seq; use ultimaSeq como próximo 'desde' e repita enquanto temMais. "
+                    + "Alterações ficam retidas por catalog.changes.retention-hours (padrão 7 dias): "
+                    + "'desde' anterior ao último seq expurgado responde 410 e o cliente deve recarregar o catálogo")
+    @GetMapping("/alteracoes")
+    public CatalogChangesResponse alteracoes(
+            @RequestParam(name = "desde", defaultValue = "0") long desde,
+            @RequestParam(name = "limite", defaultValue = "500") int limite) {
+        return changeLogService.changesSince(desde, limite);
+    }
+}
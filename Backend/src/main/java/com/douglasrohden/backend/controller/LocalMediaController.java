@@ -0,0 +1,78 @@
+package com.douglasrohden.backend.controller;
+
+import com.douglasrohden.backend.storage.FilesystemBlobStore;
+import io.swagger.v3.oas.annotations.Hidden;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Serve objetos do {@link FilesystemBlobStore} por URLs locais assinadas (substituto das
+ * URLs pré-assinadas do MinIO). Quando o conector suporta, o corpo sai por sendfile do Tomcat
+ * (arquivo direto para o socket, sem passar pelo heap); senão é copiado pelo output stream.
+ */
+@Hidden
+@RestController
+@ConditionalOnProperty(name = "storage.backend", havingValue = "filesystem")
+public class LocalMediaController {
+
+    // Atributos do conector Tomcat (org.apache.catalina.Globals) para delegar o corpo ao sendfile.
+    static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final FilesystemBlobStore blobStore;
+
+    public LocalMediaController(FilesystemBlobStore blobStore) {
+        this.blobStore = blobStore;
+    }
+
+    @GetMapping("/media/**")
+    public void serve(
+            @RequestParam("expires") long expires,
+            @RequestParam("signature") String signature,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        String key = request.getRequestURI().substring(request.getContextPath().length()
+                + FilesystemBlobStore.MEDIA_PATH.length());
+        long now = Instant.now().getEpochSecond();
+        if (!blobStore.signer().verify(key, expires, signature, now)) {
+            response.sendError(HttpStatus.FORBIDDEN.value(), "URL inválida ou expirada");
+            return;
+        }
+
+        Optional<Path> file = blobStore.file(key);
+        if (file.isEmpty()) {
+            response.sendError(HttpStatus.NOT_FOUND.value(), "Objeto não encontrado");
+            return;
+        }
+        Path path = file.get();
+        long size = Files.size(path);
+        response.setContentType(MediaTypeFactory.getMediaType(key)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setContentLengthLong(size);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=" + Math.max(0, expires - now));
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // Nada é escrito aqui: o Tomcat envia o arquivo após o retorno do servlet.
+            request.setAttribute(SENDFILE_FILENAME, path.toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, size);
+            return;
+        }
+        Files.copy(path, response.getOutputStream());
+    }
+}
@@ -0,0 +1,6 @@
+package com.douglasrohden.backend.dto;
+
+import java.util.List;
+
+public record AlbumCreatedBatchMessage(List<AlbumCreatedMessage> albuns) {
+}
@@ -9,7 +9,10 @@ public record AlbumImageResponse(
         String url,
         Instant expiresAt,
         String contentType,
-        Long sizeBytes) {
+        Long sizeBytes,
+        Integer width,
+        Integer height,
+        String placeholder) {
 
     public static AlbumImageResponse from(AlbumImage image, String url, Instant expiresAt) {
         return new AlbumImageResponse(
@@ -18,6 +21,9 @@ public record AlbumImageResponse(
                 url,
                 expiresAt,
                 image.getContentType(),
-                image.getSizeBytes());
+                image.getSizeBytes(),
+                image.getWidth(),
+                image.getHeight(),
+                image.getPlaceholder());
     }
 }
@@ -1,6 +1,7 @@
 package com.douglasrohden.backend.dto;
 
 import com.douglasrohden.backend.model.Album;
+import com.douglasrohden.backend.model.AlbumImage;
 import com.douglasrohden.backend.model.Artista;
 import com.douglasrohden.backend.model.ArtistaTipo;
 
@@ -13,13 +14,19 @@ public record AlbumWithArtistDTO(
         String artistaNome,
     Set<ArtistSummaryDTO> artistas,
     String capaUrl,
+    Integer capaWidth,
+    Integer capaHeight,
+    String capaPlaceholder,
     boolean temCantor,
     boolean temBanda,
     boolean apenasCantores,
     boolean apenasBandas) {
     private static final String ARTISTA_DESCONHECIDO = "Desconhecido";
 
-    public static AlbumWithArtistDTO fromAlbum(Album album, String capaUrl) {
+    /**
+     * @param capa capa principal (pode ser {@code null}); fornece dimensões e placeholder
+     */
+    public static AlbumWithArtistDTO fromAlbum(Album album, String capaUrl, AlbumImage capa) {
         Set<ArtistSummaryDTO> artistSummaries = extrairArtistas(album);
 
         boolean temCantor = artistSummaries.stream().anyMatch(a -> a.tipo() == ArtistaTipo.CANTOR);
@@ -34,6 +41,9 @@ public record AlbumWithArtistDTO(
             extrairNomeDoArtista(album),
             artistSummaries,
             capaUrl,
+            capa != null ? capa.getWidth() : null,
+            capa != null ? capa.getHeight() : null,
+            capa != null ? capa.getPlaceholder() : null,
             temCantor,
             temBanda,
             apenasCantores,
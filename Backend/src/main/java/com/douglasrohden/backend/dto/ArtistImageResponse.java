@@ -9,7 +9,10 @@ public record ArtistImageResponse(
         String url,
         Instant expiresAt,
         String contentType,
-        Long sizeBytes) {
+        Long sizeBytes,
+        Integer width,
+        Integer height,
+        String placeholder) {
 
     public static ArtistImageResponse from(ArtistImage image, String url, Instant expiresAt) {
         return new ArtistImageResponse(
@@ -18,6 +21,9 @@ public record ArtistImageResponse(
                 url,
                 expiresAt,
                 image.getContentType(),
-                image.getSizeBytes());
+                image.getSizeBytes(),
+                image.getWidth(),
+                image.getHeight(),
+                image.getPlaceholder());
     }
 }
@@ -11,4 +11,7 @@ public class ArtistaDto {
     private Long albumCount;
     private String tipo;
     private String imageUrl;
+    private Integer imageWidth;
+    private Integer imageHeight;
+    private String imagePlaceholder;
 }
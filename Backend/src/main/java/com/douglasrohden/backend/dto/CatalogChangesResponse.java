@@ -0,0 +1,11 @@
+package com.douglasrohden.backend.dto;
+
+import com.douglasrohden.backend.model.CatalogChange;
+import java.util.List;
+
+/**
+ * Lote do feed de alterações. {@code ultimaSeq} é o próximo {@code desde}; com {@code temMais}
+ * o cliente pede de novo antes de considerar o cache em dia.
+ */
+public record CatalogChangesResponse(List<CatalogChange> alteracoes, long ultimaSeq, boolean temMais) {
+}
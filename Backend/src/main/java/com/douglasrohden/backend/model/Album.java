@@ -23,6 +23,11 @@ public class Album {
 	private String titulo;
 	private Integer ano;
 
+	// Mantido apenas por updates dedicados (AlbumRepository) para não ser sobrescrito por entidades antigas.
+	@Column(name = "primary_cover_id", insertable = false, updatable = false)
+	@JsonIgnore
+	private Long primaryCoverId;
+
 	@ManyToMany(mappedBy = "albuns")
 	@JsonIgnore
 	private Set<Artista> artistas = new HashSet<>();
@@ -55,6 +60,14 @@ public class Album {
 		this.ano = ano;
 	}
 
+	public Long getPrimaryCoverId() {
+		return primaryCoverId;
+	}
+
+	public void setPrimaryCoverId(Long primaryCoverId) {
+		this.primaryCoverId = primaryCoverId;
+	}
+
 	public Set<Artista> getArtistas() {
 		return artistas;
 	}
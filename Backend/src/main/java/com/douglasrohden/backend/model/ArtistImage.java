@@ -32,6 +32,14 @@ public class ArtistImage {
     @Column(name = "size_bytes")
     private Long sizeBytes;
 
+    private Integer width;
+
+    private Integer height;
+
+    // Data URI PNG de até 16px para preview imediato
+    @Column(columnDefinition = "TEXT")
+    private String placeholder;
+
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
@@ -45,6 +45,10 @@ public class Artista {
     @Column(nullable = false, length = 20)
     private ArtistaTipo tipo = ArtistaTipo.CANTOR;
 
+    // Mantido apenas por updates dedicados (ArtistaRepository) para não ser sobrescrito por entidades antigas.
+    @Column(name = "primary_cover_id", insertable = false, updatable = false)
+    private Long primaryCoverId;
+
     @ManyToMany
     @JoinTable(name = "artista_album", joinColumns = @JoinColumn(name = "artista_id"), inverseJoinColumns = @JoinColumn(name = "album_id"))
     private Set<Album> albuns;
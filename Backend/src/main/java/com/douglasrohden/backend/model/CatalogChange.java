@@ -0,0 +1,20 @@
+package com.douglasrohden.backend.model;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Linha de {@code catalog_change_log}: qual entidade mudou, como, e em que posição do feed.
+ */
+public record CatalogChange(long seq, EntityType entityType, long entityId, Operation operation,
+        OffsetDateTime changedAt) {
+
+    public enum EntityType {
+        ALBUM, ARTISTA
+    }
+
+    public enum Operation {
+        CREATE, UPDATE, DELETE,
+        /** Imagens (capa de álbum, foto de artista) enviadas, removidas ou trocadas. */
+        IMAGE
+    }
+}
@@ -25,6 +25,12 @@ public class RefreshToken {
     @Column(name = "replaced_by_token_hash", length = 64)
     private String replacedByTokenHash;
 
+    @Column(name = "access_jti", length = 36)
+    private String accessJti;
+
+    @Column(name = "access_expires_at")
+    private OffsetDateTime accessExpiresAt;
+
     @Column(name = "expires_at", nullable = false)
     private OffsetDateTime expiresAt;
 
@@ -86,6 +92,22 @@ public class RefreshToken {
         this.replacedByTokenHash = replacedByTokenHash;
     }
 
+    public String getAccessJti() {
+        return accessJti;
+    }
+
+    public void setAccessJti(String accessJti) {
+        this.accessJti = accessJti;
+    }
+
+    public OffsetDateTime getAccessExpiresAt() {
+        return accessExpiresAt;
+    }
+
+    public void setAccessExpiresAt(OffsetDateTime accessExpiresAt) {
+        this.accessExpiresAt = accessExpiresAt;
+    }
+
     public OffsetDateTime getCreatedAt() {
         return createdAt;
     }
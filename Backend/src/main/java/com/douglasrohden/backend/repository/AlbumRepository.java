@@ -2,9 +2,31 @@ package com.douglasrohden.backend.repository;
 
 import com.douglasrohden.backend.model.Album;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface AlbumRepository
         extends JpaRepository<Album, Long>, org.springframework.data.jpa.repository.JpaSpecificationExecutor<Album> {
+
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("update Album a set a.primaryCoverId = :coverId where a.id = :albumId")
+    int updatePrimaryCover(@Param("albumId") Long albumId, @Param("coverId") Long coverId);
+
+    /**
+     * Reaponta a capa principal para a imagem mais recente restante, apenas se a atual foi removida.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update Album a
+            set a.primaryCoverId = (select max(ai.id) from AlbumImage ai where ai.album.id = :albumId)
+            where a.id = :albumId
+            and (a.primaryCoverId is null or a.primaryCoverId = :removedCoverId)
+            """)
+    int repointPrimaryCover(@Param("albumId") Long albumId, @Param("removedCoverId") Long removedCoverId);
 }
@@ -2,12 +2,14 @@ package com.douglasrohden.backend.repository;
 
 import com.douglasrohden.backend.model.Artista;
 import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import com.douglasrohden.backend.model.ArtistaTipo;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -21,6 +23,8 @@ public interface ArtistaRepository extends JpaRepository<Artista, Long> {
         long getAlbumCount();
 
         ArtistaTipo getTipo();
+
+        Long getPrimaryCoverId();
     }
 
     Page<Artista> findByNomeContainingIgnoreCase(String nome, Pageable pageable);
@@ -33,12 +37,13 @@ public interface ArtistaRepository extends JpaRepository<Artista, Long> {
             a.id       AS id,
             a.nome     AS nome,
             a.tipo     AS tipo,
+            a.primaryCoverId AS primaryCoverId,
             COUNT(al)  AS albumCount
             FROM Artista a
             LEFT JOIN a.albuns al
             WHERE (:q = '' OR LOWER(a.nome) LIKE LOWER(CONCAT('%', :q, '%')))
             AND (:tipo IS NULL OR a.tipo = :tipo)
-            GROUP BY a.id, a.nome, a.tipo
+            GROUP BY a.id, a.nome, a.tipo, a.primaryCoverId
             """, countQuery = """
             SELECT COUNT(a)
             FROM Artista a
@@ -47,4 +52,22 @@ public interface ArtistaRepository extends JpaRepository<Artista, Long> {
             """)
     Page<ArtistaComAlbumCount> searchWithAlbumCount(@Param("q") String q,
             @Param("tipo") ArtistaTipo tipo, Pageable pageable);
+
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("update Artista a set a.primaryCoverId = :imageId where a.id = :artistaId")
+    int updatePrimaryCover(@Param("artistaId") Long artistaId, @Param("imageId") Long imageId);
+
+    /**
+     * Reaponta a imagem principal para a mais recente restante, apenas se a atual foi removida.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update Artista a
+            set a.primaryCoverId = (select max(ai.id) from ArtistImage ai where ai.artista.id = :artistaId)
+            where a.id = :artistaId
+            and (a.primaryCoverId is null or a.primaryCoverId = :removedImageId)
+            """)
+    int repointPrimaryCover(@Param("artistaId") Long artistaId, @Param("removedImageId") Long removedImageId);
 }
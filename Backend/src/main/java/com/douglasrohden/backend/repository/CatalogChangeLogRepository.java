@@ -0,0 +1,166 @@
+package com.douglasrohden.backend.repository;
+
+import com.douglasrohden.backend.model.CatalogChange;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * {@code catalog_change_log} (V15, V17, V20). O append deve rodar na transação da escrita no
+ * catálogo; o seq é atribuído depois, por {@link #sequencePending(int)}.
+ */
+@Repository
+public class CatalogChangeLogRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO catalog_change_log (entity_type, entity_id, operation)
+            VALUES (:entityType, :entityId, :operation)
+            """;
+
+    // Só um sequenciador por vez (entre instâncias); escritores nunca tomam este lock.
+    private static final String SEQUENCER_LOCK_SQL =
+            "SELECT pg_try_advisory_xact_lock(hashtext('catalog_change_log_sequencer'))";
+
+    // tx_id < xmin: a transação que gravou a linha já terminou, e toda linha ainda em voo
+    // (ou futura) tem tx_id >= xmin, então receberá um seq maior que os atribuídos aqui.
+    private static final String SEQUENCE_SQL = """
+            WITH pending AS (
+                SELECT id, nextval('catalog_change_log_seq_seq') AS new_seq
+                  FROM (SELECT id
+                          FROM catalog_change_log
+                         WHERE seq IS NULL
+                           AND tx_id < pg_snapshot_xmin(pg_current_snapshot())
+                         ORDER BY id
+                         LIMIT :limit) ordered
+            )
+            UPDATE catalog_change_log c
+               SET seq = p.new_seq
+              FROM pending p
+             WHERE c.id = p.id
+            RETURNING c.seq, c.entity_type, c.entity_id, c.operation, c.changed_at
+            """;
+
+    private static final String SINCE_SQL = """
+            SELECT seq, entity_type, entity_id, operation, changed_at
+              FROM catalog_change_log
+             WHERE seq > :since
+             ORDER BY seq
+             LIMIT :limit
+            """;
+
+    private static final String LATEST_SQL = "SELECT COALESCE(MAX(seq), 0) FROM catalog_change_log";
+
+    // Idade da pendente mais antiga já commitada: cresce enquanto uma transação longa segura o xmin.
+    private static final String OLDEST_PENDING_AGE_SQL = """
+            SELECT COALESCE(EXTRACT(EPOCH FROM now() - MIN(changed_at)), 0)
+              FROM (SELECT changed_at
+                      FROM catalog_change_log
+                     WHERE seq IS NULL
+                     ORDER BY id
+                     LIMIT 1) oldest
+            """;
+
+    // Remove em ordem de seq e avança a marca no mesmo comando: quem lê a marca depois de ler o
+    // lote sabe se algum seq acima do seu cursor já foi removido.
+    private static final String PURGE_SQL = """
+            WITH purged AS (
+                DELETE FROM catalog_change_log
+                 WHERE id IN (SELECT id
+                                FROM catalog_change_log
+                               WHERE seq IS NOT NULL
+                                 AND changed_at < now() - make_interval(secs => :retentionSeconds)
+                               ORDER BY seq
+                               LIMIT :limit)
+                RETURNING seq
+            ), watermark AS (
+                UPDATE catalog_change_log_retention
+                   SET purged_through = GREATEST(purged_through, (SELECT MAX(seq) FROM purged))
+                 WHERE EXISTS (SELECT 1 FROM purged)
+            )
+            SELECT COUNT(*) FROM purged
+            """;
+
+    private static final String PURGED_THROUGH_SQL = "SELECT purged_through FROM catalog_change_log_retention";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public CatalogChangeLogRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void append(CatalogChange.EntityType entityType, long entityId, CatalogChange.Operation operation) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("entityType", entityType.name())
+                .addValue("entityId", entityId)
+                .addValue("operation", operation.name());
+        jdbcTemplate.update(INSERT_SQL, params);
+    }
+
+    /**
+     * Atribui seq às linhas pendentes já seguras (ver {@code SEQUENCE_SQL}). Deve rodar numa
+     * transação; devolve vazio se outro sequenciador estiver ativo.
+     */
+    public List<CatalogChange> sequencePending(int limit) {
+        Boolean locked = jdbcTemplate.queryForObject(SEQUENCER_LOCK_SQL, new MapSqlParameterSource(), Boolean.class);
+        if (!Boolean.TRUE.equals(locked)) {
+            return List.of();
+        }
+        List<CatalogChange> sequenced = new ArrayList<>(jdbcTemplate.query(SEQUENCE_SQL,
+                new MapSqlParameterSource("limit", limit), CatalogChangeLogRepository::mapRow));
+        sequenced.sort(Comparator.comparingLong(CatalogChange::seq));
+        return sequenced;
+    }
+
+    public List<CatalogChange> findSince(long since, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("since", since)
+                .addValue("limit", limit);
+        return jdbcTemplate.query(SINCE_SQL, params, CatalogChangeLogRepository::mapRow);
+    }
+
+    public long latestSeq() {
+        Long latest = jdbcTemplate.queryForObject(LATEST_SQL, new MapSqlParameterSource(), Long.class);
+        return latest == null ? 0 : latest;
+    }
+
+    public long oldestPendingAgeSeconds() {
+        Double age = jdbcTemplate.queryForObject(OLDEST_PENDING_AGE_SQL, new MapSqlParameterSource(), Double.class);
+        return age == null ? 0 : age.longValue();
+    }
+
+    /**
+     * Remove até {@code limit} alterações sequenciadas mais antigas que {@code retention}; devolve
+     * quantas removeu.
+     */
+    public int purgeOlderThan(Duration retention, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("retentionSeconds", retention.toSeconds())
+                .addValue("limit", limit);
+        Integer deleted = jdbcTemplate.queryForObject(PURGE_SQL, params, Integer.class);
+        return deleted == null ? 0 : deleted;
+    }
+
+    /**
+     * Maior seq já removido pela retenção; cursores abaixo dele não têm mais delta completo.
+     */
+    public long purgedThrough() {
+        Long purged = jdbcTemplate.queryForObject(PURGED_THROUGH_SQL, new MapSqlParameterSource(), Long.class);
+        return purged == null ? 0 : purged;
+    }
+
+    private static CatalogChange mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new CatalogChange(
+                rs.getLong(1),
+                CatalogChange.EntityType.valueOf(rs.getString(2)),
+                rs.getLong(3),
+                CatalogChange.Operation.valueOf(rs.getString(4)),
+                rs.getObject(5, OffsetDateTime.class));
+    }
+}
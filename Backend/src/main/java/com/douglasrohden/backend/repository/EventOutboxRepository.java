@@ -0,0 +1,94 @@
+package com.douglasrohden.backend.repository;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * {@code event_outbox} (V16). O append roda na transação de negócio; claim, markProcessed e
+ * markFailed rodam juntos na transação do relay, que segura os locks das linhas reivindicadas.
+ */
+@Repository
+public class EventOutboxRepository {
+
+    public record OutboxEntry(long id, String eventType, String payload, int attempts) {
+    }
+
+    private static final String INSERT_SQL = """
+            INSERT INTO event_outbox (event_type, payload)
+            VALUES (:eventType, :payload)
+            """;
+
+    // SKIP LOCKED: linhas já reivindicadas por outra réplica são puladas em vez de esperar.
+    private static final String CLAIM_SQL = """
+            SELECT id, event_type, payload, attempts
+              FROM event_outbox
+             WHERE processed_at IS NULL
+               AND available_at <= now()
+               AND attempts < :maxAttempts
+             ORDER BY id
+             LIMIT :limit
+               FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String PROCESSED_SQL = "UPDATE event_outbox SET processed_at = now() WHERE id IN (:ids)";
+
+    private static final String FAILED_SQL = """
+            UPDATE event_outbox
+               SET attempts = attempts + 1,
+                   last_error = :error,
+                   available_at = now() + make_interval(secs => :delaySeconds)
+             WHERE id = :id
+            """;
+
+    private static final String DELETE_PROCESSED_SQL = """
+            DELETE FROM event_outbox
+             WHERE processed_at < now() - make_interval(secs => :retentionSeconds)
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public EventOutboxRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void append(String eventType, String payload) {
+        jdbcTemplate.update(INSERT_SQL, new MapSqlParameterSource()
+                .addValue("eventType", eventType)
+                .addValue("payload", payload));
+    }
+
+    /**
+     * Reivindica até {@code limit} eventos pendentes, em ordem de gravação. Exige transação ativa.
+     */
+    public List<OutboxEntry> claimBatch(int limit, int maxAttempts) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("limit", limit)
+                .addValue("maxAttempts", maxAttempts);
+        return jdbcTemplate.query(CLAIM_SQL, params, (rs, i) -> new OutboxEntry(
+                rs.getLong(1), rs.getString(2), rs.getString(3), rs.getInt(4)));
+    }
+
+    public void markProcessed(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(PROCESSED_SQL, new MapSqlParameterSource("ids", ids));
+    }
+
+    public void markFailed(long id, String error, Duration retryDelay) {
+        String message = error == null ? null : error.substring(0, Math.min(error.length(), 500));
+        jdbcTemplate.update(FAILED_SQL, new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("error", message)
+                .addValue("delaySeconds", retryDelay.toMillis() / 1000.0));
+    }
+
+    public int deleteProcessedOlderThan(Duration retention) {
+        return jdbcTemplate.update(DELETE_PROCESSED_SQL,
+                new MapSqlParameterSource("retentionSeconds", retention.toSeconds()));
+    }
+}
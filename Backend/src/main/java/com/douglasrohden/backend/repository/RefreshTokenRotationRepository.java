@@ -0,0 +1,134 @@
+package com.douglasrohden.backend.repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Rotação de refresh token em uma única ida ao banco.
+ * <p>
+ * O {@code UPDATE} condicional revoga o token apresentado só se ele ainda estiver ativo e dentro
+ * da validade; o {@code INSERT} do sucessor e a leitura do usuário encadeiam no mesmo comando
+ * via CTE. Duas rotações concorrentes do mesmo token disputam o lock da linha: a segunda
+ * reavalia o {@code WHERE}, não encontra linha ativa e não emite nada.
+ * <p>
+ * Toda busca usa a {@link TokenKey}: com o vencimento (embutido no token) no predicado, o
+ * Postgres lê uma só partição e o par {@code (token_hash, expires_at)} é exatamente a chave única.
+ * Tokens emitidos antes do V19 não têm vencimento e buscam só pelo hash, em todas as partições.
+ */
+@Repository
+public class RefreshTokenRotationRepository {
+
+    public record RotatedUser(Long userId, String username) {
+    }
+
+    public record IssuedAccessToken(String jti, OffsetDateTime expiresAt) {
+    }
+
+    /**
+     * Chave de busca de um refresh token; {@code expiresAt} nulo em tokens sem vencimento embutido.
+     */
+    public record TokenKey(String hash, OffsetDateTime expiresAt) {
+    }
+
+    private static final String BY_KEY = "token_hash = :hash AND expires_at = :currentExpiresAt";
+    private static final String BY_HASH = "token_hash = :hash";
+
+    private static final String ROTATE_SQL = """
+            WITH rotated AS (
+              UPDATE refresh_tokens
+                 SET revoked_at = now(), replaced_by_token_hash = :newHash
+               WHERE %1$s
+                 AND revoked_at IS NULL
+                 AND expires_at > now()
+              RETURNING user_id
+            ), inserted AS (
+              INSERT INTO refresh_tokens (user_id, token_hash, expires_at, created_at, access_jti, access_expires_at)
+              SELECT user_id, :newHash, :expiresAt, now(), :accessJti, :accessExpiresAt FROM rotated
+              RETURNING user_id
+            )
+            SELECT u.id, u.username
+              FROM inserted i
+              JOIN usuarios u ON u.id = i.user_id
+            """;
+
+    // Token já rotacionado apresentado de novo: alguém guardou uma cópia. Revoga todos os refresh
+    // tokens ativos do usuário e devolve os access tokens emitidos com eles, ainda válidos.
+    private static final String REVOKE_ON_REUSE_SQL = """
+            WITH reused AS (
+              SELECT user_id FROM refresh_tokens
+               WHERE %1$s
+                 AND replaced_by_token_hash IS NOT NULL
+            ), revoked AS (
+              UPDATE refresh_tokens
+                 SET revoked_at = now()
+               WHERE user_id IN (SELECT user_id FROM reused)
+                 AND revoked_at IS NULL
+              RETURNING access_jti, access_expires_at
+            )
+            SELECT access_jti, access_expires_at
+              FROM revoked
+             WHERE access_jti IS NOT NULL
+               AND access_expires_at > now()
+            """;
+
+    private static final String REVOKE_SQL = """
+            UPDATE refresh_tokens
+               SET revoked_at = now()
+             WHERE %1$s
+               AND revoked_at IS NULL
+            """;
+
+    private static final String ROTATE_BY_KEY = ROTATE_SQL.formatted(BY_KEY);
+    private static final String ROTATE_BY_HASH = ROTATE_SQL.formatted(BY_HASH);
+    private static final String REVOKE_ON_REUSE_BY_KEY = REVOKE_ON_REUSE_SQL.formatted(BY_KEY);
+    private static final String REVOKE_ON_REUSE_BY_HASH = REVOKE_ON_REUSE_SQL.formatted(BY_HASH);
+    private static final String REVOKE_BY_KEY = REVOKE_SQL.formatted(BY_KEY);
+    private static final String REVOKE_BY_HASH = REVOKE_SQL.formatted(BY_HASH);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public RefreshTokenRotationRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Revoga o token de {@code current} e grava {@code newTokenHash} no lugar, com o access token
+     * emitido junto. Vazio se o token não existe, já foi usado/revogado ou expirou.
+     */
+    public Optional<RotatedUser> rotate(TokenKey current, String newTokenHash, OffsetDateTime newExpiresAt,
+            IssuedAccessToken accessToken) {
+        MapSqlParameterSource params = keyParams(current)
+                .addValue("newHash", newTokenHash)
+                .addValue("expiresAt", newExpiresAt)
+                .addValue("accessJti", accessToken.jti())
+                .addValue("accessExpiresAt", accessToken.expiresAt());
+        List<RotatedUser> rows = jdbcTemplate.query(current.expiresAt() != null ? ROTATE_BY_KEY : ROTATE_BY_HASH,
+                params,
+                (rs, i) -> new RotatedUser(rs.getLong(1), rs.getString(2)));
+        return rows.stream().findFirst();
+    }
+
+    /**
+     * Detecção de reuso: se o token já foi rotacionado, revoga a família do usuário e
+     * devolve os access tokens a revogar. Vazio se o token nunca foi rotacionado.
+     */
+    public List<IssuedAccessToken> revokeAllOnReuse(TokenKey key) {
+        return jdbcTemplate.query(key.expiresAt() != null ? REVOKE_ON_REUSE_BY_KEY : REVOKE_ON_REUSE_BY_HASH,
+                keyParams(key),
+                (rs, i) -> new IssuedAccessToken(rs.getString(1), rs.getObject(2, OffsetDateTime.class)));
+    }
+
+    public boolean revoke(TokenKey key) {
+        return jdbcTemplate.update(key.expiresAt() != null ? REVOKE_BY_KEY : REVOKE_BY_HASH, keyParams(key)) > 0;
+    }
+
+    private static MapSqlParameterSource keyParams(TokenKey key) {
+        return new MapSqlParameterSource()
+                .addValue("hash", key.hash())
+                .addValue("currentExpiresAt", key.expiresAt());
+    }
+}
@@ -0,0 +1,59 @@
+package com.douglasrohden.backend.repository;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Tabela {@code revoked_access_tokens} (V14): registro compartilhado entre réplicas das
+ * revogações de access token, lido incrementalmente por {@code revoked_at}.
+ */
+@Repository
+public class RevokedAccessTokenRepository {
+
+    public record RevokedAccessToken(String jti, OffsetDateTime expiresAt, OffsetDateTime revokedAt) {
+    }
+
+    private static final String INSERT_SQL = """
+            INSERT INTO revoked_access_tokens (jti, expires_at, revoked_at)
+            VALUES (:jti, :expiresAt, now())
+            ON CONFLICT (jti) DO NOTHING
+            """;
+
+    private static final String SINCE_SQL = """
+            SELECT jti, expires_at, revoked_at
+              FROM revoked_access_tokens
+             WHERE revoked_at > :since
+               AND expires_at > now()
+             ORDER BY revoked_at
+            """;
+
+    private static final String DELETE_EXPIRED_SQL = "DELETE FROM revoked_access_tokens WHERE expires_at < now()";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public RevokedAccessTokenRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insert(String jti, OffsetDateTime expiresAt) {
+        jdbcTemplate.update(INSERT_SQL, new MapSqlParameterSource()
+                .addValue("jti", jti)
+                .addValue("expiresAt", expiresAt));
+    }
+
+    /**
+     * Revogações ainda válidas registradas depois de {@code since}, em ordem de {@code revoked_at}.
+     */
+    public List<RevokedAccessToken> findRevokedSince(OffsetDateTime since) {
+        return jdbcTemplate.query(SINCE_SQL, new MapSqlParameterSource("since", since),
+                (rs, i) -> new RevokedAccessToken(rs.getString(1),
+                        rs.getObject(2, OffsetDateTime.class), rs.getObject(3, OffsetDateTime.class)));
+    }
+
+    public int deleteExpired() {
+        return jdbcTemplate.update(DELETE_EXPIRED_SQL, new MapSqlParameterSource());
+    }
+}
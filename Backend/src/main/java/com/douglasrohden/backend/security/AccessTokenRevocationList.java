@@ -0,0 +1,226 @@
+package com.douglasrohden.backend.security;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lista de access tokens revogados ({@code jti}) consultada pelo filtro a cada requisição, só em memória.
+ * <p>
+ * Os tokens ficam em baldes pela hora de expiração ({@code exp}): cada balde tem um filtro de Bloom
+ * e o conjunto exato. O anel de baldes cobre a validade máxima do access token, então um balde
+ * vencido só é reaproveitado quando todos os seus tokens já expiraram e seriam rejeitados pelo
+ * parse de qualquer forma — a revogação some sozinha junto com o token.
+ * <p>
+ * Caminho comum (nada revogado, ou Bloom negativo): algumas leituras de array, sem lock nem I/O.
+ * O conjunto exato só é consultado nos falsos positivos do Bloom.
+ */
+@Component
+public class AccessTokenRevocationList implements MeterBinder {
+
+    private static final int HASHES = 7;
+    private static final int BITS_PER_ENTRY = 10; // ~1% de falso positivo com 7 hashes
+
+    private static final class Bucket {
+        final long id;
+        final AtomicLongArray bits;
+        final Set<String> tokenIds = ConcurrentHashMap.newKeySet();
+
+        Bucket(long id, int words) {
+            this.id = id;
+            this.bits = new AtomicLongArray(words);
+        }
+    }
+
+    private final long bucketMs;
+    private final AtomicReferenceArray<Bucket> ring;
+    private final int bloomWords;
+    private final LongSupplier clockMs;
+    // Revogações com exp além do anel (ex.: token de outra réplica com validade maior).
+    private final ConcurrentHashMap<String, Long> overflow = new ConcurrentHashMap<>();
+    private final LongAdder size = new LongAdder();
+    // Atalho do caminho comum; só é escrito sob o lock de estado, para a purga não apagar o
+    // "false" de uma revogação concorrente.
+    private volatile boolean empty = true;
+    private final Object emptyLock = new Object();
+
+    @Autowired
+    public AccessTokenRevocationList(
+            @Value("${jwt.expiration}") long tokenLifetimeMs,
+            @Value("${jwt.revocation.bucket-seconds:60}") long bucketSeconds,
+            @Value("${jwt.revocation.expected-per-bucket:1024}") int expectedPerBucket) {
+        this(tokenLifetimeMs, bucketSeconds, expectedPerBucket, System::currentTimeMillis);
+    }
+
+    public AccessTokenRevocationList(long tokenLifetimeMs, long bucketSeconds, int expectedPerBucket,
+            LongSupplier clockMs) {
+        this.bucketMs = Math.max(1, bucketSeconds) * 1000L;
+        // +2: balde parcial atual e folga de relógio entre réplicas.
+        int buckets = (int) Math.min(1 << 16, Math.max(1, tokenLifetimeMs) / bucketMs + 2);
+        this.ring = new AtomicReferenceArray<>(buckets);
+        this.bloomWords = Math.max(1, (Math.max(1, expectedPerBucket) * BITS_PER_ENTRY + 63) / 64);
+        this.clockMs = clockMs;
+    }
+
+    public boolean isRevoked(Claims claims) {
+        if (empty) {
+            return false;
+        }
+        Date expiration = claims.getExpiration();
+        return claims.getId() != null && expiration != null && isRevoked(claims.getId(), expiration.getTime());
+    }
+
+    public boolean isRevoked(String tokenId, long expiresAtMs) {
+        if (empty) {
+            return false;
+        }
+        long bucketId = Math.floorDiv(expiresAtMs, bucketMs);
+        Bucket bucket = ring.get(slot(bucketId));
+        if (bucket != null && bucket.id == bucketId
+                && mightContain(bucket, hash(tokenId)) && bucket.tokenIds.contains(tokenId)) {
+            return true;
+        }
+        // Revogado antes de o exp entrar no horizonte do anel: continua no overflow mesmo depois
+        // que outra revogação cria o balde desse exp.
+        return !overflow.isEmpty() && overflow.containsKey(tokenId);
+    }
+
+    /**
+     * Registra a revogação até {@code expiresAtMs}; tokens já expirados são ignorados. Idempotente.
+     */
+    public void revoke(String tokenId, long expiresAtMs) {
+        long now = clockMs.getAsLong();
+        if (tokenId == null || expiresAtMs <= now) {
+            return;
+        }
+        long bucketId = Math.floorDiv(expiresAtMs, bucketMs);
+        if (bucketId - Math.floorDiv(now, bucketMs) >= ring.length()) {
+            if (overflow.put(tokenId, expiresAtMs) == null) {
+                size.increment();
+            }
+            markNotEmpty();
+            return;
+        }
+        Bucket bucket = bucketFor(bucketId);
+        // Exato antes do Bloom: quem vê o bit ligado já encontra o jti no conjunto.
+        if (bucket.tokenIds.add(tokenId)) {
+            size.increment();
+        }
+        long hash = hash(tokenId);
+        int bits = bloomWords * 64;
+        for (int i = 0; i < HASHES; i++) {
+            int bit = bitIndex(hash, i, bits);
+            long mask = 1L << bit;
+            int word = bit >>> 6;
+            long current;
+            do {
+                current = bucket.bits.get(word);
+            } while ((current & mask) == 0 && !bucket.bits.compareAndSet(word, current, current | mask));
+        }
+        markNotEmpty();
+    }
+
+    // Depois da inserção: se a purga rodou antes, este "false" vem depois do "true" dela.
+    private void markNotEmpty() {
+        if (empty) {
+            synchronized (emptyLock) {
+                empty = false;
+            }
+        }
+    }
+
+    /**
+     * Libera baldes e entradas cujos tokens já expiraram.
+     */
+    public void purgeExpired() {
+        long now = clockMs.getAsLong();
+        long currentBucket = Math.floorDiv(now, bucketMs);
+        for (int i = 0; i < ring.length(); i++) {
+            Bucket bucket = ring.get(i);
+            if (bucket != null && bucket.id < currentBucket && ring.compareAndSet(i, bucket, null)) {
+                size.add(-bucket.tokenIds.size());
+            }
+        }
+        overflow.entrySet().removeIf(entry -> {
+            boolean expired = entry.getValue() <= now;
+            if (expired) {
+                size.decrement();
+            }
+            return expired;
+        });
+        synchronized (emptyLock) {
+            if (size.sum() <= 0 && overflow.isEmpty()) {
+                empty = true;
+            }
+        }
+    }
+
+    public long size() {
+        return size.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("jwt.revoked_tokens", this, AccessTokenRevocationList::size)
+                .description("Access tokens revogados ainda dentro da validade")
+                .register(registry);
+    }
+
+    private Bucket bucketFor(long bucketId) {
+        int slot = slot(bucketId);
+        while (true) {
+            Bucket current = ring.get(slot);
+            if (current != null && current.id == bucketId) {
+                return current;
+            }
+            Bucket fresh = new Bucket(bucketId, bloomWords);
+            if (ring.compareAndSet(slot, current, fresh)) {
+                if (current != null) {
+                    size.add(-current.tokenIds.size());
+                }
+                return fresh;
+            }
+        }
+    }
+
+    private int slot(long bucketId) {
+        return (int) Math.floorMod(bucketId, (long) ring.length());
+    }
+
+    private boolean mightContain(Bucket bucket, long hash) {
+        int bits = bloomWords * 64;
+        for (int i = 0; i < HASHES; i++) {
+            int bit = bitIndex(hash, i, bits);
+            if ((bucket.bits.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Double hashing (Kirsch-Mitzenmacher): k índices a partir das duas metades de um hash de 64 bits.
+    private static int bitIndex(long hash, int i, int bits) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        return Math.floorMod(h1 + i * h2, bits);
+    }
+
+    private static long hash(String tokenId) {
+        // String.hashCode fica em cache na instância; o finalizador do SplitMix64 espalha os bits.
+        long z = tokenId.hashCode() * 0x9E3779B97F4A7C15L + tokenId.length();
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
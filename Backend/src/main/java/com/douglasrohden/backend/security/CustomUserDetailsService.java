@@ -2,6 +2,7 @@ package com.douglasrohden.backend.security;
 
 import com.douglasrohden.backend.model.Usuario;
 import com.douglasrohden.backend.repository.UsuarioRepository;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -9,15 +10,15 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
-
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UsuarioRepository usuarioRepository;
+    private final UserRoles userRoles;
 
-    public CustomUserDetailsService(UsuarioRepository usuarioRepository) {
+    public CustomUserDetailsService(UsuarioRepository usuarioRepository, UserRoles userRoles) {
         this.usuarioRepository = usuarioRepository;
+        this.userRoles = userRoles;
     }
 
     @Override
@@ -29,7 +30,7 @@ public class CustomUserDetailsService implements UserDetailsService {
         return new User(
                 usuario.getUsername(),
                 usuario.getPasswordHash(),
-                new ArrayList<>() // Empty Authorities for now
+                userRoles.of(usuario.getUsername()).stream().map(SimpleGrantedAuthority::new).toList()
         );
     }
 }
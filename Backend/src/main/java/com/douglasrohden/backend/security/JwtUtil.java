@@ -3,93 +3,143 @@ package com.douglasrohden.backend.security;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
 import java.security.Key;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
 
 @Component
-public class JwtUtil {
+public class JwtUtil implements MeterBinder {
 
-    private final String secret;
+    // Claims do modo stateless: o filtro monta a autenticação só com elas, sem consultar o banco.
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLES = "roles";
 
-    @Value("${jwt.expiration}")
-    private long jwtExpiration;
+    // Chave e parser são imutáveis e thread-safe: montados uma vez, não por requisição.
+    private final Key signingKey;
+    private final JwtParser parser;
+    private final VerifiedTokenCache verifiedTokens;
 
-    public JwtUtil(@Value("${jwt.secret}") String secret) {
+    private final long jwtExpiration;
+
+    JwtUtil(String secret, long jwtExpiration) {
+        this(secret, jwtExpiration, 10_000, jwtExpiration);
+    }
+
+    @Autowired
+    public JwtUtil(@Value("${jwt.secret}") String secret,
+            @Value("${jwt.expiration}") long jwtExpiration,
+            @Value("${jwt.verified-token-cache.expected-users:10000}") int expectedConcurrentUsers,
+            @Value("${jwt.verified-token-cache.refresh-interval-ms:${jwt.expiration}}") long refreshIntervalMs) {
         if (!StringUtils.hasText(secret)) {
             throw new IllegalStateException("JWT secret must be provided via JWT_SECRET");
         }
-        this.secret = secret;
+        this.jwtExpiration = jwtExpiration;
+        this.signingKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.verifiedTokens = new VerifiedTokenCache(
+                VerifiedTokenCache.capacityFor(expectedConcurrentUsers, jwtExpiration, refreshIntervalMs),
+                System::currentTimeMillis);
     }
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    /**
+     * Verifica assinatura e expiração com um único parse e devolve as claims.
+     * Tokens já verificados e ainda não expirados vêm do {@link VerifiedTokenCache}.
+     *
+     * @throws JwtException se o token for inválido, adulterado ou expirado
+     */
+    public Claims validateAndExtract(String token) {
+        Claims cached = verifiedTokens.get(token);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        verifiedTokens.put(token, claims);
+        return claims;
     }
 
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public VerifiedTokenCache verifiedTokens() {
+        return verifiedTokens;
     }
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        verifiedTokens.bindTo(registry);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    public String generateToken(UserDetails userDetails) {
+        return generateToken(new HashMap<>(), userDetails);
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
+        return buildToken(extraClaims, userDetails.getUsername(), newTokenId(), jwtExpiration);
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Access token autossuficiente: id e papéis do usuário vão nas claims.
+     */
+    public String generateToken(String username, Long userId, Collection<String> roles) {
+        return generateToken(username, userId, roles, newTokenId());
     }
 
-    public String generateToken(UserDetails userDetails) {
-        return generateToken(new HashMap<>(), userDetails);
+    /**
+     * Variante com {@code jti} escolhido pelo chamador, para registrá-lo antes de emitir o token
+     * (ex.: junto do refresh token, para revogação na detecção de reuso).
+     */
+    public String generateToken(String username, Long userId, Collection<String> roles, String tokenId) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USER_ID, userId);
+        claims.put(CLAIM_ROLES, List.copyOf(roles));
+        return buildToken(claims, username, tokenId, jwtExpiration);
     }
 
-    public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        return buildToken(extraClaims, userDetails, jwtExpiration);
+    public static String newTokenId() {
+        return UUID.randomUUID().toString();
+    }
+
+    public long getExpirationMs() {
+        return jwtExpiration;
     }
 
-    // Refresh token typically has a longer expiration or structure, but for
-    // simplicity
-    // we often generate a random string for refresh tokens and hash it in DB.
-    // However, if we want a statelss refresh token (JWT), we can sign it
-    // differently or use longer expiration.
-    // Here we will use just a helper to generate a JWT if needed, or rely on opaque
-    // strings for refresh.
-    // The requirement mentions refresh token expiration.
+    /**
+     * Papéis da claim {@code roles} como authorities; lista vazia se ausente.
+     */
+    public static List<SimpleGrantedAuthority> authoritiesOf(Claims claims) {
+        List<SimpleGrantedAuthority> authorities = new ArrayList<>();
+        if (claims.get(CLAIM_ROLES) instanceof List<?> roles) {
+            for (Object role : roles) {
+                authorities.add(new SimpleGrantedAuthority(String.valueOf(role)));
+            }
+        }
+        return authorities;
+    }
 
-    private String buildToken(Map<String, Object> extraClaims, UserDetails userDetails, long expiration) {
+    public static boolean hasIdentityClaims(Claims claims) {
+        return claims.get(CLAIM_USER_ID) instanceof Number;
+    }
+
+    private String buildToken(Map<String, Object> extraClaims, String subject, String tokenId, long expiration) {
         return Jwts
                 .builder()
                 .setClaims(extraClaims)
-                .setSubject(userDetails.getUsername())
+                .setId(tokenId)
+                .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
-
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
-    }
 }
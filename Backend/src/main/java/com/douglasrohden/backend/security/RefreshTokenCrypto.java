@@ -1,24 +1,53 @@
 package com.douglasrohden.backend.security;
 
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.Base64;
+import java.util.Optional;
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+/**
+ * Geração e hash de refresh tokens, chamados em todo login e refresh.
+ * <p>
+ * Cada thread reaproveita um {@link Mac} já inicializado ({@code doFinal} o reinicia), o hex sai
+ * de uma tabela direto para um {@code byte[]} Latin-1, e os bytes aleatórios vêm de várias
+ * instâncias de {@link SecureRandom} escolhidas pela thread, em vez de uma única compartilhada
+ * (cujo {@code nextBytes} é sincronizado).
+ */
 @Component
 public class RefreshTokenCrypto {
 
-    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final Base64.Encoder TOKEN_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    // Fora do alfabeto base64url: separa a parte aleatória do vencimento.
+    private static final char EXPIRY_SEPARATOR = '.';
 
     private final SecretKeySpec secretKeySpec;
+    private final ThreadLocal<Mac> macs;
+    private final SecureRandom[] randoms;
+    private final int randomMask;
 
     public RefreshTokenCrypto(
             @Value("${refresh.token.pepper:${jwt.secret}}") String pepper) {
         byte[] keyBytes = pepper.getBytes(StandardCharsets.UTF_8);
-        this.secretKeySpec = new SecretKeySpec(keyBytes, "HmacSHA256");
+        this.secretKeySpec = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+        // Potência de 2 acima do número de núcleos: índice por máscara do id da thread.
+        int stripes = Integer.highestOneBit(Runtime.getRuntime().availableProcessors()) << 1;
+        this.randoms = new SecureRandom[stripes];
+        for (int i = 0; i < stripes; i++) {
+            randoms[i] = newSecureRandom();
+        }
+        this.randomMask = stripes - 1;
     }
 
     /**
@@ -26,8 +55,35 @@ public class RefreshTokenCrypto {
      */
     public String generateOpaqueToken() {
         byte[] bytes = new byte[32];
-        SECURE_RANDOM.nextBytes(bytes);
-        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        randoms[(int) Thread.currentThread().getId() & randomMask].nextBytes(bytes);
+        return TOKEN_ENCODER.encodeToString(bytes);
+    }
+
+    /**
+     * Refresh token com o vencimento embutido ({@code <aleatório>.<epoch em segundos>}). O hash
+     * cobre o token inteiro, então o sufixo não pode ser trocado; com ele a busca filtra por
+     * {@code expires_at} e lê uma única partição de {@code refresh_tokens} (V19).
+     * {@code expiresAt} deve estar truncado em segundos, como é gravado.
+     */
+    public String generateOpaqueToken(OffsetDateTime expiresAt) {
+        return generateOpaqueToken() + EXPIRY_SEPARATOR + expiresAt.toEpochSecond();
+    }
+
+    /**
+     * Vencimento embutido por {@link #generateOpaqueToken(OffsetDateTime)}; vazio em tokens sem
+     * sufixo (emitidos antes do V19) ou malformados.
+     */
+    public static Optional<OffsetDateTime> expiresAtOf(String rawRefreshToken) {
+        int separator = rawRefreshToken.lastIndexOf(EXPIRY_SEPARATOR);
+        if (separator < 0) {
+            return Optional.empty();
+        }
+        try {
+            long epochSecond = Long.parseLong(rawRefreshToken, separator + 1, rawRefreshToken.length(), 10);
+            return Optional.of(OffsetDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZoneOffset.UTC));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
     }
 
     /**
@@ -35,22 +91,37 @@ public class RefreshTokenCrypto {
      * minúsculo.
      */
     public String hash(String rawRefreshToken) {
+        byte[] digest = macs.get().doFinal(rawRefreshToken.getBytes(StandardCharsets.UTF_8));
+        return toHex(digest);
+    }
+
+    private Mac newMac() {
         try {
-            Mac mac = Mac.getInstance("HmacSHA256");
+            Mac mac = Mac.getInstance(ALGORITHM);
             mac.init(secretKeySpec);
-            byte[] digest = mac.doFinal(rawRefreshToken.getBytes(StandardCharsets.UTF_8));
-            return toHex(digest);
-        } catch (Exception e) {
+            return mac;
+        } catch (GeneralSecurityException e) {
             throw new IllegalStateException("Unable to hash refresh token", e);
         }
     }
 
+    private static SecureRandom newSecureRandom() {
+        // DRBG: instâncias independentes, cada uma com semente própria; NativePRNG compartilharia
+        // o mesmo lock global entre as faixas.
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    }
+
     private static String toHex(byte[] bytes) {
-        StringBuilder sb = new StringBuilder(bytes.length * 2);
-        for (byte b : bytes) {
-            sb.append(Character.forDigit((b >> 4) & 0xF, 16));
-            sb.append(Character.forDigit(b & 0xF, 16));
+        byte[] out = new byte[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            int b = bytes[i] & 0xFF;
+            out[i * 2] = HEX[b >>> 4];
+            out[i * 2 + 1] = HEX[b & 0xF];
         }
-        return sb.toString();
+        return new String(out, StandardCharsets.ISO_8859_1);
     }
 }
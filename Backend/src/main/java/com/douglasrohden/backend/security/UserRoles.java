@@ -0,0 +1,32 @@
+package com.douglasrohden.backend.security;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * Papéis dos usuários. Ainda não há tabela de papéis: administradores vêm de
+ * {@code security.admin-usernames} (lista separada por vírgula) e recebem {@link #ADMIN}.
+ */
+@Component
+public class UserRoles {
+
+    public static final String ADMIN = "ROLE_ADMIN";
+
+    private final Set<String> adminUsernames;
+
+    public UserRoles(@Value("${security.admin-usernames:}") String adminUsernames) {
+        this.adminUsernames = Arrays.stream(adminUsernames.split(","))
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    public List<String> of(String username) {
+        return adminUsernames.contains(username) ? List.of(ADMIN) : List.of();
+    }
+}
@@ -0,0 +1,136 @@
+package com.douglasrohden.backend.security;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache de tokens já verificados: o mesmo access token chega em dezenas de requisições durante
+ * a sua validade e, no acerto, a assinatura HS256 não é recalculada nem as claims decodificadas.
+ * <p>
+ * Mapeamento direto (um slot por hash, sem lista nem LRU): memória fixa, leitura sem lock e
+ * colisão simplesmente substitui o slot. O índice vem da parte de assinatura do token, que já é
+ * uniformemente distribuída; o acerto exige o token inteiro igual (comparação em tempo constante)
+ * e {@code exp} ainda no futuro.
+ */
+public final class VerifiedTokenCache implements MeterBinder {
+
+    private record Entry(String token, Claims claims, long expiresAtMs) {
+    }
+
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+    private final LongSupplier clockMs;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public VerifiedTokenCache(int capacity, LongSupplier clockMs) {
+        int size = 1;
+        while (size < Math.max(1, capacity) && size < (1 << 24)) {
+            size <<= 1;
+        }
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.clockMs = clockMs;
+    }
+
+    /**
+     * Dimensiona por usuários simultâneos × tokens vivos por usuário. Com refresh a cada
+     * {@code refreshIntervalMs}, um token de vida {@code tokenLifetimeMs} convive com
+     * {@code ceil(vida / intervalo)} sucessores ainda válidos, mais o da troca em andamento.
+     */
+    public static int capacityFor(int expectedConcurrentUsers, long tokenLifetimeMs, long refreshIntervalMs) {
+        long lifetime = Math.max(1, tokenLifetimeMs);
+        long interval = refreshIntervalMs <= 0 ? lifetime : Math.min(refreshIntervalMs, lifetime);
+        long tokensPerUser = (lifetime + interval - 1) / interval + 1;
+        long capacity = Math.max(1, expectedConcurrentUsers) * tokensPerUser;
+        return (int) Math.max(16, Math.min(capacity, 1 << 24));
+    }
+
+    public Claims get(String token) {
+        int index = index(token);
+        Entry entry = slots.get(index);
+        if (entry != null && constantTimeEquals(entry.token(), token)) {
+            if (entry.expiresAtMs() > clockMs.getAsLong()) {
+                hits.increment();
+                return entry.claims();
+            }
+            slots.compareAndSet(index, entry, null);
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void put(String token, Claims claims) {
+        if (claims.getExpiration() == null) {
+            return;
+        }
+        long expiresAtMs = claims.getExpiration().getTime();
+        if (expiresAtMs > clockMs.getAsLong()) {
+            slots.set(index(token), new Entry(token, claims, expiresAtMs));
+        }
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public double hitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("jwt.verified_token_cache.requests", this, VerifiedTokenCache::hits)
+                .description("Consultas ao cache de tokens verificados")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("jwt.verified_token_cache.requests", this, VerifiedTokenCache::misses)
+                .description("Consultas ao cache de tokens verificados")
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("jwt.verified_token_cache.hit_rate", this, VerifiedTokenCache::hitRate)
+                .description("Fração de tokens servidos sem verificar a assinatura")
+                .register(registry);
+        Gauge.builder("jwt.verified_token_cache.capacity", this, VerifiedTokenCache::capacity)
+                .register(registry);
+    }
+
+    private int index(String token) {
+        // Hash só dos últimos caracteres (assinatura): rápido e bem distribuído.
+        int h = 0;
+        for (int i = Math.max(0, token.length() - 32); i < token.length(); i++) {
+            h = 31 * h + token.charAt(i);
+        }
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        return h & mask;
+    }
+
+    private static boolean constantTimeEquals(String a, String b) {
+        if (a.length() != b.length()) {
+            return false;
+        }
+        int diff = 0;
+        for (int i = 0; i < a.length(); i++) {
+            diff |= a.charAt(i) ^ b.charAt(i);
+        }
+        return diff == 0;
+    }
+}
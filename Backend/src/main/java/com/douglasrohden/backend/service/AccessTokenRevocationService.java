@@ -0,0 +1,81 @@
+package com.douglasrohden.backend.service;
+
+import com.douglasrohden.backend.repository.RevokedAccessTokenRepository;
+import com.douglasrohden.backend.repository.RevokedAccessTokenRepository.RevokedAccessToken;
+import com.douglasrohden.backend.security.AccessTokenRevocationList;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Revogação de access tokens por {@code jti}: grava em {@code revoked_access_tokens} e na
+ * {@link AccessTokenRevocationList} local; as demais réplicas recebem a revogação no próximo poll.
+ * <p>
+ * O poll relê uma janela de sobreposição antes da última marca vista, porque transações que
+ * commitam fora de ordem podem gravar {@code revoked_at} anterior à marca. Reaplicar é idempotente.
+ */
+@Service
+@Slf4j
+public class AccessTokenRevocationService {
+
+    private static final OffsetDateTime EPOCH = OffsetDateTime.ofInstant(Instant.EPOCH, ZoneOffset.UTC);
+
+    private final RevokedAccessTokenRepository repository;
+    private final AccessTokenRevocationList revocationList;
+    private final Duration overlap;
+    private volatile OffsetDateTime watermark = EPOCH;
+
+    public AccessTokenRevocationService(
+            RevokedAccessTokenRepository repository,
+            AccessTokenRevocationList revocationList,
+            @Value("${jwt.revocation.poll-overlap-seconds:10}") long overlapSeconds) {
+        this.repository = repository;
+        this.revocationList = revocationList;
+        this.overlap = Duration.ofSeconds(Math.max(0, overlapSeconds));
+    }
+
+    public void revoke(String jti, Instant expiresAt) {
+        if (jti == null || expiresAt == null || !expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        revocationList.revoke(jti, expiresAt.toEpochMilli());
+        repository.insert(jti, OffsetDateTime.ofInstant(expiresAt, ZoneOffset.UTC));
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.poll-interval-ms:2000}")
+    public void poll() {
+        OffsetDateTime since = watermark == EPOCH ? EPOCH : watermark.minus(overlap);
+        try {
+            List<RevokedAccessToken> revoked = repository.findRevokedSince(since);
+            for (RevokedAccessToken token : revoked) {
+                revocationList.revoke(token.jti(), token.expiresAt().toInstant().toEpochMilli());
+                if (token.revokedAt().isAfter(watermark)) {
+                    watermark = token.revokedAt();
+                }
+            }
+        } catch (DataAccessException e) {
+            log.warn("Falha ao sincronizar revogações de access token: {}", e.getMessage());
+        }
+        revocationList.purgeExpired();
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval-ms:3600000}",
+            initialDelayString = "${jwt.revocation.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        try {
+            int deleted = repository.deleteExpired();
+            if (deleted > 0) {
+                log.info("revoked_access_tokens: {} revogações expiradas removidas", deleted);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Falha ao expurgar revogações expiradas: {}", e.getMessage());
+        }
+    }
+}
@@ -1,79 +1,80 @@
 package com.douglasrohden.backend.service;
 
-import com.douglasrohden.backend.config.MinioProperties;
 import com.douglasrohden.backend.dto.AlbumImageResponse;
 import com.douglasrohden.backend.model.Album;
 import com.douglasrohden.backend.model.AlbumImage;
+import com.douglasrohden.backend.model.CatalogChange;
 import com.douglasrohden.backend.repository.AlbumImageRepository;
 import com.douglasrohden.backend.repository.AlbumRepository;
-import io.minio.BucketExistsArgs;
-import io.minio.GetPresignedObjectUrlArgs;
-import io.minio.MinioClient;
-import io.minio.PutObjectArgs;
-import io.minio.MakeBucketArgs;
-import io.minio.RemoveObjectArgs;
-import io.minio.http.Method;
-import java.io.IOException;
-import java.io.InputStream;
-import java.time.Duration;
-import java.time.Instant;
+import com.douglasrohden.backend.service.MediaStorageService.SignedUrl;
+import com.douglasrohden.backend.service.MediaStorageService.StoredMedia;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.StringUtils;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
 @Service
+@RequiredArgsConstructor
 public class AlbumImageStorageService {
 
+    private static final String KEY_PREFIX = "album";
+
     private final AlbumRepository albumRepository;
     private final AlbumImageRepository albumImageRepository;
-    private final MinioClient minioClient;
-    private final MinioClient presignClient;
-    private final MinioProperties properties;
-    private final AtomicBoolean bucketEnsured = new AtomicBoolean(false);
-
-    public AlbumImageStorageService(
-            AlbumRepository albumRepository,
-            AlbumImageRepository albumImageRepository,
-            MinioClient minioClient,
-            MinioProperties properties) {
-        this.albumRepository = albumRepository;
-        this.albumImageRepository = albumImageRepository;
-        this.minioClient = minioClient;
-        this.properties = properties;
-        this.presignClient = buildPresignClient(minioClient, properties);
-    }
-
+    private final MediaStorageService mediaStorage;
+    private final CatalogChangeLogService changeLog;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Grava os arquivos no storage fora da transação (rede não segura conexão nem locks) e depois
+     * persiste linhas, a capa principal e o registro no feed de alterações numa única transação.
+     * Se a persistência falhar, os objetos já gravados são removidos.
+     */
     public List<AlbumImageResponse> uploadCovers(Long albumId, MultipartFile[] files) {
-        Album album = albumRepository.findById(albumId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Álbum não encontrado"));
-
-        if (files == null || files.length == 0) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Nenhum arquivo enviado");
+        if (!albumRepository.existsById(albumId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Álbum não encontrado");
         }
 
-        ensureBucket();
+        mediaStorage.requireFiles(files);
 
-        List<AlbumImageResponse> responses = new ArrayList<>();
-        String firstObjectKey = null;
-        for (int i = 0; i < files.length; i++) {
-            MultipartFile file = files[i];
-            validateFile(file);
-            AlbumImage image = persistFile(album, file);
-            AlbumImage saved = albumImageRepository.save(image);
-            AlbumImageResponse response = mapToResponse(saved);
-            responses.add(response);
-            if (i == 0) {
-                firstObjectKey = saved.getObjectKey();
+        List<StoredMedia> stored = new ArrayList<>();
+        try {
+            for (MultipartFile file : files) {
+                stored.add(mediaStorage.store(KEY_PREFIX, albumId, file));
             }
+            return transactionTemplate.execute(status -> persistCovers(albumId, stored));
+        } catch (RuntimeException e) {
+            stored.forEach(media -> mediaStorage.deleteQuietly(media.objectKey()));
+            throw e;
         }
+    }
+
+    private List<AlbumImageResponse> persistCovers(Long albumId, List<StoredMedia> stored) {
+        Album album = albumRepository.findById(albumId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Álbum não encontrado"));
+        List<AlbumImageResponse> responses = new ArrayList<>();
+        Long latestCoverId = null;
+        for (StoredMedia media : stored) {
+            AlbumImage saved = albumImageRepository.save(AlbumImage.builder()
+                    .album(album)
+                    .objectKey(media.objectKey())
+                    .contentType(media.contentType())
+                    .sizeBytes(media.sizeBytes())
+                    .width(media.width())
+                    .height(media.height())
+                    .placeholder(media.placeholder())
+                    .build());
+            latestCoverId = saved.getId();
+            responses.add(mapToResponse(saved));
+        }
+        // Upload mais recente vira a capa principal (mesma regra do antigo max(id)).
+        albumRepository.updatePrimaryCover(albumId, latestCoverId);
+        changeLog.record(CatalogChange.EntityType.ALBUM, albumId, CatalogChange.Operation.IMAGE);
         return responses;
     }
 
@@ -81,7 +82,6 @@ public class AlbumImageStorageService {
         if (!albumRepository.existsById(albumId)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Álbum não encontrado");
         }
-        ensureBucket();
         List<AlbumImage> images = albumImageRepository.findByAlbumId(albumId);
         return images.stream().map(this::mapToResponse).toList();
     }
@@ -93,151 +93,38 @@ public class AlbumImageStorageService {
             return;
         }
 
-        ensureBucket();
-        for (AlbumImage image : images) {
-            try {
-                minioClient.removeObject(RemoveObjectArgs.builder()
-                        .bucket(properties.getBucket())
-                        .object(image.getObjectKey())
-                        .build());
-            } catch (Exception e) {
-                throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Falha ao remover objeto no storage", e);
-            }
-        }
-
         albumImageRepository.deleteAll(images);
+        mediaStorage.deleteAllAfterCommit(images.stream().map(AlbumImage::getObjectKey).toList());
     }
 
     @Transactional
     public void deleteCover(Long albumId, Long coverId) {
         AlbumImage image = albumImageRepository.findByIdAndAlbumId(coverId, albumId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Capa não encontrada"));
-        ensureBucket();
-        try {
-            albumImageRepository.deleteByIdAndAlbumId(coverId, albumId);
-            minioClient.removeObject(RemoveObjectArgs.builder()
-                    .bucket(properties.getBucket())
-                    .object(image.getObjectKey())
-                    .build());
-        } catch (Exception e) {
-            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Falha ao remover objeto no storage", e);
-        }
-    }
-
-    private AlbumImage persistFile(Album album, MultipartFile file) {
-        String objectKey = buildObjectKey(album.getId(), file);
-        String contentType = resolveContentType(file);
-        try (InputStream is = file.getInputStream()) {
-            PutObjectArgs args = PutObjectArgs.builder()
-                    .bucket(properties.getBucket())
-                    .object(objectKey)
-                    .stream(is, file.getSize(), -1)
-                    .contentType(contentType)
-                    .build();
-            minioClient.putObject(args);
-        } catch (IOException e) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Falha ao ler arquivo enviado", e);
-        } catch (Exception e) {
-            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Falha ao armazenar arquivo no MinIO", e);
-        }
-
-        return AlbumImage.builder()
-                .album(album)
-                .objectKey(objectKey)
-                .contentType(contentType)
-                .sizeBytes(file.getSize())
-                .build();
+        albumImageRepository.deleteByIdAndAlbumId(coverId, albumId);
+        albumRepository.repointPrimaryCover(albumId, coverId);
+        changeLog.record(CatalogChange.EntityType.ALBUM, albumId, CatalogChange.Operation.IMAGE);
+        mediaStorage.deleteAfterCommit(image.getObjectKey());
     }
 
-    private String buildObjectKey(Long albumId, MultipartFile file) {
-        String extension = StringUtils.getFilenameExtension(file.getOriginalFilename());
-        String sanitizedExt = (StringUtils.hasText(extension)) ? extension.toLowerCase() : "bin";
-        return "album/" + albumId + "/" + UUID.randomUUID() + "." + sanitizedExt;
-    }
-
-    private AlbumImageResponse mapToResponse(AlbumImage image) {
-        String url = generatePresignedUrl(image.getObjectKey());
-        Instant expiresAt = Instant.now().plus(Duration.ofMinutes(resolveExpirationMinutes()));
-        return AlbumImageResponse.from(image, url, expiresAt);
+    @Transactional
+    public void setPrimaryCover(Long albumId, Long coverId) {
+        albumImageRepository.findByIdAndAlbumId(coverId, albumId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Capa não encontrada"));
+        albumRepository.updatePrimaryCover(albumId, coverId);
+        changeLog.record(CatalogChange.EntityType.ALBUM, albumId, CatalogChange.Operation.IMAGE);
     }
 
     public String generatePresignedUrl(String objectKey) {
-        try {
-            int expirySeconds = (int) Duration.ofMinutes(resolveExpirationMinutes()).getSeconds();
-            return presignClient.getPresignedObjectUrl(GetPresignedObjectUrlArgs.builder()
-                    .method(Method.GET)
-                    .bucket(properties.getBucket())
-                    .object(objectKey)
-                    .expiry(expirySeconds, TimeUnit.SECONDS)
-                    .build());
-        } catch (Exception e) {
-            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Falha ao gerar URL assinada", e);
-        }
+        return mediaStorage.generatePresignedUrl(objectKey);
     }
 
-    private MinioClient buildPresignClient(MinioClient fallback, MinioProperties props) {
-        String externalEndpoint = props.getExternalEndpoint();
-        if (!StringUtils.hasText(externalEndpoint)) {
-            return fallback;
-        }
-        MinioClient.Builder builder = MinioClient.builder()
-                .endpoint(externalEndpoint)
-                .credentials(props.getAccessKey(), props.getSecretKey());
-        if (StringUtils.hasText(props.getRegion())) {
-            builder.region(props.getRegion());
-        }
-        return builder.build();
+    public String generatePresignedUrlOrNull(String objectKey) {
+        return mediaStorage.generatePresignedUrlOrNull(objectKey);
     }
 
-    private void ensureBucket() {
-        if (bucketEnsured.get()) {
-            return;
-        }
-        synchronized (bucketEnsured) {
-            if (bucketEnsured.get()) {
-                return;
-            }
-            try {
-                boolean exists = minioClient
-                        .bucketExists(BucketExistsArgs.builder().bucket(properties.getBucket()).build());
-                if (!exists) {
-                    minioClient.makeBucket(MakeBucketArgs.builder().bucket(properties.getBucket()).build());
-                }
-                bucketEnsured.set(true);
-            } catch (Exception e) {
-                throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Falha ao preparar bucket do MinIO", e);
-            }
-        }
-    }
-
-    private void validateFile(MultipartFile file) {
-        if (file == null || file.isEmpty()) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Arquivo vazio ou ausente");
-        }
-        if (file.getSize() > properties.getMaxFileSizeBytes()) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Tamanho máximo excedido");
-        }
-        String contentType = resolveContentType(file);
-        boolean allowedByPrefix = contentType.startsWith("image/");
-        boolean allowedByConfig = properties.getAllowedContentTypes().stream()
-                .anyMatch(allowedType -> allowedType.equalsIgnoreCase(contentType));
-        if (!(allowedByPrefix || allowedByConfig)) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Tipo de arquivo não permitido");
-        }
-    }
-
-    private String resolveContentType(MultipartFile file) {
-        if (file.getContentType() != null) {
-            return file.getContentType();
-        }
-        return "application/octet-stream";
-    }
-
-    private int resolveExpirationMinutes() {
-        Integer value = properties.getPresignExpirationMinutes();
-        if (value == null || value <= 0) {
-            return 30;
-        }
-        return value;
+    private AlbumImageResponse mapToResponse(AlbumImage image) {
+        SignedUrl signed = mediaStorage.sign(image.getObjectKey());
+        return AlbumImageResponse.from(image, signed.url(), signed.expiresAt());
     }
 }
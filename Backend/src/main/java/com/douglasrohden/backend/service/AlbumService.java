@@ -4,8 +4,10 @@ import com.douglasrohden.backend.dto.AlbumRequest;
 import com.douglasrohden.backend.dto.AlbumWithArtistDTO;
 import com.douglasrohden.backend.events.AlbumCreatedEvent;
 import com.douglasrohden.backend.model.Album;
+import com.douglasrohden.backend.model.AlbumImage;
 import com.douglasrohden.backend.model.Artista;
 import com.douglasrohden.backend.model.ArtistaTipo;
+import com.douglasrohden.backend.model.CatalogChange;
 import com.douglasrohden.backend.repository.AlbumImageRepository;
 import com.douglasrohden.backend.repository.AlbumRepository;
 import com.douglasrohden.backend.repository.ArtistaRepository;
@@ -13,7 +15,6 @@ import jakarta.persistence.criteria.Join;
 import jakarta.persistence.criteria.Root;
 import jakarta.persistence.criteria.Subquery;
 import lombok.RequiredArgsConstructor;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
@@ -31,9 +32,10 @@ public class AlbumService {
 
     private final AlbumRepository albumRepository;
     private final ArtistaRepository artistaRepository;
-    private final ApplicationEventPublisher eventPublisher;
+    private final EventOutboxService outbox;
     private final AlbumImageStorageService albumImageStorageService;
     private final AlbumImageRepository albumImageRepository;
+    private final CatalogChangeLogService changeLog;
 
     @Transactional(readOnly = true)
     public Page<AlbumWithArtistDTO> search(String titulo, Integer ano, String artistaNome,
@@ -81,16 +83,23 @@ public class AlbumService {
     private List<AlbumWithArtistDTO> toDTOs(List<Album> albums) {
         if (albums.isEmpty()) return List.of();
 
-        List<Long> ids = albums.stream().map(Album::getId).toList();
-        Map<Long, String> capaMap = new HashMap<>();
-        albumImageRepository.findFirstCoversByAlbumIds(ids).forEach(img -> {
-            Long aid = img.getAlbum() != null ? img.getAlbum().getId() : null;
-            if (aid != null && img.getObjectKey() != null) {
-                capaMap.put(aid, albumImageStorageService.generatePresignedUrl(img.getObjectKey()));
+        // Capa principal por chave (album.primary_cover_id), sem agregação sobre as imagens.
+        List<Long> coverIds = albums.stream().map(Album::getPrimaryCoverId).filter(Objects::nonNull).toList();
+        Map<Long, AlbumImage> capas = new HashMap<>();
+        Map<Long, String> capaUrls = new HashMap<>();
+        albumImageRepository.findAllById(coverIds).forEach(img -> {
+            capas.put(img.getId(), img);
+            if (img.getObjectKey() != null) {
+                String url = albumImageStorageService.generatePresignedUrlOrNull(img.getObjectKey());
+                if (url != null) {
+                    capaUrls.put(img.getId(), url);
+                }
             }
         });
 
-        return albums.stream().map(a -> AlbumWithArtistDTO.fromAlbum(a, capaMap.get(a.getId()))).toList();
+        return albums.stream()
+                .map(a -> AlbumWithArtistDTO.fromAlbum(a, capaUrls.get(a.getPrimaryCoverId()), capas.get(a.getPrimaryCoverId())))
+                .toList();
     }
 
     @Transactional
@@ -122,8 +131,11 @@ public class AlbumService {
             });
             artistaRepository.saveAll(artistas);
             saved.setArtistas(artistas);
+            artistas.forEach(a -> changeLog.record(CatalogChange.EntityType.ARTISTA, a.getId(), CatalogChange.Operation.UPDATE));
         }
-        eventPublisher.publishEvent(new AlbumCreatedEvent(saved.getId(), saved.getTitulo(), saved.getAno()));
+        changeLog.record(CatalogChange.EntityType.ALBUM, saved.getId(), CatalogChange.Operation.CREATE);
+        // Gravado na mesma transação; o EventOutboxRelay entrega após o commit.
+        outbox.append(new AlbumCreatedEvent(saved.getId(), saved.getTitulo(), saved.getAno()));
         return saved;
     }
 
@@ -140,6 +152,7 @@ public class AlbumService {
             if (req.artistaIds() != null) {
                 syncArtistas(album, req.artistaIds());
             }
+            changeLog.record(CatalogChange.EntityType.ALBUM, album.getId(), CatalogChange.Operation.UPDATE);
             return albumRepository.save(album);
         });
     }
@@ -160,6 +173,7 @@ public class AlbumService {
         toSave.addAll(newSet);
         if (!toSave.isEmpty()) artistaRepository.saveAll(toSave);
         album.setArtistas(newSet);
+        toSave.forEach(a -> changeLog.record(CatalogChange.EntityType.ARTISTA, a.getId(), CatalogChange.Operation.UPDATE));
     }
 
     @Transactional
@@ -168,9 +182,13 @@ public class AlbumService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Álbum não encontrado"));
         albumImageStorageService.deleteAllCovers(album.getId());
         if (album.getArtistas() != null) {
-            album.getArtistas().forEach(a -> { if (a.getAlbuns() != null) a.getAlbuns().remove(album); });
+            album.getArtistas().forEach(a -> {
+                if (a.getAlbuns() != null) a.getAlbuns().remove(album);
+                changeLog.record(CatalogChange.EntityType.ARTISTA, a.getId(), CatalogChange.Operation.UPDATE);
+            });
             album.getArtistas().clear();
         }
         albumRepository.delete(album);
+        changeLog.record(CatalogChange.EntityType.ALBUM, id, CatalogChange.Operation.DELETE);
     }
 }
@@ -6,6 +6,7 @@ import com.douglasrohden.backend.model.Album;
 import com.douglasrohden.backend.model.Artista;
 import com.douglasrohden.backend.model.ArtistaTipo;
 import com.douglasrohden.backend.model.ArtistImage;
+import com.douglasrohden.backend.model.CatalogChange;
 import com.douglasrohden.backend.repository.ArtistImageRepository;
 import com.douglasrohden.backend.repository.ArtistaRepository;
 import com.douglasrohden.backend.repository.ArtistaRepository.ArtistaComAlbumCount;
@@ -30,6 +31,7 @@ public class ArtistaService {
     private final AlbumService albumService;
     private final ArtistImageRepository artistImageRepository;
     private final ArtistImageStorageService imageStorageService;
+    private final CatalogChangeLogService changeLog;
 
     private static ArtistaTipo parseTipo(String tipo) {
         if (tipo == null || tipo.isBlank()) return null;
@@ -50,16 +52,30 @@ public class ArtistaService {
         String query = q == null ? "" : q.trim();
         Page<ArtistaComAlbumCount> page = repository.searchWithAlbumCount(query, parseTipo(tipo), pageable);
 
-        List<Long> ids = page.getContent().stream().map(ArtistaComAlbumCount::getId).toList();
-        Map<Long, String> imageMap = ids.isEmpty() ? Map.of() :
-                artistImageRepository.findFirstImagesByArtistaIds(ids).stream()
-                        .collect(Collectors.toMap(
-                                img -> img.getArtista().getId(),
-                                img -> imageStorageService.generatePresignedUrl(img.getObjectKey()),
-                                (a, b) -> a));
+        List<Long> imageIds = page.getContent().stream()
+                .map(ArtistaComAlbumCount::getPrimaryCoverId)
+                .filter(Objects::nonNull)
+                .toList();
+        Map<Long, ArtistImage> images = new HashMap<>();
+        Map<Long, String> imageUrls = new HashMap<>();
+        if (!imageIds.isEmpty()) {
+            artistImageRepository.findAllById(imageIds).forEach(img -> {
+                images.put(img.getId(), img);
+                String url = imageStorageService.generatePresignedUrlOrNull(img.getObjectKey());
+                if (url != null) {
+                    imageUrls.put(img.getId(), url);
+                }
+            });
+        }
 
-        return page.map(r -> new ArtistaDto(r.getId(), r.getNome(), r.getAlbumCount(),
-                r.getTipo() != null ? r.getTipo().name() : null, imageMap.get(r.getId())));
+        return page.map(r -> {
+            ArtistImage img = images.get(r.getPrimaryCoverId());
+            return new ArtistaDto(r.getId(), r.getNome(), r.getAlbumCount(),
+                    r.getTipo() != null ? r.getTipo().name() : null, imageUrls.get(r.getPrimaryCoverId()),
+                    img != null ? img.getWidth() : null,
+                    img != null ? img.getHeight() : null,
+                    img != null ? img.getPlaceholder() : null);
+        });
     }
 
     @Transactional(readOnly = true)
@@ -80,7 +96,9 @@ public class ArtistaService {
             });
             if (saved.getAlbuns() == null) saved.setAlbuns(new HashSet<>());
             saved.getAlbuns().addAll(albums);
+            albums.forEach(a -> changeLog.record(CatalogChange.EntityType.ALBUM, a.getId(), CatalogChange.Operation.UPDATE));
         }
+        changeLog.record(CatalogChange.EntityType.ARTISTA, saved.getId(), CatalogChange.Operation.CREATE);
         return saved;
     }
 
@@ -89,6 +107,7 @@ public class ArtistaService {
         Artista existing = findById(id);
         existing.setNome(artista.getNome());
         if (artista.getTipo() != null) existing.setTipo(artista.getTipo());
+        changeLog.record(CatalogChange.EntityType.ARTISTA, id, CatalogChange.Operation.UPDATE);
         return repository.save(existing);
     }
 
@@ -98,10 +117,14 @@ public class ArtistaService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Artista não encontrado"));
         imageStorageService.deleteAllImages(artista.getId());
         if (artista.getAlbuns() != null) {
-            artista.getAlbuns().forEach(a -> { if (a.getArtistas() != null) a.getArtistas().remove(artista); });
+            artista.getAlbuns().forEach(a -> {
+                if (a.getArtistas() != null) a.getArtistas().remove(artista);
+                changeLog.record(CatalogChange.EntityType.ALBUM, a.getId(), CatalogChange.Operation.UPDATE);
+            });
             artista.getAlbuns().clear();
         }
         repository.delete(artista);
+        changeLog.record(CatalogChange.EntityType.ARTISTA, id, CatalogChange.Operation.DELETE);
     }
 
     @Transactional
@@ -109,6 +132,7 @@ public class ArtistaService {
         Artista artista = findById(id);
         Album album = albumService.create(request);
         artista.getAlbuns().add(album);
+        changeLog.record(CatalogChange.EntityType.ARTISTA, id, CatalogChange.Operation.UPDATE);
         return repository.save(artista);
     }
 }
@@ -5,34 +5,43 @@ import com.douglasrohden.backend.dto.LoginResponse;
 import com.douglasrohden.backend.model.RefreshToken;
 import com.douglasrohden.backend.model.Usuario;
 import com.douglasrohden.backend.repository.RefreshTokenRepository;
+import com.douglasrohden.backend.repository.RefreshTokenRotationRepository;
 import com.douglasrohden.backend.repository.UsuarioRepository;
 import com.douglasrohden.backend.security.JwtUtil;
+import com.douglasrohden.backend.security.PasswordVerifier;
 import com.douglasrohden.backend.security.RefreshTokenCrypto;
+import com.douglasrohden.backend.security.UserRoles;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
 
 @Service
+@Slf4j
 @RequiredArgsConstructor
 public class AuthenticationService {
 
     private final UsuarioRepository usuarioRepository;
     private final RefreshTokenRepository refreshTokenRepository;
+    private final RefreshTokenRotationRepository refreshTokenRotationRepository;
     private final JwtUtil jwtUtil;
-    private final UserDetailsService userDetailsService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordVerifier passwordVerifier;
     private final RefreshTokenCrypto refreshTokenCrypto;
+    private final MeterRegistry meterRegistry;
+    private final AccessTokenRevocationService accessTokenRevocationService;
+    private final UserRoles userRoles;
 
     @Value("${jwt.expiration}")
     private long jwtExpiration;
@@ -40,68 +49,130 @@ public class AuthenticationService {
     @Value("${jwt.refresh.expiration}")
     private long refreshExpiration;
 
+    /**
+     * Usuário carregado uma única vez; o BCrypt roda no {@link PasswordVerifier} (503 se saturado).
+     * A latência fica em {@code auth.login{outcome}}.
+     */
     public LoginResponse login(LoginRequest request) {
-        Usuario usuario = usuarioRepository.findByUsername(request.getUsername())
-            .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado"));
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            Usuario usuario = usuarioRepository.findByUsername(request.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado"));
+
+            if (!passwordVerifier.matches(request.getPassword(), usuario.getPasswordHash())) {
+                outcome = "invalid";
+                throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Credenciais inválidas");
+            }
+
+            String tokenId = JwtUtil.newTokenId();
+            String accessToken = issueAccessToken(usuario, tokenId);
+
+            OffsetDateTime refreshExpiresAt = refreshTokenExpiry();
+            String rawRefreshToken = refreshTokenCrypto.generateOpaqueToken(refreshExpiresAt);
+            String refreshTokenHash = refreshTokenCrypto.hash(rawRefreshToken);
+
+            RefreshToken refreshToken = new RefreshToken();
+            refreshToken.setUsuario(usuario);
+            refreshToken.setTokenHash(refreshTokenHash);
+            refreshToken.setAccessJti(tokenId);
+            refreshToken.setAccessExpiresAt(accessTokenExpiry());
+            refreshToken.setExpiresAt(refreshExpiresAt);
+            refreshTokenRepository.save(refreshToken);
 
-        if (!passwordEncoder.matches(request.getPassword(), usuario.getPasswordHash())) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Credenciais inválidas");
+            outcome = "success";
+            return new LoginResponse(accessToken, rawRefreshToken, jwtExpiration / 1000);
+        } catch (UsernameNotFoundException e) {
+            outcome = "invalid";
+            throw e;
+        } catch (ResponseStatusException e) {
+            if (e.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE) {
+                outcome = "rejected";
+            }
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("auth.login", "outcome", outcome));
         }
-
-        UserDetails userDetails = userDetailsService.loadUserByUsername(request.getUsername());
-        String accessToken = jwtUtil.generateToken(userDetails);
-
-        String rawRefreshToken = refreshTokenCrypto.generateOpaqueToken();
-        String refreshTokenHash = refreshTokenCrypto.hash(rawRefreshToken);
-
-        RefreshToken refreshToken = new RefreshToken();
-        refreshToken.setUsuario(usuario);
-        refreshToken.setTokenHash(refreshTokenHash);
-        refreshToken.setExpiresAt(OffsetDateTime.now(ZoneOffset.UTC).plus(refreshExpiration, ChronoUnit.MILLIS));
-        refreshToken = refreshTokenRepository.save(refreshToken);
-
-        return new LoginResponse(accessToken, rawRefreshToken, jwtExpiration / 1000);
     }
 
-    @Transactional
+    /**
+     * Rotação em um único comando SQL (ver {@link RefreshTokenRotationRepository}): sem SELECT prévio
+     * nem carga do usuário, e sem janela para duas rotações concorrentes do mesmo token.
+     */
     public LoginResponse refresh(String rawRefreshToken) {
         if (rawRefreshToken == null || rawRefreshToken.isBlank()) {
             throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token inválido");
         }
 
-        String incomingHash = refreshTokenCrypto.hash(rawRefreshToken);
-        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(incomingHash)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token inválido"));
+        RefreshTokenRotationRepository.TokenKey incoming = keyOf(rawRefreshToken);
+        OffsetDateTime newExpiresAt = refreshTokenExpiry();
+        String newRawRefreshToken = refreshTokenCrypto.generateOpaqueToken(newExpiresAt);
+        String newHash = refreshTokenCrypto.hash(newRawRefreshToken);
 
-        if (refreshToken.getRevokedAt() != null) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token inválido");
-        }
+        String tokenId = JwtUtil.newTokenId();
+        RefreshTokenRotationRepository.RotatedUser user = refreshTokenRotationRepository
+                .rotate(incoming, newHash, newExpiresAt,
+                        new RefreshTokenRotationRepository.IssuedAccessToken(tokenId, accessTokenExpiry()))
+                .orElseThrow(() -> {
+                    revokeOnReuse(incoming);
+                    return new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token inválido");
+                });
+
+        String accessToken = jwtUtil.generateToken(user.username(), user.userId(), userRoles.of(user.username()),
+                tokenId);
+        return new LoginResponse(accessToken, newRawRefreshToken, jwtExpiration / 1000);
+    }
 
-        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
-        if (refreshToken.getExpiresAt().isBefore(now)) {
-            refreshToken.setRevokedAt(now);
-            refreshTokenRepository.save(refreshToken);
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Refresh token expirado");
+    /**
+     * Revoga o access token apresentado (pelo {@code jti}) e o refresh token, se houver.
+     * Tokens inválidos ou expirados são ignorados: logout é idempotente.
+     */
+    public void logout(String accessToken, String rawRefreshToken) {
+        if (accessToken != null && !accessToken.isBlank()) {
+            try {
+                Claims claims = jwtUtil.validateAndExtract(accessToken);
+                if (claims.getExpiration() != null) {
+                    accessTokenRevocationService.revoke(claims.getId(), claims.getExpiration().toInstant());
+                }
+            } catch (JwtException | IllegalArgumentException e) {
+                // Token já inválido: nada a revogar.
+            }
         }
+        if (rawRefreshToken != null && !rawRefreshToken.isBlank()) {
+            refreshTokenRotationRepository.revoke(keyOf(rawRefreshToken));
+        }
+    }
 
-        Usuario usuario = refreshToken.getUsuario();
-        UserDetails userDetails = userDetailsService.loadUserByUsername(usuario.getUsername());
-        String accessToken = jwtUtil.generateToken(userDetails);
+    private void revokeOnReuse(RefreshTokenRotationRepository.TokenKey key) {
+        List<RefreshTokenRotationRepository.IssuedAccessToken> issued =
+                refreshTokenRotationRepository.revokeAllOnReuse(key);
+        for (RefreshTokenRotationRepository.IssuedAccessToken token : issued) {
+            accessTokenRevocationService.revoke(token.jti(), token.expiresAt().toInstant());
+        }
+        if (!issued.isEmpty()) {
+            log.warn("Reuso de refresh token detectado: {} access tokens revogados", issued.size());
+        }
+    }
 
-        // Refresh token rotation: invalida o token atual e emite um novo.
-        String newRawRefreshToken = refreshTokenCrypto.generateOpaqueToken();
-        String newHash = refreshTokenCrypto.hash(newRawRefreshToken);
+    private RefreshTokenRotationRepository.TokenKey keyOf(String rawRefreshToken) {
+        return new RefreshTokenRotationRepository.TokenKey(refreshTokenCrypto.hash(rawRefreshToken),
+                RefreshTokenCrypto.expiresAtOf(rawRefreshToken).orElse(null));
+    }
 
-        refreshToken.setRevokedAt(now);
-        refreshToken.setReplacedByTokenHash(newHash);
-        refreshTokenRepository.save(refreshToken);
+    /**
+     * Truncado em segundos: é o valor embutido no token e precisa bater com o gravado.
+     */
+    private OffsetDateTime refreshTokenExpiry() {
+        return OffsetDateTime.now(ZoneOffset.UTC).plus(refreshExpiration, ChronoUnit.MILLIS)
+                .truncatedTo(ChronoUnit.SECONDS);
+    }
 
-        RefreshToken next = new RefreshToken();
-        next.setUsuario(usuario);
-        next.setTokenHash(newHash);
-        next.setExpiresAt(now.plus(refreshExpiration, ChronoUnit.MILLIS));
-        refreshTokenRepository.save(next);
+    private OffsetDateTime accessTokenExpiry() {
+        return OffsetDateTime.now(ZoneOffset.UTC).plus(jwtExpiration, ChronoUnit.MILLIS);
+    }
 
-        return new LoginResponse(accessToken, newRawRefreshToken, jwtExpiration / 1000);
+    private String issueAccessToken(Usuario usuario, String tokenId) {
+        return jwtUtil.generateToken(usuario.getUsername(), usuario.getId(), userRoles.of(usuario.getUsername()),
+                tokenId);
     }
 }
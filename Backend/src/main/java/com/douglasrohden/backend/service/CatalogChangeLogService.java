@@ -0,0 +1,144 @@
+package com.douglasrohden.backend.service;
+
+import com.douglasrohden.backend.dto.CatalogChangesResponse;
+import com.douglasrohden.backend.model.CatalogChange;
+import com.douglasrohden.backend.repository.CatalogChangeLogRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Feed de alterações do catálogo: cada escrita em álbuns, artistas e imagens registra uma linha
+ * na mesma transação, sem lock compartilhado entre escritores; clientes leem "desde seq N" em
+ * lotes limitados. O seq é atribuído pelo sequenciador agendado quando a linha já não pode ser
+ * ultrapassada por outra transação em voo, e só então anunciado em
+ * {@code /topic/catalogo/alteracoes} para o cliente buscar o delta.
+ * <p>
+ * Retenção: alterações sequenciadas com mais de {@code catalog.changes.retention-hours} são
+ * expurgadas. O menor {@code desde} aceito é o maior seq já expurgado; cursor mais antigo recebe
+ * 410 e o cliente recarrega o catálogo inteiro antes de voltar ao feed.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CatalogChangeLogService implements MeterBinder {
+
+    public static final String TOPIC = "/topic/catalogo/alteracoes";
+
+    private final CatalogChangeLogRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    @Value("${catalog.changes.max-batch-size:500}")
+    private int maxBatchSize;
+
+    @Value("${catalog.changes.lag-warn-seconds:30}")
+    private long lagWarnSeconds;
+
+    @Value("${catalog.changes.retention-hours:168}")
+    private long retentionHours;
+
+    @Value("${catalog.changes.purge-batch-size:5000}")
+    private int purgeBatchSize;
+
+    // Idade (s) da pendente mais antiga na última passada do sequenciador.
+    private final AtomicLong sequencerLagSeconds = new AtomicLong();
+
+    @Transactional
+    public void record(CatalogChange.EntityType entityType, Long entityId, CatalogChange.Operation operation) {
+        if (entityId == null) {
+            return;
+        }
+        repository.append(entityType, entityId, operation);
+    }
+
+    /**
+     * Atribui seq às alterações commitadas. Uma transação longa (qualquer uma, pois o critério
+     * é o xmin do banco) atrasa o feed até terminar, mas nunca o reordena; o atraso aparece em
+     * {@code catalog.changes.sequencer.lag} e no log acima de {@code catalog.changes.lag-warn-seconds}.
+     */
+    @Scheduled(fixedDelayString = "${catalog.changes.sequencer-interval-ms:250}")
+    @Transactional
+    public void sequencePending() {
+        repository.sequencePending(maxBatchSize).forEach(eventPublisher::publishEvent);
+        updateLag(repository.oldestPendingAgeSeconds());
+    }
+
+    private void updateLag(long lagSeconds) {
+        long previous = sequencerLagSeconds.getAndSet(lagSeconds);
+        if (lagSeconds >= lagWarnSeconds && previous < lagWarnSeconds) {
+            log.warn("Feed do catálogo parado: alteração pendente há {}s (transação longa segurando o xmin?)",
+                    lagSeconds);
+        } else if (lagSeconds < lagWarnSeconds && previous >= lagWarnSeconds) {
+            log.info("Feed do catálogo voltou a sequenciar (atraso {}s)", lagSeconds);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.changes.purge-interval-ms:3600000}",
+            initialDelayString = "${catalog.changes.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        Duration retention = Duration.ofHours(retentionHours);
+        long total = 0;
+        try {
+            int deleted;
+            do {
+                deleted = repository.purgeOlderThan(retention, purgeBatchSize);
+                total += deleted;
+            } while (deleted >= purgeBatchSize);
+        } catch (DataAccessException e) {
+            log.warn("Falha ao expurgar o feed de alterações do catálogo: {}", e.getMessage());
+        }
+        if (total > 0) {
+            log.info("catalog_change_log: {} alterações expurgadas", total);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public CatalogChangesResponse changesSince(long since, int limit) {
+        int bounded = Math.max(1, Math.min(limit, maxBatchSize));
+        // Um a mais para saber se há outro lote sem uma segunda consulta.
+        List<CatalogChange> changes = repository.findSince(Math.max(0, since), bounded + 1);
+        // Lida depois do lote: se um expurgo concorrente levou parte dele, a marca já mostra.
+        long purgedThrough = repository.purgedThrough();
+        if (since < purgedThrough) {
+            throw new ResponseStatusException(HttpStatus.GONE,
+                    "Cursor 'desde' anterior à retenção do feed (mínimo " + purgedThrough
+                            + "); recarregue o catálogo e continue de desde=" + repository.latestSeq());
+        }
+        boolean hasMore = changes.size() > bounded;
+        if (hasMore) {
+            changes = changes.subList(0, bounded);
+        }
+        long last = changes.isEmpty() ? Math.max(0, since) : changes.get(changes.size() - 1).seq();
+        return new CatalogChangesResponse(changes, last, hasMore);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void announce(CatalogChange change) {
+        messagingTemplate.convertAndSend(TOPIC, change);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("catalog.changes.sequencer.lag", sequencerLagSeconds, AtomicLong::get)
+                .description("Idade da alteração commitada mais antiga ainda sem seq")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+}
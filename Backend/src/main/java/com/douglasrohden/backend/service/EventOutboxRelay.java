@@ -0,0 +1,222 @@
+package com.douglasrohden.backend.service;
+
+import com.douglasrohden.backend.repository.EventOutboxRepository;
+import com.douglasrohden.backend.repository.EventOutboxRepository.OutboxEntry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Relay do outbox: reivindica lotes de {@code event_outbox} com {@code FOR UPDATE SKIP LOCKED},
+ * republica cada evento para os assinantes locais e marca as linhas como processadas, tudo numa
+ * transação. Os assinantes precisam ser {@code @EventListener} síncronos: listeners
+ * transacionais ({@code BEFORE_COMMIT}/{@code AFTER_COMMIT}) rodariam fora do tratamento por
+ * evento e uma falha neles não voltaria para o outbox.
+ * <p>
+ * Cada evento é entregue num savepoint: se um assinante falhar (ex.: {@code pg_notify} ou fila
+ * local cheia), só aquele evento é desfeito e devolvido à fila com backoff exponencial até
+ * {@code outbox.relay.max-attempts}, e o resto do lote segue. Lote cheio busca o próximo na hora;
+ * lote parcial espera {@code outbox.relay.poll-interval-ms} ou o aviso de commit de um novo
+ * evento; falha do lote inteiro (banco fora) atrasa o próximo poll também com backoff.
+ * <p>
+ * Entrega é pelo menos uma vez enquanto o evento não esgota as tentativas: um assinante pode
+ * receber de novo o evento cujo outro assinante falhou ou cujo lote não conseguiu commitar.
+ * Depois de {@code max-attempts} o evento fica no outbox sem nova entrega (logado como erro).
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class EventOutboxRelay implements SmartLifecycle, MeterBinder {
+
+    private final EventOutboxRepository repository;
+    private final EventOutboxService outboxService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate savepointTemplate;
+    private final int batchSize;
+    private final long pollIntervalMs;
+    private final long retryBaseMs;
+    private final long maxBackoffMs;
+    private final int maxAttempts;
+    private final Duration retention;
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final ScheduledExecutorService executor;
+
+    private volatile boolean running;
+    private volatile boolean wakeRequested;
+    private ScheduledFuture<?> next;
+    private volatile long errorBackoffMs;
+
+    public EventOutboxRelay(
+            EventOutboxRepository repository,
+            EventOutboxService outboxService,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            @Value("${outbox.relay.batch-size:100}") int batchSize,
+            @Value("${outbox.relay.poll-interval-ms:1000}") long pollIntervalMs,
+            @Value("${outbox.relay.retry-base-ms:1000}") long retryBaseMs,
+            @Value("${outbox.relay.max-backoff-ms:60000}") long maxBackoffMs,
+            @Value("${outbox.relay.max-attempts:10}") int maxAttempts,
+            @Value("${outbox.relay.retention-hours:24}") long retentionHours) {
+        this.repository = repository;
+        this.outboxService = outboxService;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.savepointTemplate = new TransactionTemplate(transactionManager);
+        this.savepointTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+        this.batchSize = Math.max(1, batchSize);
+        this.pollIntervalMs = Math.max(10, pollIntervalMs);
+        this.retryBaseMs = Math.max(1, retryBaseMs);
+        this.maxBackoffMs = Math.max(this.pollIntervalMs, maxBackoffMs);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retention = Duration.ofHours(Math.max(1, retentionHours));
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Entrega um lote. Retorna quantas linhas foram reivindicadas (entregues ou devolvidas à fila).
+     */
+    int relayBatch() {
+        Integer claimed = transactionTemplate.execute(status -> {
+            List<OutboxEntry> entries = repository.claimBatch(batchSize, maxAttempts);
+            List<Long> done = new ArrayList<>(entries.size());
+            for (OutboxEntry entry : entries) {
+                try {
+                    Object event = outboxService.decode(entry);
+                    savepointTemplate.executeWithoutResult(nested -> eventPublisher.publishEvent(event));
+                    done.add(entry.id());
+                } catch (Exception e) {
+                    failed.increment();
+                    repository.markFailed(entry.id(), e.getMessage(), retryDelay(entry.attempts()));
+                    if (entry.attempts() + 1 >= maxAttempts) {
+                        log.error("Evento {} ({}) descartado após {} tentativas: {}",
+                                entry.id(), entry.eventType(), maxAttempts, e.getMessage());
+                    } else {
+                        log.warn("Falha ao entregar evento {} ({}): {}", entry.id(), entry.eventType(), e.getMessage());
+                    }
+                }
+            }
+            repository.markProcessed(done);
+            delivered.add(done.size());
+            return entries.size();
+        });
+        return claimed == null ? 0 : claimed;
+    }
+
+    Duration retryDelay(int attempts) {
+        long delay = retryBaseMs << Math.min(attempts, 20);
+        return Duration.ofMillis(Math.min(delay, maxBackoffMs));
+    }
+
+    /**
+     * Próximo atraso: lote cheio ou aviso de commit pendente busca na hora.
+     */
+    long runOnce() {
+        wakeRequested = false;
+        try {
+            int claimed = relayBatch();
+            errorBackoffMs = 0;
+            return claimed >= batchSize || wakeRequested ? 0 : pollIntervalMs;
+        } catch (RuntimeException e) {
+            errorBackoffMs = errorBackoffMs == 0 ? pollIntervalMs : Math.min(maxBackoffMs, errorBackoffMs * 2);
+            log.warn("Falha no relay do outbox: {}; nova tentativa em {} ms", e.getMessage(), errorBackoffMs);
+            return errorBackoffMs;
+        }
+    }
+
+    private void loop() {
+        long delay = runOnce();
+        schedule(delay);
+    }
+
+    private synchronized void schedule(long delayMs) {
+        if (running) {
+            next = executor.schedule(this::loop, delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Um evento acabou de ser commitado: antecipa o próximo poll se o relay estiver ocioso.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onAppended(EventOutboxService.Appended appended) {
+        wakeRequested = true;
+        synchronized (this) {
+            if (running && errorBackoffMs == 0 && next != null
+                    && next.getDelay(TimeUnit.MILLISECONDS) > 0 && next.cancel(false)) {
+                schedule(0);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.purge-interval-ms:3600000}",
+            initialDelayString = "${outbox.relay.purge-interval-ms:3600000}")
+    public void purgeProcessed() {
+        try {
+            int deleted = repository.deleteProcessedOlderThan(retention);
+            if (deleted > 0) {
+                log.info("event_outbox: {} eventos processados removidos", deleted);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Falha ao expurgar eventos processados do outbox: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        schedule(0);
+    }
+
+    @Override
+    public void stop() {
+        synchronized (this) {
+            running = false;
+            if (next != null) {
+                next.cancel(false);
+            }
+        }
+        executor.shutdown();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("outbox.relay.delivered", delivered, LongAdder::sum)
+                .description("Eventos do outbox entregues aos assinantes")
+                .register(registry);
+        FunctionCounter.builder("outbox.relay.failed", failed, LongAdder::sum)
+                .description("Entregas do outbox que falharam e voltaram à fila")
+                .register(registry);
+    }
+}
@@ -0,0 +1,56 @@
+package com.douglasrohden.backend.service;
+
+import com.douglasrohden.backend.events.AlbumCreatedEvent;
+import com.douglasrohden.backend.repository.EventOutboxRepository;
+import com.douglasrohden.backend.repository.EventOutboxRepository.OutboxEntry;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Grava eventos de domínio no outbox dentro da transação de negócio. Se a JVM cair entre o
+ * commit e a entrega, o evento continua na tabela e o {@link EventOutboxRelay} o entrega depois.
+ */
+@Service
+@RequiredArgsConstructor
+public class EventOutboxService {
+
+    /** Aviso em memória (best-effort) para o relay buscar logo após o commit. */
+    public record Appended() {
+    }
+
+    // Só tipos registrados vão para o outbox: o nome gravado precisa ser decodificável pelo relay.
+    private static final Map<String, Class<?>> TYPES = Map.of(
+            AlbumCreatedEvent.class.getSimpleName(), AlbumCreatedEvent.class);
+
+    private final EventOutboxRepository repository;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(Object event) {
+        String type = event.getClass().getSimpleName();
+        if (TYPES.get(type) != event.getClass()) {
+            throw new IllegalArgumentException("Evento não registrado no outbox: " + type);
+        }
+        try {
+            repository.append(type, objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar evento " + type, e);
+        }
+        eventPublisher.publishEvent(new Appended());
+    }
+
+    Object decode(OutboxEntry entry) throws JsonProcessingException {
+        Class<?> type = TYPES.get(entry.eventType());
+        if (type == null) {
+            throw new IllegalArgumentException("Tipo de evento desconhecido no outbox: " + entry.eventType());
+        }
+        return objectMapper.readValue(entry.payload(), type);
+    }
+}
@@ -0,0 +1,87 @@
+package com.douglasrohden.backend.service;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Base64;
+import java.util.Iterator;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Extrai dimensões e um placeholder minúsculo (PNG de até 16px em data URI) de imagens enviadas.
+ * <p>
+ * As dimensões vêm do cabeçalho; a decodificação usa subamostragem para não materializar
+ * a imagem inteira. Formatos sem leitor no ImageIO (ex.: WebP) retornam {@link #EMPTY}.
+ */
+@Slf4j
+final class ImageMetadataExtractor {
+
+    record ImageMetadata(Integer width, Integer height, String placeholder) {
+    }
+
+    static final ImageMetadata EMPTY = new ImageMetadata(null, null, null);
+
+    static final int PLACEHOLDER_SIZE = 16;
+
+    // Lado aproximado decodificado antes do redimensionamento final.
+    private static final int DECODE_TARGET = PLACEHOLDER_SIZE * 4;
+
+    private ImageMetadataExtractor() {
+    }
+
+    static ImageMetadata extract(InputStream content) {
+        try (ImageInputStream iis = ImageIO.createImageInputStream(content)) {
+            if (iis == null) {
+                return EMPTY;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+            if (!readers.hasNext()) {
+                return EMPTY;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(iis, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, Math.max(width, height) / DECODE_TARGET);
+                param.setSourceSubsampling(step, step, 0, 0);
+                BufferedImage decoded = reader.read(0, param);
+
+                return new ImageMetadata(width, height, toPlaceholder(decoded, width, height));
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("Não foi possível extrair metadados da imagem: {}", e.getMessage());
+            return EMPTY;
+        }
+    }
+
+    private static String toPlaceholder(BufferedImage source, int width, int height) throws IOException {
+        double scale = (double) PLACEHOLDER_SIZE / Math.max(width, height);
+        int w = Math.max(1, (int) Math.round(width * scale));
+        int h = Math.max(1, (int) Math.round(height * scale));
+
+        BufferedImage thumb = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = thumb.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(source, 0, 0, w, h, null);
+        } finally {
+            g.dispose();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+        ImageIO.write(thumb, "png", out);
+        return "data:image/png;base64," + Base64.getEncoder().encodeToString(out.toByteArray());
+    }
+}
@@ -0,0 +1,190 @@
+package com.douglasrohden.backend.service;
+
+import com.douglasrohden.backend.config.MinioProperties;
+import com.douglasrohden.backend.storage.BlobStore;
+import com.douglasrohden.backend.storage.BlobStoreException;
+import com.douglasrohden.backend.storage.BlobStoreUnavailableException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Motor de armazenamento de mídia compartilhado por capas de álbum e imagens de artista.
+ * Concentra validação, geração de chaves, upload, remoção e URLs assinadas sobre um {@link BlobStore}.
+ */
+@Service
+@Slf4j
+public class MediaStorageService {
+
+    public record StoredMedia(String objectKey, String contentType, long sizeBytes,
+            Integer width, Integer height, String placeholder) {
+    }
+
+    public record SignedUrl(String url, Instant expiresAt) {
+    }
+
+    private final BlobStore blobStore;
+    private final MinioProperties properties;
+
+    public MediaStorageService(BlobStore blobStore, MinioProperties properties) {
+        this.blobStore = blobStore;
+        this.properties = properties;
+    }
+
+    public void requireFiles(MultipartFile[] files) {
+        if (files == null || files.length == 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Nenhum arquivo enviado");
+        }
+    }
+
+    /**
+     * Valida e grava o arquivo sob {@code prefix/ownerId/uuid.ext}.
+     */
+    public StoredMedia store(String prefix, Long ownerId, MultipartFile file) {
+        validateFile(file);
+        String objectKey = buildObjectKey(prefix, ownerId, file);
+        String contentType = resolveContentType(file);
+        ImageMetadataExtractor.ImageMetadata metadata = readMetadata(file);
+        try (InputStream is = file.getInputStream()) {
+            blobStore.put(objectKey, is, file.getSize(), contentType);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Falha ao ler arquivo enviado", e);
+        } catch (BlobStoreUnavailableException e) {
+            throw unavailable(e);
+        } catch (BlobStoreException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Falha ao armazenar arquivo no storage", e);
+        }
+        return new StoredMedia(objectKey, contentType, file.getSize(),
+                metadata.width(), metadata.height(), metadata.placeholder());
+    }
+
+    private static ImageMetadataExtractor.ImageMetadata readMetadata(MultipartFile file) {
+        try (InputStream is = file.getInputStream()) {
+            return ImageMetadataExtractor.extract(is);
+        } catch (IOException e) {
+            return ImageMetadataExtractor.EMPTY;
+        }
+    }
+
+    public void delete(String objectKey) {
+        try {
+            blobStore.delete(objectKey);
+        } catch (BlobStoreUnavailableException e) {
+            throw unavailable(e);
+        } catch (BlobStoreException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Falha ao remover objeto no storage", e);
+        }
+    }
+
+    /**
+     * Remove o objeto só depois do commit da transação corrente: a chamada ao storage não segura
+     * conexão nem locks, e um rollback não deixa linha apontando para objeto já apagado.
+     * Falha na remoção vira objeto órfão registrado em log, não erro para o cliente.
+     */
+    public void deleteAfterCommit(String objectKey) {
+        deleteAllAfterCommit(List.of(objectKey));
+    }
+
+    public void deleteAllAfterCommit(Collection<String> objectKeys) {
+        List<String> keys = List.copyOf(objectKeys);
+        if (keys.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            keys.forEach(this::deleteQuietly);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                keys.forEach(MediaStorageService.this::deleteQuietly);
+            }
+        });
+    }
+
+    public void deleteQuietly(String objectKey) {
+        try {
+            delete(objectKey);
+        } catch (RuntimeException e) {
+            log.warn("Objeto órfão no storage: {} ({})", objectKey, e.getMessage());
+        }
+    }
+
+    public SignedUrl sign(String objectKey) {
+        String url = generatePresignedUrl(objectKey);
+        return new SignedUrl(url, Instant.now().plus(presignExpiration()));
+    }
+
+    public String generatePresignedUrl(String objectKey) {
+        try {
+            return blobStore.presign(objectKey, presignExpiration());
+        } catch (BlobStoreUnavailableException e) {
+            throw unavailable(e);
+        } catch (BlobStoreException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Falha ao gerar URL assinada", e);
+        }
+    }
+
+    /**
+     * Variante tolerante para listagens: com o storage degradado devolve {@code null}
+     * e a listagem segue sem URL de capa.
+     */
+    public String generatePresignedUrlOrNull(String objectKey) {
+        try {
+            return blobStore.presign(objectKey, presignExpiration());
+        } catch (BlobStoreException e) {
+            log.debug("URL assinada omitida para {}: {}", objectKey, e.getMessage());
+            return null;
+        }
+    }
+
+    private static ResponseStatusException unavailable(BlobStoreUnavailableException e) {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Storage temporariamente indisponível", e);
+    }
+
+    private Duration presignExpiration() {
+        Integer value = properties.getPresignExpirationMinutes();
+        return Duration.ofMinutes(value == null || value <= 0 ? 30 : value);
+    }
+
+    private static String buildObjectKey(String prefix, Long ownerId, MultipartFile file) {
+        String extension = StringUtils.getFilenameExtension(file.getOriginalFilename());
+        String sanitizedExt = (StringUtils.hasText(extension)) ? extension.toLowerCase() : "bin";
+        return prefix + "/" + ownerId + "/" + UUID.randomUUID() + "." + sanitizedExt;
+    }
+
+    private void validateFile(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Arquivo vazio ou ausente");
+        }
+        if (file.getSize() > properties.getMaxFileSizeBytes()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Tamanho máximo excedido");
+        }
+        String contentType = resolveContentType(file);
+        boolean allowedByPrefix = contentType.startsWith("image/");
+        boolean allowedByConfig = properties.getAllowedContentTypes().stream()
+                .anyMatch(allowedType -> allowedType.equalsIgnoreCase(contentType));
+        if (!(allowedByPrefix || allowedByConfig)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Tipo de arquivo não permitido");
+        }
+    }
+
+    private static String resolveContentType(MultipartFile file) {
+        if (file.getContentType() != null) {
+            return file.getContentType();
+        }
+        return "application/octet-stream";
+    }
+}
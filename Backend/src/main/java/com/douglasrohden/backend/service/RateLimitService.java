@@ -1,16 +1,24 @@
 package com.douglasrohden.backend.service;
 
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.ConsumptionProbe;
-import io.github.bucket4j.Refill;
+import com.douglasrohden.backend.service.ratelimit.HeavyHitters;
+import com.douglasrohden.backend.service.ratelimit.KeyClass;
+import com.douglasrohden.backend.service.ratelimit.RateLimitBackend;
+import com.douglasrohden.backend.service.ratelimit.RateLimitPolicy;
+import com.douglasrohden.backend.service.ratelimit.RateLimitPolicyRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 @Service
 public class RateLimitService {
@@ -20,15 +28,22 @@ public class RateLimitService {
 
     private final long requestsPerWindow;
     private final long windowSeconds;
-    private final long bucketExpireAfterSeconds;
-    private final long bucketMaxSize;
-    private final ConcurrentHashMap<String, BucketHolder> buckets = new ConcurrentHashMap<>();
+    private final RateLimitBackend backend;
+    private final RateLimitPolicyRegistry policies;
+    private final MeterRegistry meterRegistry;
+    // Contadores por política: [permitido|rejeitado] × KeyClass; cardinalidade limitada pelas políticas.
+    private static final KeyClass[] KEY_CLASSES = KeyClass.values();
+    private final Map<String, Counter[]> requestCounters = new ConcurrentHashMap<>();
+    // Instância única: uma referência de método capturando this alocaria a cada chamada.
+    private final Function<String, Counter[]> counterFactory = this::newRequestCounters;
+    private final HeavyHitters rejectedKeys = new HeavyHitters(16, 64);
 
     public RateLimitService(
+            RateLimitBackend backend,
+            RateLimitPolicyRegistry policies,
+            MeterRegistry meterRegistry,
             @Value("${rate-limit.requests-per-window:10}") long requestsPerWindow,
-            @Value("${rate-limit.window-seconds:60}") long windowSeconds,
-            @Value("${rate-limit.bucket-expire-after-seconds:600}") long bucketExpireAfterSeconds,
-            @Value("${rate-limit.bucket-max-size:100000}") long bucketMaxSize
+            @Value("${rate-limit.window-seconds:60}") long windowSeconds
     ) {
         if (requestsPerWindow <= 0) {
             throw new IllegalArgumentException("rate-limit.requests-per-window must be > 0");
@@ -37,10 +52,12 @@ public class RateLimitService {
             throw new IllegalArgumentException("rate-limit.window-seconds must be > 0");
         }
 
+        this.backend = backend;
+        this.policies = policies;
+        this.meterRegistry = meterRegistry;
+        registerBackendMetrics();
         this.requestsPerWindow = requestsPerWindow;
         this.windowSeconds = windowSeconds;
-        this.bucketExpireAfterSeconds = Math.max(1, bucketExpireAfterSeconds);
-        this.bucketMaxSize = Math.max(1, bucketMaxSize);
     }
 
     public long defaultLimitPerWindow() {
@@ -51,65 +68,108 @@ public class RateLimitService {
         return windowSeconds;
     }
 
-    public Probe tryConsume(String key) {
-        return tryConsume(key, requestsPerWindow);
+    /**
+     * Política da rota (método + caminho); sem correspondência, a política padrão.
+     */
+    public RateLimitPolicy resolvePolicy(String method, String path) {
+        return policies.match(method, path);
     }
 
-    public Probe tryConsume(String key, long limitPerWindow) {
-        long limit = Math.max(1, limitPerWindow);
-        String safeKey = (key == null || key.isBlank()) ? "unknown" : key.trim();
-        String bucketKey = limit + ":" + windowSeconds + ":" + safeKey;
+    public Probe tryConsume(KeyClass keyClass, String key) {
+        return tryConsume(keyClass, key, policies.fallback(), 1);
+    }
 
-        long nowMs = System.currentTimeMillis();
-        long expireMs = Duration.ofSeconds(bucketExpireAfterSeconds).toMillis();
+    /**
+     * Consome {@code cost} tokens do bucket da política; cada política tem buckets próprios por
+     * classe e chave. Caminho sem alocação além do {@link Probe} devolvido.
+     */
+    public Probe tryConsume(KeyClass keyClass, String key, RateLimitPolicy policy, long cost) {
+        String safeKey = safeKey(key);
+        Probe probe = backend.tryConsume(policy.spec(), keyClass, safeKey, Math.max(1, cost));
+        record(policy.name(), keyClass, safeKey, probe);
+        return probe;
+    }
 
-        BucketHolder holder = buckets.compute(bucketKey, (k, existing) -> {
-            if (existing == null) {
-                return new BucketHolder(newBucket(limit), nowMs);
-            }
-            if (nowMs - existing.lastAccessMs > expireMs) {
-                return new BucketHolder(newBucket(limit), nowMs);
-            }
-            existing.lastAccessMs = nowMs;
-            return existing;
-        });
-
-        // Limpesa simples para respeitar bucketMaxSize sem biblioteca de cache.
-        // Remove entradas expiradas; se ainda exceder, remove arbitrariamente até caber.
-        if (buckets.size() > bucketMaxSize) {
-            cleanup(nowMs, expireMs);
-        }
+    /**
+     * Chaves mais rejeitadas (aproximado, memória fixa), no formato {@code política chave}.
+     */
+    public List<HeavyHitters.HeavyHitter> topRejectedKeys(int limit) {
+        return rejectedKeys.top(limit);
+    }
 
-        Bucket bucket = holder.bucket;
-        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
-        return new Probe(probe.isConsumed(), probe.getRemainingTokens(), probe.getNanosToWaitForRefill());
+    public void resetRejectedKeys() {
+        rejectedKeys.clear();
     }
 
-    private void cleanup(long nowMs, long expireMs) {
-        // 1) remove expirados
-        for (Map.Entry<String, BucketHolder> entry : buckets.entrySet()) {
-            BucketHolder holder = entry.getValue();
-            if (holder != null && nowMs - holder.lastAccessMs > expireMs) {
-                buckets.remove(entry.getKey(), holder);
-            }
+    private void record(String policy, KeyClass keyClass, String key, Probe probe) {
+        Counter[] counters = requestCounters.get(policy);
+        if (counters == null) {
+            counters = requestCounters.computeIfAbsent(policy, counterFactory);
+        }
+        counters[(probe.consumed() ? 0 : KEY_CLASSES.length) + keyClass.ordinal()].increment();
+        if (!probe.consumed()) {
+            rejectedKeys.record(policy + " " + keyClass.qualify(key));
         }
+    }
 
-        // 2) se ainda exceder, remove o que vier primeiro na iteração
-        if (buckets.size() <= bucketMaxSize) return;
-        for (String k : buckets.keySet()) {
-            buckets.remove(k);
-            if (buckets.size() <= bucketMaxSize) return;
+    private Counter[] newRequestCounters(String policy) {
+        String[] outcomes = { "allowed", "rejected" };
+        Counter[] counters = new Counter[outcomes.length * KEY_CLASSES.length];
+        for (int o = 0; o < outcomes.length; o++) {
+            for (KeyClass keyClass : KEY_CLASSES) {
+                counters[o * KEY_CLASSES.length + keyClass.ordinal()] = Counter.builder("rate_limit.requests")
+                        .description("Requisições avaliadas pelo rate limit")
+                        .tag("outcome", outcomes[o])
+                        .tag("key_class", keyClass.tag())
+                        .tag("policy", policy)
+                        .register(meterRegistry);
+            }
         }
+        return counters;
+    }
+
+    private void registerBackendMetrics() {
+        Gauge.builder("rate_limit.buckets", backend, b -> b.stats().trackedKeys())
+                .description("Chaves com estado de rate limit nesta instância")
+                .register(meterRegistry);
+        Gauge.builder("rate_limit.buckets.max", backend, b -> b.stats().maxSize())
+                .description("Capacidade máxima de chaves antes do despejo")
+                .register(meterRegistry);
+        FunctionCounter.builder("rate_limit.buckets.removed", backend, b -> b.stats().evictions())
+                .description("Chaves removidas do armazenamento de rate limit")
+                .tag("reason", "capacity")
+                .register(meterRegistry);
+        FunctionCounter.builder("rate_limit.buckets.removed", backend, b -> b.stats().expirations())
+                .description("Chaves removidas do armazenamento de rate limit")
+                .tag("reason", "idle")
+                .register(meterRegistry);
+        FunctionTimer.builder("rate_limit.cleanup", backend,
+                        b -> b.stats().cleanupRuns(), b -> b.stats().cleanupNanos(), TimeUnit.NANOSECONDS)
+                .description("Tempo gasto expirando e despejando chaves")
+                .register(meterRegistry);
     }
 
+    // trim() devolve a própria string quando não há espaços: sem alocação no caminho comum.
+    private static String safeKey(String key) {
+        return (key == null || key.isBlank()) ? "unknown" : key.trim();
+    }
+
+    public long trackedKeys() {
+        return backend.trackedKeys();
+    }
 
     public Map<String, Object> buildErrorBody(long retryAfterSeconds) {
+        return buildErrorBody(retryAfterSeconds, policies.fallback());
+    }
+
+    public Map<String, Object> buildErrorBody(long retryAfterSeconds, RateLimitPolicy policy) {
         return Map.of(
                 "code", "RATE_LIMIT",
                 "message", "Muitas requisições. Tente novamente em " + retryAfterSeconds + "s.",
                 "retryAfter", retryAfterSeconds,
-                "limit", requestsPerWindow,
-                "windowSeconds", windowSeconds
+                "limit", policy.limit(),
+                "windowSeconds", policy.windowSeconds(),
+                "policy", policy.name()
         );
     }
 
@@ -140,22 +200,4 @@ public class RateLimitService {
         String remoteAddr = request.getRemoteAddr();
         return remoteAddr != null ? remoteAddr : "unknown";
     }
-
-    private Bucket newBucket(long limitPerWindow) {
-        Bandwidth limit = Bandwidth.classic(
-                limitPerWindow,
-                Refill.intervally(limitPerWindow, Duration.ofSeconds(windowSeconds))
-        );
-        return Bucket.builder().addLimit(limit).build();
-    }
-
-    private static final class BucketHolder {
-        private final Bucket bucket;
-        private volatile long lastAccessMs;
-
-        private BucketHolder(Bucket bucket, long lastAccessMs) {
-            this.bucket = bucket;
-            this.lastAccessMs = lastAccessMs;
-        }
-    }
 }
@@ -0,0 +1,157 @@
+package com.douglasrohden.backend.service;
+
+import java.time.Duration;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Manutenção da {@code refresh_tokens} particionada por semana (V13/V19):
+ * cria as partições das próximas semanas e descarta as vencidas com DETACH + DROP.
+ * <p>
+ * O DETACH usa {@code CONCURRENTLY}, que não bloqueia login e refresh (sem ACCESS EXCLUSIVE na
+ * tabela pai) mas não pode rodar em transação: cada comando vai direto pela conexão, em
+ * autocommit. Um DETACH interrompido deixa a partição pendente e é concluído com
+ * {@code FINALIZE} na rodada seguinte. Se o DETACH falhar, o expurgo recorre a DELETEs em lotes
+ * pequenos, cada um na sua transação.
+ * <p>
+ * Não há partição DEFAULT (ela impediria o {@code CONCURRENTLY}): as partições à frente cobrem
+ * sempre a validade do refresh token, e são garantidas também na subida da aplicação.
+ */
+@Service
+@Slf4j
+public class RefreshTokenMaintenanceService {
+
+    private static final String ENSURE_SQL = "SELECT refresh_tokens_ensure_partitions(:weeksAhead)";
+    // Partições semanais vencidas, anexadas ou não (DETACH concluído mas DROP falhou).
+    private static final String EXPIRED_PARTITIONS_SQL = """
+            SELECT c.relname, i.inhrelid IS NOT NULL AS attached, COALESCE(i.inhdetachpending, false) AS pending
+              FROM pg_class c
+              LEFT JOIN pg_inherits i ON i.inhrelid = c.oid AND i.inhparent = 'refresh_tokens'::regclass
+             WHERE c.relkind = 'r'
+               AND pg_table_is_visible(c.oid)
+               AND c.relname ~ '^refresh_tokens_p[0-9]{8}$'
+               AND to_date(substr(c.relname, 17), 'YYYYMMDD') + 7 + make_interval(secs => :graceSeconds) <= now()
+             ORDER BY c.relname
+            """;
+    private static final String DELETE_BATCH_SQL = """
+            DELETE FROM refresh_tokens
+             WHERE (id, expires_at) IN (
+                   SELECT id, expires_at FROM refresh_tokens
+                    WHERE expires_at < now() - make_interval(secs => :graceSeconds)
+                    LIMIT :batchSize)
+            """;
+
+    record ExpiredPartition(String name, boolean attached, boolean pending) {
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final int weeksAhead;
+    private final Duration grace;
+    private final int batchSize;
+
+    public RefreshTokenMaintenanceService(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            @Value("${refresh-tokens.partitions.weeks-ahead:2}") int weeksAhead,
+            @Value("${jwt.refresh.expiration}") long refreshExpirationMs,
+            @Value("${refresh-tokens.purge.grace-hours:24}") long graceHours,
+            @Value("${refresh-tokens.purge.batch-size:5000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Sem DEFAULT, um refresh com vencimento além da última partição falharia no INSERT.
+        long weekMs = Duration.ofDays(7).toMillis();
+        long weeksOfValidity = (Math.max(0, refreshExpirationMs) + weekMs - 1) / weekMs;
+        this.weeksAhead = (int) Math.max(Math.max(1, weeksAhead), weeksOfValidity);
+        this.grace = Duration.ofHours(Math.max(0, graceHours));
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensurePartitions() {
+        try {
+            Integer created = jdbcTemplate.queryForObject(ENSURE_SQL,
+                    new MapSqlParameterSource("weeksAhead", weeksAhead), Integer.class);
+            if (created != null && created > 0) {
+                log.info("refresh_tokens: {} partições semanais criadas", created);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Falha ao criar partições de refresh_tokens: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${refresh-tokens.maintenance-interval-ms:3600000}",
+            initialDelayString = "${refresh-tokens.maintenance-initial-delay-ms:60000}")
+    public void maintain() {
+        ensurePartitions();
+        if (!dropExpiredPartitions()) {
+            purgeInBatches();
+        }
+    }
+
+    /**
+     * Desanexa (CONCURRENTLY) e remove as partições vencidas; {@code false} se alguma falhou.
+     */
+    boolean dropExpiredPartitions() {
+        List<ExpiredPartition> expired;
+        try {
+            expired = jdbcTemplate.query(EXPIRED_PARTITIONS_SQL,
+                    new MapSqlParameterSource("graceSeconds", grace.toSeconds()),
+                    (rs, i) -> new ExpiredPartition(rs.getString(1), rs.getBoolean(2), rs.getBoolean(3)));
+        } catch (DataAccessException e) {
+            log.warn("Falha ao listar partições vencidas de refresh_tokens: {}", e.getMessage());
+            return false;
+        }
+        JdbcOperations jdbc = jdbcTemplate.getJdbcOperations();
+        int dropped = 0;
+        for (ExpiredPartition partition : expired) {
+            // Nome validado pelo regex da consulta; aspas só por garantia.
+            String table = "\"" + partition.name() + "\"";
+            try {
+                if (partition.pending()) {
+                    jdbc.execute("ALTER TABLE refresh_tokens DETACH PARTITION " + table + " FINALIZE");
+                } else if (partition.attached()) {
+                    jdbc.execute("ALTER TABLE refresh_tokens DETACH PARTITION " + table + " CONCURRENTLY");
+                }
+                jdbc.execute("DROP TABLE " + table);
+                dropped++;
+            } catch (DataAccessException e) {
+                log.warn("DETACH/DROP de {} falhou ({}); expurgando em lotes", partition.name(), e.getMessage());
+                return false;
+            }
+        }
+        if (dropped > 0) {
+            log.info("refresh_tokens: {} partições vencidas removidas", dropped);
+        }
+        return true;
+    }
+
+    /**
+     * Remove linhas vencidas em lotes de {@code batchSize}; retorna o total removido.
+     */
+    long purgeInBatches() {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("graceSeconds", grace.toSeconds())
+                .addValue("batchSize", batchSize);
+        long total = 0;
+        try {
+            int deleted;
+            do {
+                deleted = jdbcTemplate.update(DELETE_BATCH_SQL, params);
+                total += deleted;
+            } while (deleted == batchSize);
+        } catch (DataAccessException e) {
+            log.warn("Falha no expurgo em lotes de refresh_tokens: {}", e.getMessage());
+        }
+        if (total > 0) {
+            log.info("refresh_tokens: {} refresh tokens vencidos removidos em lotes", total);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,17 @@
+package com.douglasrohden.backend.service.ratelimit;
+
+/**
+ * Identifica uma família de buckets: a política (nome) e seus parâmetros.
+ * Políticas diferentes nunca compartilham bucket, mesmo com o mesmo limite e janela.
+ */
+public record BucketSpec(String name, long limit, long windowSeconds) {
+
+    public BucketSpec {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be > 0");
+        }
+        if (windowSeconds <= 0) {
+            throw new IllegalArgumentException("windowSeconds must be > 0");
+        }
+    }
+}
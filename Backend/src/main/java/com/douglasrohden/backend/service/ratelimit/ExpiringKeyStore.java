@@ -0,0 +1,282 @@
+package com.douglasrohden.backend.service.ratelimit;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Armazena o estado de rate limit por ({@link BucketSpec}, {@link KeyClass}, chave) com expiração
+ * por inatividade e capacidade máxima.
+ * <p>
+ * A chave composta não é concatenada: há uma tabela por (spec, classe) (poucos valores distintos)
+ * e dentro dela o mapa é indexado pela própria chave do cliente. O caminho quente é um
+ * {@code get} no {@link ConcurrentHashMap} sem alocação.
+ * <p>
+ * A expiração usa uma roda de tempo (timer wheel) com reagendamento preguiçoso: cada entrada
+ * fica em um slot pelo prazo calculado no momento do agendamento; acessos apenas atualizam
+ * {@code lastAccessMs}. Quando o slot vence, entradas ainda ativas são reagendadas e as
+ * ociosas removidas.
+ * <p>
+ * {@code maxSize} é um limite rígido. Ao excedê-lo, os slots mais antigos são drenados primeiro
+ * despejando as chaves ociosas há mais tempo; se isso não basta (tráfego sustentado de chaves
+ * distintas, todas ativas), uma segunda passada despeja pelos slots mais antigos mesmo entradas
+ * ativas, que recomeçam com saldo cheio no próximo acesso. O excedente é só transitório: as
+ * inserções concorrentes a uma manutenção em andamento, que ela reconfere e despeja ao terminar.
+ * Todo trabalho de expiração é O(1) amortizado por entrada.
+ */
+public final class ExpiringKeyStore<V> {
+
+    private static final int WHEEL_SIZE = 64;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private final long expireAfterMs;
+    private final long tickMs;
+    private final long maxSize;
+    private final LongSupplier clock;
+
+    @SuppressWarnings("unchecked")
+    private final ConcurrentLinkedQueue<Entry<V>>[] wheel = new ConcurrentLinkedQueue[WHEEL_SIZE];
+    private volatile SpecTable<V>[] tables;
+    private final Object tablesLock = new Object();
+
+    private final AtomicLong size = new AtomicLong();
+    private final AtomicBoolean maintenanceRunning = new AtomicBoolean();
+    private volatile long processedTick;
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong cleanupRuns = new AtomicLong();
+    private final AtomicLong cleanupNanos = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    public ExpiringKeyStore(long expireAfterMs, long maxSize, LongSupplier clock) {
+        this.expireAfterMs = Math.max(1, expireAfterMs);
+        // Horizonte de expiração cabe em metade da roda: sem ambiguidade de volta.
+        this.tickMs = Math.max(1, (this.expireAfterMs + (WHEEL_SIZE / 2) - 1) / (WHEEL_SIZE / 2));
+        this.maxSize = Math.max(1, maxSize);
+        this.clock = clock;
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.tables = new SpecTable[0];
+        this.processedTick = clock.getAsLong() / tickMs;
+    }
+
+    /**
+     * Retorna o valor de {@code (spec, keyClass, key)}, criando-o com {@code factory.apply(spec)} se ausente
+     * ou expirado. {@code factory} deve ser uma instância reutilizável (sem captura por chamada).
+     */
+    public V get(BucketSpec spec, KeyClass keyClass, String key, Function<BucketSpec, V> factory) {
+        long nowMs = clock.getAsLong();
+        advance(nowMs);
+
+        SpecTable<V> table = table(spec, keyClass);
+        Entry<V> entry = table.map.get(key);
+        if (entry != null && nowMs - entry.lastAccessMs <= expireAfterMs) {
+            // Escrita só quando muda de tick: evita disputa de cache line em chaves quentes.
+            if (nowMs - entry.lastAccessMs >= tickMs) {
+                entry.lastAccessMs = nowMs;
+            }
+            return entry.value;
+        }
+        return insert(table, key, entry, nowMs, factory);
+    }
+
+    public long size() {
+        return size.get();
+    }
+
+    public long evictions() {
+        return evictions.get();
+    }
+
+    public long maxSize() {
+        return maxSize;
+    }
+
+    public KeyStoreStats stats() {
+        return new KeyStoreStats(size.get(), maxSize, evictions.get(), expirations.get(),
+                cleanupRuns.get(), cleanupNanos.get());
+    }
+
+    private V insert(SpecTable<V> table, String key, Entry<V> stale, long nowMs, Function<BucketSpec, V> factory) {
+        Entry<V> fresh = new Entry<>(table, key, factory.apply(table.spec), nowMs);
+        Entry<V> winner;
+        if (stale == null) {
+            winner = table.map.putIfAbsent(key, fresh);
+            if (winner == null) {
+                winner = fresh;
+            }
+        } else {
+            winner = table.map.replace(key, stale, fresh) ? fresh : table.map.get(key);
+            if (winner == fresh) {
+                size.decrementAndGet();
+            }
+        }
+        if (winner == null) {
+            // Removida por outra thread entre as operações: tenta de novo pelo caminho normal.
+            winner = table.map.computeIfAbsent(key, k -> fresh);
+        }
+        if (winner == fresh) {
+            schedule(fresh, nowMs);
+            if (size.incrementAndGet() > maxSize) {
+                evictOverflow(nowMs);
+            }
+        }
+        return winner.value;
+    }
+
+    private void schedule(Entry<V> entry, long nowMs) {
+        long deadlineTick = (entry.lastAccessMs + expireAfterMs) / tickMs + 1;
+        // Nunca agenda em um slot já processado.
+        long tick = Math.max(deadlineTick, Math.max(processedTick + 1, nowMs / tickMs + 1));
+        entry.scheduledTick = tick;
+        wheel[(int) (tick & WHEEL_MASK)].offer(entry);
+    }
+
+    /**
+     * Processa os slots vencidos desde a última chamada. Apenas uma thread por vez; as demais seguem.
+     */
+    private void advance(long nowMs) {
+        long nowTick = nowMs / tickMs;
+        if (nowTick <= processedTick || !maintenanceRunning.compareAndSet(false, true)) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            long from = processedTick + 1;
+            // Após longa inatividade, uma volta completa já visita todos os slots.
+            long to = Math.min(nowTick, from + WHEEL_SIZE - 1);
+            for (long tick = from; tick <= to; tick++) {
+                processedTick = tick;
+                drainSlot(tick, nowMs, false, false);
+            }
+            processedTick = nowTick;
+        } finally {
+            recordCleanup(started);
+            maintenanceRunning.set(false);
+        }
+        // Inserções que perderam a vez para esta manutenção não despejaram: despeja por elas.
+        evictOverflow(nowMs);
+    }
+
+    private void evictOverflow(long nowMs) {
+        // Reconfere após liberar: uma inserção que perdeu o CAS durante a passada não fica sem despejo.
+        while (size.get() > maxSize && maintenanceRunning.compareAndSet(false, true)) {
+            long started = System.nanoTime();
+            try {
+                trimToMaxSize(nowMs);
+            } finally {
+                recordCleanup(started);
+                maintenanceRunning.set(false);
+            }
+        }
+    }
+
+    /**
+     * Primeira passada: só ociosas há mais tempo. Segunda: limite rígido, pelos slots mais antigos.
+     */
+    private void trimToMaxSize(long nowMs) {
+        for (int pass = 0; pass < 2 && size.get() > maxSize; pass++) {
+            boolean force = pass == 1;
+            long tick = processedTick + 1;
+            for (int i = 0; i < WHEEL_SIZE && size.get() > maxSize; i++, tick++) {
+                drainSlot(tick, nowMs, true, force);
+            }
+        }
+    }
+
+    private void recordCleanup(long startedNanos) {
+        cleanupRuns.incrementAndGet();
+        cleanupNanos.addAndGet(System.nanoTime() - startedNanos);
+    }
+
+    private void drainSlot(long tick, long nowMs, boolean overCapacity, boolean force) {
+        ConcurrentLinkedQueue<Entry<V>> slot = wheel[(int) (tick & WHEEL_MASK)];
+        // Entradas devolvidas ao próprio slot vão para o fim; revê-las encerra a passada.
+        Entry<V> firstRequeued = null;
+        while (!(overCapacity && size.get() <= maxSize)) {
+            Entry<V> entry = slot.poll();
+            if (entry == null || entry == firstRequeued) {
+                if (entry != null) {
+                    slot.offer(entry);
+                }
+                return;
+            }
+            if (entry.scheduledTick > tick && !force) {
+                // Pertence a uma volta futura da roda.
+                slot.offer(entry);
+                if (firstRequeued == null) {
+                    firstRequeued = entry;
+                }
+                continue;
+            }
+            boolean expired = nowMs - entry.lastAccessMs > expireAfterMs;
+            boolean idleLongest = overCapacity && size.get() > maxSize
+                    && (entry.lastAccessMs + expireAfterMs) / tickMs + 1 <= tick;
+            if (expired || idleLongest || force) {
+                if (entry.table.map.remove(entry.key, entry)) {
+                    size.decrementAndGet();
+                    (expired ? expirations : evictions).incrementAndGet();
+                }
+            } else if (entry.table.map.get(entry.key) == entry) {
+                schedule(entry, nowMs);
+                if (entry.scheduledTick == tick && firstRequeued == null) {
+                    firstRequeued = entry;
+                }
+            }
+        }
+    }
+
+    private SpecTable<V> table(BucketSpec spec, KeyClass keyClass) {
+        SpecTable<V>[] current = tables;
+        for (SpecTable<V> t : current) {
+            if (t.keyClass == keyClass && (t.spec == spec || t.spec.equals(spec))) {
+                return t;
+            }
+        }
+        synchronized (tablesLock) {
+            current = tables;
+            for (SpecTable<V> t : current) {
+                // Spec igual (ex.: política recarregada sem mudança) reaproveita a tabela e o estado.
+                if (t.keyClass == keyClass && t.spec.equals(spec)) {
+                    return t;
+                }
+            }
+            SpecTable<V>[] grown = Arrays.copyOf(current, current.length + 1);
+            SpecTable<V> created = new SpecTable<>(spec, keyClass);
+            grown[current.length] = created;
+            tables = grown;
+            return created;
+        }
+    }
+
+    private static final class SpecTable<V> {
+        private final BucketSpec spec;
+        private final KeyClass keyClass;
+        private final ConcurrentHashMap<String, Entry<V>> map = new ConcurrentHashMap<>();
+
+        private SpecTable(BucketSpec spec, KeyClass keyClass) {
+            this.spec = spec;
+            this.keyClass = keyClass;
+        }
+    }
+
+    private static final class Entry<V> {
+        private final SpecTable<V> table;
+        private final String key;
+        private final V value;
+        private volatile long lastAccessMs;
+        private long scheduledTick;
+
+        private Entry(SpecTable<V> table, String key, V value, long lastAccessMs) {
+            this.table = table;
+            this.key = key;
+            this.value = value;
+            this.lastAccessMs = lastAccessMs;
+        }
+    }
+}
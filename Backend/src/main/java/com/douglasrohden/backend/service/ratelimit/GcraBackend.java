@@ -0,0 +1,64 @@
+package com.douglasrohden.backend.service.ratelimit;
+
+import com.douglasrohden.backend.service.RateLimitService.Probe;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Rate limit por GCRA (Generic Cell Rate Algorithm) por JVM ({@code rate-limit.algorithm=gcra}).
+ * <p>
+ * O estado por chave é um único {@code long}: o TAT (theoretical arrival time), em nanos.
+ * Cada token custa {@code T = janela / limite}; a requisição passa se {@code TAT + custo·T}
+ * não ultrapassar {@code agora + janela}, e o novo TAT é gravado com um CAS.
+ * <p>
+ * Diferente do {@link LocalBucketBackend} (recarga integral a cada janela), a recarga é contínua:
+ * um token volta a cada {@code T}. O limite por janela e a rajada máxima ({@code limite}) são os mesmos.
+ */
+public class GcraBackend implements RateLimitBackend {
+
+    private static final Function<BucketSpec, AtomicLong> CELL_FACTORY = spec -> new AtomicLong(Long.MIN_VALUE);
+
+    private final ExpiringKeyStore<AtomicLong> cells;
+    private final LongSupplier clockNanos;
+
+    public GcraBackend(long expireAfterSeconds, long maxSize, LongSupplier clockMs, LongSupplier clockNanos) {
+        this.cells = new ExpiringKeyStore<>(
+                Math.max(1, expireAfterSeconds) * 1000L, Math.max(1, maxSize), clockMs);
+        this.clockNanos = clockNanos;
+    }
+
+    @Override
+    public Probe tryConsume(BucketSpec spec, KeyClass keyClass, String key, long cost) {
+        AtomicLong cell = cells.get(spec, keyClass, key, CELL_FACTORY);
+        long windowNanos = spec.windowSeconds() * 1_000_000_000L;
+        long interval = Math.max(1, windowNanos / spec.limit());
+        long increment = interval * cost;
+
+        while (true) {
+            long now = clockNanos.getAsLong();
+            long stored = cell.get();
+            // Célula nova (MIN_VALUE) ou TAT no passado: saldo cheio a partir de agora.
+            long tat = (stored == Long.MIN_VALUE || stored - now < 0) ? now : stored;
+            long newTat = tat + increment;
+            long allowAt = newTat - windowNanos;
+            if (allowAt - now > 0) {
+                long remaining = Math.max(0, (now - (tat - windowNanos)) / interval);
+                return new Probe(false, remaining, allowAt - now);
+            }
+            if (cell.compareAndSet(stored, newTat)) {
+                return new Probe(true, (now - allowAt) / interval, 0);
+            }
+        }
+    }
+
+    @Override
+    public long trackedKeys() {
+        return cells.size();
+    }
+
+    @Override
+    public KeyStoreStats stats() {
+        return cells.stats();
+    }
+}
@@ -0,0 +1,98 @@
+package com.douglasrohden.backend.service.ratelimit;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Top-K aproximado (algoritmo Space-Saving) com memória fixa: no máximo {@code stripes × capacityPerStripe}
+ * contadores, independente de quantas chaves distintas aparecerem.
+ * <p>
+ * Cada chave cai sempre na mesma faixa (stripe), então as faixas são disjuntas e o top global é a
+ * junção delas. Quando a faixa está cheia, a chave nova herda o menor contador (+1) e guarda esse
+ * valor herdado como {@code error}: a contagem real fica entre {@code count - error} e {@code count}.
+ * Chaves realmente frequentes nunca saem da estrutura.
+ */
+public final class HeavyHitters {
+
+    public record HeavyHitter(String key, long count, long error) {
+    }
+
+    private final Stripe[] stripes;
+
+    public HeavyHitters(int stripes, int capacityPerStripe) {
+        int n = 1;
+        while (n < stripes) {
+            n <<= 1;
+        }
+        this.stripes = new Stripe[n];
+        for (int i = 0; i < n; i++) {
+            this.stripes[i] = new Stripe(Math.max(1, capacityPerStripe));
+        }
+    }
+
+    public void record(String key) {
+        int h = key.hashCode();
+        stripes[(h ^ (h >>> 16)) & (stripes.length - 1)].record(key);
+    }
+
+    public List<HeavyHitter> top(int limit) {
+        List<HeavyHitter> all = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            stripe.snapshot(all);
+        }
+        all.sort(Comparator.comparingLong(HeavyHitter::count).reversed());
+        return all.size() > limit ? List.copyOf(all.subList(0, limit)) : all;
+    }
+
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    private static final class Stripe {
+        private final int capacity;
+        private final Map<String, long[]> counters;
+
+        private Stripe(int capacity) {
+            this.capacity = capacity;
+            this.counters = new HashMap<>(capacity * 2);
+        }
+
+        synchronized void record(String key) {
+            long[] counter = counters.get(key);
+            if (counter != null) {
+                counter[0]++;
+                return;
+            }
+            if (counters.size() < capacity) {
+                counters.put(key, new long[] { 1, 0 });
+                return;
+            }
+            // Substitui o menor contador (k pequeno: busca linear é suficiente).
+            String minKey = null;
+            long[] min = null;
+            for (Map.Entry<String, long[]> e : counters.entrySet()) {
+                if (min == null || e.getValue()[0] < min[0]) {
+                    minKey = e.getKey();
+                    min = e.getValue();
+                }
+            }
+            counters.remove(minKey);
+            min[1] = min[0];
+            min[0]++;
+            counters.put(key, min);
+        }
+
+        synchronized void snapshot(List<HeavyHitter> out) {
+            counters.forEach((k, c) -> out.add(new HeavyHitter(k, c[0], c[1])));
+        }
+
+        synchronized void clear() {
+            counters.clear();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.douglasrohden.backend.service.ratelimit;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+/**
+ * {@link LeaseStore} em Postgres: um único upsert por concessão, com o lock de linha do
+ * {@code ON CONFLICT DO UPDATE} fazendo o papel de compare-and-swap. As expressões do
+ * {@code SET} enxergam a linha antiga, então {@code last_granted} e {@code tokens} saem
+ * do mesmo saldo. O relógio é o do banco ({@code statement_timestamp()}), então réplicas
+ * com relógios diferentes enxergam a mesma janela.
+ */
+public class JdbcLeaseStore implements LeaseStore {
+
+    private static final String NOW_MS = "(EXTRACT(EPOCH FROM statement_timestamp()) * 1000)::BIGINT";
+    private static final String EXPIRED = "b.window_start_ms + :windowMs <= " + NOW_MS;
+    private static final String AVAILABLE = "CASE WHEN " + EXPIRED + " THEN :limit ELSE b.tokens END";
+
+    private static final String ACQUIRE_SQL = """
+            INSERT INTO rate_limit_bucket AS b (bucket_key, tokens, window_start_ms, last_granted)
+            VALUES (:key, :limit - LEAST(:limit, :requested), %1$s, LEAST(:limit, :requested))
+            ON CONFLICT (bucket_key) DO UPDATE SET
+              window_start_ms = CASE WHEN %2$s
+                THEN %1$s - ((%1$s - b.window_start_ms) %% :windowMs)
+                ELSE b.window_start_ms END,
+              last_granted = LEAST(:requested, %3$s),
+              tokens = %3$s - LEAST(:requested, %3$s)
+            RETURNING last_granted, tokens, window_start_ms + :windowMs - %1$s AS window_ends_in_ms
+            """.formatted(NOW_MS, EXPIRED, AVAILABLE);
+
+    private static final String PURGE_SQL =
+            "DELETE FROM rate_limit_bucket WHERE window_start_ms < " + NOW_MS + " - :idleMs";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public JdbcLeaseStore(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public LeaseGrant acquire(String bucketKey, long limit, long windowMs, long requested) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("key", bucketKey)
+                .addValue("limit", limit)
+                .addValue("windowMs", windowMs)
+                .addValue("requested", requested);
+        return jdbcTemplate.queryForObject(ACQUIRE_SQL, params,
+                (rs, i) -> new LeaseGrant(rs.getLong(1), rs.getLong(2), Math.max(0, rs.getLong(3))));
+    }
+
+    @Override
+    public int purgeIdle(long idleMs) {
+        return jdbcTemplate.update(PURGE_SQL, new MapSqlParameterSource("idleMs", idleMs));
+    }
+}
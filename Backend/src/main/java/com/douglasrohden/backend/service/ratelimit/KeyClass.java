@@ -0,0 +1,32 @@
+package com.douglasrohden.backend.service.ratelimit;
+
+/**
+ * Origem da chave de rate limit. Faz parte da identidade do bucket junto com o {@link BucketSpec},
+ * então a chave do cliente (usuário, IP) é usada como veio, sem concatenar prefixo por requisição.
+ */
+public enum KeyClass {
+    USER("user", "user:"),
+    IP("ip", "ip:"),
+    OTHER("other", "");
+
+    private final String tag;
+    private final String prefix;
+
+    KeyClass(String tag, String prefix) {
+        this.tag = tag;
+        this.prefix = prefix;
+    }
+
+    /** Valor da tag {@code key_class} nas métricas. */
+    public String tag() {
+        return tag;
+    }
+
+    /**
+     * Forma textual {@code user:alice}/{@code ip:1.2.3.4}, para o store distribuído e para o top-K
+     * de rejeitadas; fora do caminho quente, porque aloca.
+     */
+    public String qualify(String key) {
+        return prefix.isEmpty() ? key : prefix + key;
+    }
+}
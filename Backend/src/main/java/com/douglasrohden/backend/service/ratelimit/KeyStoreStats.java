@@ -0,0 +1,11 @@
+package com.douglasrohden.backend.service.ratelimit;
+
+/**
+ * Contadores cumulativos de um {@link ExpiringKeyStore}: chaves ativas, despejos por capacidade,
+ * expirações por inatividade e tempo gasto na limpeza da roda de tempo.
+ */
+public record KeyStoreStats(long trackedKeys, long maxSize, long evictions, long expirations,
+        long cleanupRuns, long cleanupNanos) {
+
+    public static final KeyStoreStats EMPTY = new KeyStoreStats(0, 0, 0, 0, 0, 0);
+}
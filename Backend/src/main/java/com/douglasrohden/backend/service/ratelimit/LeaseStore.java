@@ -0,0 +1,25 @@
+package com.douglasrohden.backend.service.ratelimit;
+
+/**
+ * Estado global dos buckets, compartilhado entre réplicas.
+ * <p>
+ * Janela fixa alinhada ao primeiro uso: a cada {@code windowMs} o bucket volta a {@code limit}
+ * tokens (mesma semântica de {@code Refill.intervally}). {@link #acquire} deve ser atômico.
+ */
+public interface LeaseStore {
+
+    /**
+     * @param granted tokens concedidos (0 quando o bucket está vazio)
+     * @param remaining tokens restantes no bucket global após a concessão
+     * @param windowEndsInMs milissegundos até o bucket ser recarregado, no relógio do store
+     */
+    record LeaseGrant(long granted, long remaining, long windowEndsInMs) {
+    }
+
+    LeaseGrant acquire(String bucketKey, long limit, long windowMs, long requested);
+
+    /**
+     * Remove buckets cuja janela começou há mais de {@code idleMs}. Retorna quantos foram removidos.
+     */
+    int purgeIdle(long idleMs);
+}
@@ -0,0 +1,115 @@
+package com.douglasrohden.backend.service.ratelimit;
+
+import com.douglasrohden.backend.service.RateLimitService.Probe;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Rate limit global entre réplicas ({@code rate-limit.mode=distributed}).
+ * <p>
+ * O saldo vive no {@link LeaseStore}; cada instância arrenda um lote de tokens
+ * ({@code leaseFraction} do limite) e os consome localmente, indo ao store só quando o lote acaba.
+ * Tokens arrendados e não usados expiram com a janela, então o limite global nunca é excedido
+ * (no máximo fica mais restritivo para quem alterna réplicas no fim da janela). Um bucket
+ * esgotado é lembrado localmente até a recarga, sem novas idas ao store.
+ * <p>
+ * Se o store falhar, recorre ao backend local (limite por instância) em vez de bloquear a API.
+ */
+@Slf4j
+public class LeasedRateLimitBackend implements RateLimitBackend {
+
+    private static final long FAILURE_LOG_INTERVAL_MS = 30_000L;
+
+    private final LeaseStore store;
+    private final RateLimitBackend fallback;
+    private final double leaseFraction;
+    private final LongSupplier clockMs;
+    private final Function<BucketSpec, LocalLease> leaseFactory = spec -> new LocalLease();
+    private final ExpiringKeyStore<LocalLease> leases;
+    private final AtomicLong lastFailureLogMs = new AtomicLong();
+
+    public LeasedRateLimitBackend(LeaseStore store, RateLimitBackend fallback, long maxWindowSeconds,
+            double leaseFraction, long maxKeys, LongSupplier clockMs) {
+        this.store = store;
+        this.fallback = fallback;
+        this.leaseFraction = Math.min(1.0, Math.max(0.0, leaseFraction));
+        this.clockMs = clockMs;
+        // A entrada local só precisa durar a maior janela.
+        this.leases = new ExpiringKeyStore<>(maxWindowSeconds * 1000L, maxKeys, clockMs);
+    }
+
+    @Override
+    public Probe tryConsume(BucketSpec spec, KeyClass keyClass, String key, long cost) {
+        LocalLease lease = leases.get(spec, keyClass, key, leaseFactory);
+        synchronized (lease) {
+            long nowMs = clockMs.getAsLong();
+            if (nowMs >= lease.validUntilMs) {
+                lease.tokens = 0;
+                lease.exhausted = false;
+            }
+            if (lease.tokens >= cost) {
+                lease.tokens -= cost;
+                return new Probe(true, lease.tokens + lease.globalRemaining, 0);
+            }
+            if (lease.exhausted) {
+                return new Probe(false, lease.tokens, (lease.validUntilMs - nowMs) * 1_000_000L);
+            }
+
+            long needed = cost - lease.tokens;
+            LeaseStore.LeaseGrant grant;
+            try {
+                grant = store.acquire(storeKey(spec, keyClass, key), spec.limit(), spec.windowSeconds() * 1000L,
+                        Math.max(needed, leaseSize(spec.limit())));
+            } catch (RuntimeException e) {
+                logFailure(nowMs, e);
+                return fallback.tryConsume(spec, keyClass, key, cost);
+            }
+
+            lease.validUntilMs = nowMs + grant.windowEndsInMs();
+            lease.globalRemaining = grant.remaining();
+            // Tokens concedidos já saíram do saldo global: ficam no arrendamento mesmo se não bastarem.
+            lease.tokens += grant.granted();
+            if (lease.tokens < cost) {
+                lease.exhausted = grant.remaining() <= 0;
+                return new Probe(false, lease.tokens, grant.windowEndsInMs() * 1_000_000L);
+            }
+            lease.tokens -= cost;
+            return new Probe(true, lease.tokens + grant.remaining(), 0);
+        }
+    }
+
+    @Override
+    public long trackedKeys() {
+        return leases.size();
+    }
+
+    @Override
+    public KeyStoreStats stats() {
+        return leases.stats();
+    }
+
+    // Só quando o arrendamento acaba; mantém o formato "política:limite:janela:user:alice".
+    private static String storeKey(BucketSpec spec, KeyClass keyClass, String key) {
+        return spec.name() + ":" + spec.limit() + ":" + spec.windowSeconds() + ":" + keyClass.qualify(key);
+    }
+
+    long leaseSize(long limit) {
+        return Math.max(1, Math.min(limit, Math.round(limit * leaseFraction)));
+    }
+
+    private void logFailure(long nowMs, RuntimeException e) {
+        long last = lastFailureLogMs.get();
+        if (nowMs - last >= FAILURE_LOG_INTERVAL_MS && lastFailureLogMs.compareAndSet(last, nowMs)) {
+            log.warn("Rate limit store indisponível; usando limite local por instância: {}", e.getMessage());
+        }
+    }
+
+    private static final class LocalLease {
+        private long tokens;
+        private long globalRemaining;
+        private long validUntilMs;
+        private boolean exhausted;
+    }
+}
@@ -0,0 +1,54 @@
+package com.douglasrohden.backend.service.ratelimit;
+
+import com.douglasrohden.backend.service.RateLimitService.Probe;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.Refill;
+import io.github.bucket4j.local.SynchronizationStrategy;
+import java.time.Duration;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Buckets Bucket4j por JVM ({@code rate-limit.mode=local}). Com N réplicas o limite efetivo é N × limite.
+ */
+public class LocalBucketBackend implements RateLimitBackend {
+
+    private final Function<BucketSpec, Bucket> bucketFactory = LocalBucketBackend::newBucket;
+    private final ExpiringKeyStore<Bucket> buckets;
+
+    public LocalBucketBackend(long bucketExpireAfterSeconds, long bucketMaxSize, LongSupplier clockMs) {
+        this.buckets = new ExpiringKeyStore<>(
+                Math.max(1, bucketExpireAfterSeconds) * 1000L, Math.max(1, bucketMaxSize), clockMs);
+    }
+
+    @Override
+    public Probe tryConsume(BucketSpec spec, KeyClass keyClass, String key, long cost) {
+        Bucket bucket = buckets.get(spec, keyClass, key, bucketFactory);
+        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(cost);
+        return new Probe(probe.isConsumed(), probe.getRemainingTokens(), probe.getNanosToWaitForRefill());
+    }
+
+    @Override
+    public long trackedKeys() {
+        return buckets.size();
+    }
+
+    @Override
+    public KeyStoreStats stats() {
+        return buckets.stats();
+    }
+
+    private static Bucket newBucket(BucketSpec spec) {
+        Bandwidth limit = Bandwidth.classic(
+                spec.limit(),
+                Refill.intervally(spec.limit(), Duration.ofSeconds(spec.windowSeconds()))
+        );
+        // SYNCHRONIZED altera o estado no lugar; o padrão lock-free copia o estado a cada CAS.
+        return Bucket.builder()
+                .withSynchronizationStrategy(SynchronizationStrategy.SYNCHRONIZED)
+                .addLimit(limit)
+                .build();
+    }
+}
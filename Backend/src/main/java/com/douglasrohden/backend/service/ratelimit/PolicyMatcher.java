@@ -0,0 +1,161 @@
+package com.douglasrohden.backend.service.ratelimit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Trie de segmentos de rota compilada uma vez a partir das políticas.
+ * <p>
+ * Segmentos suportados: literal, {@code *} ou {@code {var}} (um segmento) e {@code **} (resto do caminho).
+ * O match percorre o path por índices, sem dividir a string nem iterar padrões:
+ * literal tem precedência sobre curinga de um segmento, que tem precedência sobre {@code **};
+ * no mesmo nó vence a primeira política declarada que aceita o método.
+ */
+public final class PolicyMatcher {
+
+    private final Node root = new Node();
+    private final RateLimitPolicy fallback;
+    private final List<RateLimitPolicy> policies;
+
+    public PolicyMatcher(List<RateLimitPolicy> policies, RateLimitPolicy fallback) {
+        this.policies = List.copyOf(policies);
+        this.fallback = fallback;
+        // O nome identifica o bucket: duas políticas com o mesmo nome dividiriam o mesmo saldo.
+        Set<String> names = new HashSet<>();
+        names.add(fallback.name());
+        for (RateLimitPolicy policy : this.policies) {
+            if (!names.add(policy.name())) {
+                throw new IllegalArgumentException("duplicate rate limit policy name: " + policy.name());
+            }
+            insert(policy);
+        }
+    }
+
+    public List<RateLimitPolicy> policies() {
+        return policies;
+    }
+
+    public RateLimitPolicy fallback() {
+        return fallback;
+    }
+
+    public RateLimitPolicy match(String method, String path) {
+        if (path == null) {
+            return fallback;
+        }
+        RateLimitPolicy found = match(root, path, skipSlashes(path, 0), RateLimitPolicy.methodBit(method));
+        return found != null ? found : fallback;
+    }
+
+    private RateLimitPolicy match(Node node, String path, int pos, int methodBit) {
+        int len = path.length();
+        if (pos >= len) {
+            RateLimitPolicy p = first(node.terminal, methodBit);
+            return p != null ? p : first(node.rest, methodBit);
+        }
+        int end = path.indexOf('/', pos);
+        if (end < 0) {
+            end = len;
+        }
+        int segLen = end - pos;
+        int next = skipSlashes(path, end);
+
+        for (int i = 0; i < node.literals.length; i++) {
+            String literal = node.literals[i];
+            if (literal.length() == segLen && path.regionMatches(pos, literal, 0, segLen)) {
+                RateLimitPolicy p = match(node.literalChildren[i], path, next, methodBit);
+                if (p != null) {
+                    return p;
+                }
+            }
+        }
+        if (node.wildcard != null) {
+            RateLimitPolicy p = match(node.wildcard, path, next, methodBit);
+            if (p != null) {
+                return p;
+            }
+        }
+        return first(node.rest, methodBit);
+    }
+
+    private static RateLimitPolicy first(RateLimitPolicy[] candidates, int methodBit) {
+        for (RateLimitPolicy p : candidates) {
+            if (p.allows(methodBit)) {
+                return p;
+            }
+        }
+        return null;
+    }
+
+    private static int skipSlashes(String path, int pos) {
+        int i = pos;
+        while (i < path.length() && path.charAt(i) == '/') {
+            i++;
+        }
+        return i;
+    }
+
+    private void insert(RateLimitPolicy policy) {
+        Node node = root;
+        List<String> segments = new ArrayList<>();
+        for (String s : policy.pattern().split("/")) {
+            if (!s.isEmpty()) {
+                segments.add(s);
+            }
+        }
+        for (int i = 0; i < segments.size(); i++) {
+            String seg = segments.get(i);
+            if (seg.equals("**")) {
+                if (i != segments.size() - 1) {
+                    throw new IllegalArgumentException("'**' must be the last segment: " + policy.pattern());
+                }
+                node.rest = append(node.rest, policy);
+                return;
+            }
+            node = isWildcard(seg) ? node.wildcardChild() : node.literalChild(seg);
+        }
+        node.terminal = append(node.terminal, policy);
+    }
+
+    private static boolean isWildcard(String seg) {
+        return seg.equals("*") || (seg.startsWith("{") && seg.endsWith("}"));
+    }
+
+    private static RateLimitPolicy[] append(RateLimitPolicy[] array, RateLimitPolicy policy) {
+        RateLimitPolicy[] grown = Arrays.copyOf(array, array.length + 1);
+        grown[array.length] = policy;
+        return grown;
+    }
+
+    private static final class Node {
+        private String[] literals = new String[0];
+        private Node[] literalChildren = new Node[0];
+        private Node wildcard;
+        private RateLimitPolicy[] terminal = new RateLimitPolicy[0];
+        private RateLimitPolicy[] rest = new RateLimitPolicy[0];
+
+        private Node literalChild(String literal) {
+            for (int i = 0; i < literals.length; i++) {
+                if (literals[i].equals(literal)) {
+                    return literalChildren[i];
+                }
+            }
+            Node child = new Node();
+            literals = Arrays.copyOf(literals, literals.length + 1);
+            literalChildren = Arrays.copyOf(literalChildren, literalChildren.length + 1);
+            literals[literals.length - 1] = literal;
+            literalChildren[literalChildren.length - 1] = child;
+            return child;
+        }
+
+        private Node wildcardChild() {
+            if (wildcard == null) {
+                wildcard = new Node();
+            }
+            return wildcard;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.douglasrohden.backend.service.ratelimit;
+
+import com.douglasrohden.backend.service.RateLimitService.Probe;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Primeiro estágio do rate limit, por IP, avaliado antes de qualquer trabalho de autenticação.
+ * <p>
+ * Sempre local e em GCRA (um {@code long} por IP), mesmo com {@code rate-limit.mode=distributed}:
+ * o objetivo é descartar enxurradas sem JWT, banco ou rede. O limite é folgado (vários usuários
+ * atrás do mesmo NAT); o limite fino por usuário continua no {@code ApiRateLimitFilter}.
+ */
+@Component
+public class PreAuthRateLimiter {
+
+    public static final String POLICY_NAME = "preauth";
+
+    private final RateLimitPolicy policy;
+    private final GcraBackend backend;
+    private final Counter allowed;
+    private final Counter rejected;
+
+    public PreAuthRateLimiter(
+            MeterRegistry meterRegistry,
+            @Value("${rate-limit.pre-auth.requests-per-window:300}") long requestsPerWindow,
+            @Value("${rate-limit.pre-auth.window-seconds:60}") long windowSeconds,
+            @Value("${rate-limit.pre-auth.max-keys:100000}") long maxKeys) {
+        this.policy = new RateLimitPolicy(POLICY_NAME, "/**", List.of(), requestsPerWindow, windowSeconds, 1, 0);
+        this.backend = new GcraBackend(2 * windowSeconds, maxKeys, System::currentTimeMillis, System::nanoTime);
+        this.allowed = counter(meterRegistry, "allowed");
+        this.rejected = counter(meterRegistry, "rejected");
+    }
+
+    public Probe tryConsume(String ip) {
+        Probe probe = backend.tryConsume(policy.spec(), KeyClass.IP, ip == null ? "unknown" : ip, 1);
+        (probe.consumed() ? allowed : rejected).increment();
+        return probe;
+    }
+
+    public RateLimitPolicy policy() {
+        return policy;
+    }
+
+    public long trackedKeys() {
+        return backend.trackedKeys();
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("rate_limit.requests")
+                .description("Requisições avaliadas pelo rate limit")
+                .tag("outcome", outcome)
+                .tag("key_class", KeyClass.IP.tag())
+                .tag("policy", POLICY_NAME)
+                .register(meterRegistry);
+    }
+}
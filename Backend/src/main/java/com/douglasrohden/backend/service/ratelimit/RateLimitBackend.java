@@ -0,0 +1,27 @@
+package com.douglasrohden.backend.service.ratelimit;
+
+import com.douglasrohden.backend.service.RateLimitService.Probe;
+
+/**
+ * Onde o estado dos buckets vive (JVM local ou compartilhado entre réplicas).
+ * Selecionado por {@code rate-limit.mode}.
+ */
+public interface RateLimitBackend {
+
+    /**
+     * Consome {@code cost} tokens do bucket {@code (spec, keyClass, key)}. {@code cost} já vem limitado a {@code spec.limit()}.
+     */
+    Probe tryConsume(BucketSpec spec, KeyClass keyClass, String key, long cost);
+
+    /**
+     * Quantidade de chaves mantidas em memória nesta instância.
+     */
+    long trackedKeys();
+
+    /**
+     * Estatísticas do armazenamento de chaves desta instância, para métricas.
+     */
+    default KeyStoreStats stats() {
+        return KeyStoreStats.EMPTY;
+    }
+}
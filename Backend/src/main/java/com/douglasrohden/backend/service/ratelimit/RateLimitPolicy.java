@@ -0,0 +1,114 @@
+package com.douglasrohden.backend.service.ratelimit;
+
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Política compilada: rota + métodos mapeados para um bucket ({@link BucketSpec}) e um custo em tokens.
+ * <p>
+ * O custo base pode crescer com o tamanho da requisição: com {@code bytesPerToken > 0},
+ * cada {@code bytesPerToken} bytes de {@code Content-Length} somam um token (ex.: uploads).
+ */
+public final class RateLimitPolicy {
+
+    public static final String DEFAULT_NAME = "default";
+
+    static final int ALL_METHODS = -1;
+
+    private final String pattern;
+    private final int methodMask;
+    private final BucketSpec spec;
+    private final long cost;
+    private final long bytesPerToken;
+
+    public RateLimitPolicy(String name, String pattern, Collection<String> methods,
+            long limit, long windowSeconds, long cost, long bytesPerToken) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("rate limit policy name is required");
+        }
+        if (pattern == null || !pattern.startsWith("/")) {
+            throw new IllegalArgumentException("rate limit policy '" + name + "' pattern must start with '/'");
+        }
+        this.pattern = pattern;
+        this.methodMask = methodMask(methods);
+        this.spec = new BucketSpec(name, limit, windowSeconds);
+        this.cost = Math.max(1, cost);
+        this.bytesPerToken = Math.max(0, bytesPerToken);
+    }
+
+    public String name() {
+        return spec.name();
+    }
+
+    public String pattern() {
+        return pattern;
+    }
+
+    public BucketSpec spec() {
+        return spec;
+    }
+
+    public long limit() {
+        return spec.limit();
+    }
+
+    public long windowSeconds() {
+        return spec.windowSeconds();
+    }
+
+    public long baseCost() {
+        return cost;
+    }
+
+    public long bytesPerToken() {
+        return bytesPerToken;
+    }
+
+    /**
+     * Custo da requisição, nunca acima do limite (senão jamais seria atendida).
+     */
+    public long cost(long contentLength) {
+        long total = cost;
+        if (bytesPerToken > 0 && contentLength > 0) {
+            total += (contentLength + bytesPerToken - 1) / bytesPerToken;
+        }
+        return Math.min(total, spec.limit());
+    }
+
+    boolean allows(int methodBit) {
+        return (methodMask & methodBit) != 0;
+    }
+
+    static int methodBit(String method) {
+        if (method == null) {
+            return 1 << 7;
+        }
+        return switch (method) {
+            case "GET" -> 1;
+            case "POST" -> 1 << 1;
+            case "PUT" -> 1 << 2;
+            case "DELETE" -> 1 << 3;
+            case "PATCH" -> 1 << 4;
+            case "HEAD" -> 1 << 5;
+            case "OPTIONS" -> 1 << 6;
+            default -> 1 << 7;
+        };
+    }
+
+    private static int methodMask(Collection<String> methods) {
+        if (methods == null || methods.isEmpty()) {
+            return ALL_METHODS;
+        }
+        int mask = 0;
+        for (String m : methods) {
+            mask |= methodBit(m.trim().toUpperCase(Locale.ROOT));
+        }
+        return mask;
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimitPolicy[" + spec.name() + " " + pattern + " limit=" + spec.limit()
+                + "/" + spec.windowSeconds() + "s cost=" + cost + "]";
+    }
+}
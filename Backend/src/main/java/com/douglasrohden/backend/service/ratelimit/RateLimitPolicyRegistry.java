@@ -0,0 +1,43 @@
+package com.douglasrohden.backend.service.ratelimit;
+
+import java.util.List;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mantém o {@link PolicyMatcher} atual e o recompila sob demanda a partir da fonte de políticas,
+ * sem reiniciar a aplicação. Se a nova configuração for inválida, a anterior continua valendo.
+ */
+@Slf4j
+public class RateLimitPolicyRegistry {
+
+    private final Supplier<List<RateLimitPolicy>> source;
+    private final RateLimitPolicy fallback;
+    private volatile PolicyMatcher matcher;
+
+    public RateLimitPolicyRegistry(Supplier<List<RateLimitPolicy>> source, RateLimitPolicy fallback) {
+        this.source = source;
+        this.fallback = fallback;
+        this.matcher = new PolicyMatcher(source.get(), fallback);
+        log.info("Rate limit: {} políticas carregadas", matcher.policies().size());
+    }
+
+    public RateLimitPolicy match(String method, String path) {
+        return matcher.match(method, path);
+    }
+
+    public PolicyMatcher current() {
+        return matcher;
+    }
+
+    public RateLimitPolicy fallback() {
+        return fallback;
+    }
+
+    public synchronized PolicyMatcher reload() {
+        PolicyMatcher compiled = new PolicyMatcher(source.get(), fallback);
+        matcher = compiled;
+        log.info("Rate limit: políticas recarregadas ({})", compiled.policies().size());
+        return compiled;
+    }
+}
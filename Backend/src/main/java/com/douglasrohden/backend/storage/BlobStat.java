@@ -0,0 +1,6 @@
+package com.douglasrohden.backend.storage;
+
+import java.time.Instant;
+
+public record BlobStat(String key, long size, String contentType, Instant lastModified) {
+}
@@ -0,0 +1,32 @@
+package com.douglasrohden.backend.storage;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Abstração do armazenamento de objetos (capas de álbum, imagens de artista).
+ * Implementações devem ser thread-safe e lançar {@link BlobStoreException}
+ * em falhas do backend.
+ */
+public interface BlobStore {
+
+    void put(String key, InputStream content, long size, String contentType);
+
+    InputStream get(String key);
+
+    Optional<BlobStat> stat(String key);
+
+    void delete(String key);
+
+    String presign(String key, Duration expiry);
+
+    List<BlobStat> list(String prefix);
+
+    /**
+     * Prepara o backend (ex.: cria o bucket). Chamado na inicialização; deve ser idempotente.
+     */
+    default void ensureReady() {
+    }
+}
@@ -0,0 +1,8 @@
+package com.douglasrohden.backend.storage;
+
+public class BlobStoreException extends RuntimeException {
+
+    public BlobStoreException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package com.douglasrohden.backend.storage;
+
+/**
+ * Lançada sem tocar no backend quando o circuit breaker está aberto ou o bulkhead está cheio.
+ */
+public class BlobStoreUnavailableException extends BlobStoreException {
+
+    public BlobStoreUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,194 @@
+package com.douglasrohden.backend.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * {@link BlobStore} sobre o sistema de arquivos local, para instalações de nó único e
+ * testes de carga sem MinIO.
+ * <p>
+ * Escritas vão para um arquivo temporário no mesmo diretório, recebem fsync e são renomeadas
+ * atomicamente, de modo que leitores nunca veem um objeto parcial. As URLs "pré-assinadas"
+ * apontam para {@code /media/**} com assinatura HMAC e expiração ({@link LocalUrlSigner}).
+ */
+public class FilesystemBlobStore implements BlobStore {
+
+    public static final String MEDIA_PATH = "/media/";
+
+    private final Path root;
+    private final LocalUrlSigner signer;
+    private final String publicBaseUrl;
+
+    public FilesystemBlobStore(Path root, LocalUrlSigner signer, String publicBaseUrl) {
+        this.root = root.toAbsolutePath().normalize();
+        this.signer = signer;
+        this.publicBaseUrl = publicBaseUrl == null ? "" : stripTrailingSlash(publicBaseUrl);
+    }
+
+    @Override
+    public void put(String key, InputStream content, long size, String contentType) {
+        Path target = resolve(key);
+        Path tmp = null;
+        try {
+            Path dir = target.getParent();
+            Files.createDirectories(dir);
+            tmp = Files.createTempFile(dir, ".upload-", ".tmp");
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE);
+                    ReadableByteChannel in = Channels.newChannel(content)) {
+                long position = 0;
+                long transferred;
+                while ((transferred = out.transferFrom(in, position, Long.MAX_VALUE - position)) > 0) {
+                    position += transferred;
+                }
+                out.force(true);
+            }
+            moveAtomically(tmp, target);
+            tmp = null;
+            syncDirectory(dir);
+        } catch (IOException e) {
+            throw new BlobStoreException("Falha ao gravar objeto " + key, e);
+        } finally {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                    // melhor esforço; o arquivo temporário é oculto e não é listado
+                }
+            }
+        }
+    }
+
+    @Override
+    public InputStream get(String key) {
+        try {
+            return Files.newInputStream(resolve(key));
+        } catch (IOException e) {
+            throw new BlobStoreException("Falha ao ler objeto " + key, e);
+        }
+    }
+
+    /**
+     * Caminho canônico do arquivo do objeto, para o {@code LocalMediaController} entregá-lo ao
+     * sendfile do Tomcat.
+     */
+    public Optional<Path> file(String key) {
+        try {
+            Path path = resolve(key).toRealPath();
+            return path.startsWith(root.toRealPath()) && Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new BlobStoreException("Falha ao abrir objeto " + key, e);
+        }
+    }
+
+    @Override
+    public Optional<BlobStat> stat(String key) {
+        Path path = resolve(key);
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            return Optional.of(new BlobStat(key, attrs.size(), Files.probeContentType(path),
+                    attrs.lastModifiedTime().toInstant()));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new BlobStoreException("Falha ao consultar objeto " + key, e);
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        try {
+            Files.deleteIfExists(resolve(key));
+        } catch (IOException e) {
+            throw new BlobStoreException("Falha ao remover objeto " + key, e);
+        }
+    }
+
+    @Override
+    public String presign(String key, Duration expiry) {
+        long expiresAt = Instant.now().plus(expiry).getEpochSecond();
+        return publicBaseUrl + MEDIA_PATH + key
+                + "?expires=" + expiresAt
+                + "&signature=" + signer.sign(key, expiresAt);
+    }
+
+    @Override
+    public List<BlobStat> list(String prefix) {
+        Path base = resolve(prefix);
+        Path start = Files.isDirectory(base) ? base : base.getParent();
+        if (start == null || !Files.isDirectory(start)) {
+            return List.of();
+        }
+        try (Stream<Path> paths = Files.walk(start)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(p -> !p.getFileName().toString().startsWith(".upload-"))
+                    .map(p -> root.relativize(p).toString().replace('\\', '/'))
+                    .filter(k -> k.startsWith(prefix))
+                    .sorted(Comparator.naturalOrder())
+                    .map(k -> stat(k).orElse(null))
+                    .filter(s -> s != null)
+                    .toList();
+        } catch (IOException e) {
+            throw new BlobStoreException("Falha ao listar objetos com prefixo " + prefix, e);
+        }
+    }
+
+    @Override
+    public void ensureReady() {
+        try {
+            Files.createDirectories(root);
+        } catch (IOException e) {
+            throw new BlobStoreException("Falha ao preparar diretório de mídia " + root, e);
+        }
+    }
+
+    public LocalUrlSigner signer() {
+        return signer;
+    }
+
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new BlobStoreException("Chave de objeto inválida: " + key, null);
+        }
+        return path;
+    }
+
+    private static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void syncDirectory(Path dir) {
+        // Garante que o rename sobreviva a uma queda; não suportado em todos os SOs (ex.: Windows).
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ignored) {
+            // sem suporte a fsync de diretório
+        }
+    }
+
+    private static String stripTrailingSlash(String value) {
+        return value.endsWith("/") ? value.substring(0, value.length() - 1) : value;
+    }
+}
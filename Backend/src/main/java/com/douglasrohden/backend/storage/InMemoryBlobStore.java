@@ -0,0 +1,71 @@
+package com.douglasrohden.backend.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Implementação em memória, usada em testes e execuções locais sem MinIO.
+ */
+public class InMemoryBlobStore implements BlobStore {
+
+    private record Blob(byte[] content, String contentType, Instant lastModified) {
+    }
+
+    private final ConcurrentHashMap<String, Blob> blobs = new ConcurrentHashMap<>();
+
+    @Override
+    public void put(String key, InputStream content, long size, String contentType) {
+        try {
+            byte[] bytes = content.readAllBytes();
+            blobs.put(key, new Blob(bytes, contentType, Instant.now()));
+        } catch (IOException e) {
+            throw new BlobStoreException("Falha ao ler conteúdo do objeto " + key, e);
+        }
+    }
+
+    @Override
+    public InputStream get(String key) {
+        Blob blob = blobs.get(key);
+        if (blob == null) {
+            throw new BlobStoreException("Objeto não encontrado: " + key, null);
+        }
+        return new ByteArrayInputStream(blob.content());
+    }
+
+    @Override
+    public Optional<BlobStat> stat(String key) {
+        Blob blob = blobs.get(key);
+        return blob == null ? Optional.empty() : Optional.of(toStat(key, blob));
+    }
+
+    @Override
+    public void delete(String key) {
+        blobs.remove(key);
+    }
+
+    @Override
+    public String presign(String key, Duration expiry) {
+        long expiresAt = Instant.now().plus(expiry).getEpochSecond();
+        return "memory://" + key + "?expires=" + expiresAt;
+    }
+
+    @Override
+    public List<BlobStat> list(String prefix) {
+        return blobs.entrySet().stream()
+                .filter(e -> e.getKey().startsWith(prefix))
+                .map(e -> toStat(e.getKey(), e.getValue()))
+                .sorted(Comparator.comparing(BlobStat::key))
+                .toList();
+    }
+
+    private static BlobStat toStat(String key, Blob blob) {
+        return new BlobStat(key, blob.content().length, blob.contentType(), blob.lastModified());
+    }
+}
@@ -0,0 +1,68 @@
+package com.douglasrohden.backend.storage;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Assina URLs locais com HMAC-SHA256 sobre {@code chave + expiração}, substituindo
+ * as URLs pré-assinadas do MinIO quando o storage é o sistema de arquivos.
+ * <p>
+ * A chave de assinatura é derivada do segredo configurado com HKDF-SHA256 e um rótulo próprio:
+ * mesmo que o segredo seja compartilhado com o JWT, as chaves efetivas são distintas.
+ */
+public class LocalUrlSigner {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final byte[] KEY_LABEL = "local-media-url-signing/v1".getBytes(StandardCharsets.UTF_8);
+
+    private final SecretKeySpec keySpec;
+
+    public LocalUrlSigner(String secret) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("storage.filesystem.signing-secret must be provided");
+        }
+        this.keySpec = new SecretKeySpec(deriveKey(secret.getBytes(StandardCharsets.UTF_8)), ALGORITHM);
+    }
+
+    /**
+     * HKDF (RFC 5869) com salt vazio e um único bloco de saída: extract e depois expand com o rótulo.
+     */
+    static byte[] deriveKey(byte[] secret) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(new SecretKeySpec(new byte[32], ALGORITHM));
+            byte[] prk = mac.doFinal(secret);
+            mac.init(new SecretKeySpec(prk, ALGORITHM));
+            mac.update(KEY_LABEL);
+            mac.update((byte) 1);
+            return mac.doFinal();
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to derive local media signing key", e);
+        }
+    }
+
+    public String sign(String key, long expiresAtEpochSeconds) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(keySpec);
+            byte[] digest = mac.doFinal((key + "\n" + expiresAtEpochSeconds).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (Exception e) {
+            throw new IllegalStateException("Unable to sign local media URL", e);
+        }
+    }
+
+    /**
+     * Verifica assinatura (comparação em tempo constante) e expiração.
+     */
+    public boolean verify(String key, long expiresAtEpochSeconds, String signature, long nowEpochSeconds) {
+        if (signature == null || expiresAtEpochSeconds < nowEpochSeconds) {
+            return false;
+        }
+        byte[] expected = sign(key, expiresAtEpochSeconds).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, signature.getBytes(StandardCharsets.US_ASCII));
+    }
+}
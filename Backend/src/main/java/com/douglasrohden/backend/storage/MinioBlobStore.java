@@ -0,0 +1,147 @@
+package com.douglasrohden.backend.storage;
+
+import io.minio.BucketExistsArgs;
+import io.minio.GetObjectArgs;
+import io.minio.GetPresignedObjectUrlArgs;
+import io.minio.ListObjectsArgs;
+import io.minio.MakeBucketArgs;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import io.minio.RemoveObjectArgs;
+import io.minio.Result;
+import io.minio.StatObjectArgs;
+import io.minio.StatObjectResponse;
+import io.minio.errors.ErrorResponseException;
+import io.minio.http.Method;
+import io.minio.messages.Item;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link BlobStore} de produção sobre MinIO/S3.
+ * <p>
+ * Usa um único {@link MinioClient} (e portanto um único pool OkHttp) para operações de I/O
+ * e um segundo cliente, apontando para o endpoint externo, apenas para assinar URLs.
+ */
+public class MinioBlobStore implements BlobStore {
+
+    private final MinioClient minioClient;
+    private final MinioClient presignClient;
+    private final String bucket;
+    private final AtomicBoolean bucketEnsured = new AtomicBoolean(false);
+
+    public MinioBlobStore(MinioClient minioClient, MinioClient presignClient, String bucket) {
+        this.minioClient = minioClient;
+        this.presignClient = presignClient;
+        this.bucket = bucket;
+    }
+
+    @Override
+    public void put(String key, InputStream content, long size, String contentType) {
+        ensureReady();
+        try {
+            minioClient.putObject(PutObjectArgs.builder()
+                    .bucket(bucket)
+                    .object(key)
+                    .stream(content, size, -1)
+                    .contentType(contentType)
+                    .build());
+        } catch (Exception e) {
+            throw new BlobStoreException("Falha ao armazenar objeto " + key, e);
+        }
+    }
+
+    @Override
+    public InputStream get(String key) {
+        try {
+            return minioClient.getObject(GetObjectArgs.builder().bucket(bucket).object(key).build());
+        } catch (Exception e) {
+            throw new BlobStoreException("Falha ao ler objeto " + key, e);
+        }
+    }
+
+    @Override
+    public Optional<BlobStat> stat(String key) {
+        try {
+            StatObjectResponse stat = minioClient.statObject(StatObjectArgs.builder().bucket(bucket).object(key).build());
+            return Optional.of(new BlobStat(key, stat.size(), stat.contentType(),
+                    stat.lastModified() != null ? stat.lastModified().toInstant() : null));
+        } catch (ErrorResponseException e) {
+            if ("NoSuchKey".equals(e.errorResponse().code())) {
+                return Optional.empty();
+            }
+            throw new BlobStoreException("Falha ao consultar objeto " + key, e);
+        } catch (Exception e) {
+            throw new BlobStoreException("Falha ao consultar objeto " + key, e);
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        ensureReady();
+        try {
+            minioClient.removeObject(RemoveObjectArgs.builder().bucket(bucket).object(key).build());
+        } catch (Exception e) {
+            throw new BlobStoreException("Falha ao remover objeto " + key, e);
+        }
+    }
+
+    @Override
+    public String presign(String key, Duration expiry) {
+        try {
+            return presignClient.getPresignedObjectUrl(GetPresignedObjectUrlArgs.builder()
+                    .method(Method.GET)
+                    .bucket(bucket)
+                    .object(key)
+                    .expiry((int) expiry.getSeconds(), TimeUnit.SECONDS)
+                    .build());
+        } catch (Exception e) {
+            throw new BlobStoreException("Falha ao gerar URL assinada para " + key, e);
+        }
+    }
+
+    @Override
+    public List<BlobStat> list(String prefix) {
+        List<BlobStat> result = new ArrayList<>();
+        try {
+            for (Result<Item> r : minioClient.listObjects(ListObjectsArgs.builder()
+                    .bucket(bucket)
+                    .prefix(prefix)
+                    .recursive(true)
+                    .build())) {
+                Item item = r.get();
+                result.add(new BlobStat(item.objectName(), item.size(), null,
+                        item.lastModified() != null ? item.lastModified().toInstant() : null));
+            }
+        } catch (Exception e) {
+            throw new BlobStoreException("Falha ao listar objetos com prefixo " + prefix, e);
+        }
+        return result;
+    }
+
+    @Override
+    public void ensureReady() {
+        if (bucketEnsured.get()) {
+            return;
+        }
+        synchronized (bucketEnsured) {
+            if (bucketEnsured.get()) {
+                return;
+            }
+            try {
+                boolean exists = minioClient.bucketExists(BucketExistsArgs.builder().bucket(bucket).build());
+                if (!exists) {
+                    minioClient.makeBucket(MakeBucketArgs.builder().bucket(bucket).build());
+                }
+                bucketEnsured.set(true);
+            } catch (Exception e) {
+                throw new BlobStoreException("Falha ao preparar bucket do MinIO " + bucket, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.douglasrohden.backend.storage;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Decorador de {@link BlobStore} com bulkhead (concorrência limitada, sem espera) e circuit breaker.
+ * <p>
+ * Durante uma degradação do storage as chamadas falham imediatamente com
+ * {@link BlobStoreUnavailableException} em vez de segurar workers do Tomcat até o timeout do OkHttp.
+ */
+public class ResilientBlobStore implements BlobStore {
+
+    private final BlobStore delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    public ResilientBlobStore(BlobStore delegate, CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public void put(String key, InputStream content, long size, String contentType) {
+        call(() -> {
+            delegate.put(key, content, size, contentType);
+            return null;
+        });
+    }
+
+    @Override
+    public InputStream get(String key) {
+        return call(() -> delegate.get(key));
+    }
+
+    @Override
+    public Optional<BlobStat> stat(String key) {
+        return call(() -> delegate.stat(key));
+    }
+
+    @Override
+    public void delete(String key) {
+        call(() -> {
+            delegate.delete(key);
+            return null;
+        });
+    }
+
+    /**
+     * Assinar é um HMAC local, sem rede: não ocupa vaga no bulkhead (listagens concorrentes não
+     * podem perder URLs de capa com o storage saudável). Só o circuito aberto degrada o presign.
+     */
+    @Override
+    public String presign(String key, Duration expiry) {
+        CircuitBreaker.State state = circuitBreaker.getState();
+        if (state == CircuitBreaker.State.OPEN || state == CircuitBreaker.State.FORCED_OPEN) {
+            throw new BlobStoreUnavailableException("Storage indisponível (circuit breaker aberto)", null);
+        }
+        return delegate.presign(key, expiry);
+    }
+
+    @Override
+    public List<BlobStat> list(String prefix) {
+        return call(() -> delegate.list(prefix));
+    }
+
+    @Override
+    public void ensureReady() {
+        call(() -> {
+            delegate.ensureReady();
+            return null;
+        });
+    }
+
+    public BlobStore delegate() {
+        return delegate;
+    }
+
+    private <T> T call(Supplier<T> supplier) {
+        Supplier<T> decorated = Bulkhead.decorateSupplier(bulkhead,
+                CircuitBreaker.decorateSupplier(circuitBreaker, supplier));
+        try {
+            return decorated.get();
+        } catch (CallNotPermittedException e) {
+            throw new BlobStoreUnavailableException("Storage indisponível (circuit breaker aberto)", e);
+        } catch (BulkheadFullException e) {
+            throw new BlobStoreUnavailableException("Storage saturado (bulkhead cheio)", e);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.douglasrohden.backend.websocket;
+
+import com.douglasrohden.backend.dto.AlbumCreatedMessage;
+import com.douglasrohden.backend.events.AlbumCreatedEvent;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fan-out de eventos de álbum entre réplicas via {@code LISTEN/NOTIFY} do Postgres, sem broker externo.
+ * <p>
+ * Na transação do {@code EventOutboxRelay} que entrega o evento do outbox é emitido
+ * {@code pg_notify('album_events', payload)}; o Postgres só entrega a notificação no commit do lote
+ * (e descarta no rollback, quando o evento volta para o outbox). Cada réplica mantém uma conexão dedicada,
+ * fora do pool, em {@code LISTEN} e repassa aos assinantes locais pelo {@link AlbumNotificationDispatcher}.
+ * As notificações da própria réplica são descartadas pelo {@code origin}: localmente o
+ * {@link AlbumNotificationsListener} já entrega na mesma passada do relay.
+ * <p>
+ * Notificações emitidas enquanto a conexão de LISTEN está caída são perdidas (NOTIFY não é durável).
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "websocket.fanout.enabled", havingValue = "true", matchIfMissing = true)
+public class AlbumEventsBridge implements SmartLifecycle {
+
+    // NOTIFY aceita até 8000 bytes de payload; o título é descartado se passar do limite.
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    record Payload(@JsonProperty("o") String origin, @JsonProperty("i") Long id,
+            @JsonProperty("t") String titulo, @JsonProperty("a") Integer ano) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AlbumNotificationDispatcher dispatcher;
+    private final ObjectMapper objectMapper;
+    private final String channel;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int pollTimeoutMs;
+    private final String instanceId = UUID.randomUUID().toString().substring(0, 8);
+
+    private volatile boolean running;
+    private volatile Connection listenConnection;
+    private Thread listener;
+
+    public AlbumEventsBridge(
+            JdbcTemplate jdbcTemplate,
+            AlbumNotificationDispatcher dispatcher,
+            ObjectMapper objectMapper,
+            @Value("${websocket.fanout.channel:album_events}") String channel,
+            @Value("${spring.datasource.url}") String url,
+            @Value("${spring.datasource.username:}") String username,
+            @Value("${spring.datasource.password:}") String password,
+            @Value("${websocket.fanout.poll-timeout-ms:1000}") int pollTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dispatcher = dispatcher;
+        this.objectMapper = objectMapper;
+        this.channel = channel;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.pollTimeoutMs = Math.max(100, pollTimeoutMs);
+    }
+
+    /**
+     * Chamado pelo relay dentro do savepoint do evento: a notificação sai no commit, junto com a
+     * baixa no outbox; se falhar, só este evento volta à fila.
+     */
+    @EventListener
+    public void onAlbumCreated(AlbumCreatedEvent event) {
+        if (!isPostgres()) {
+            return;
+        }
+        jdbcTemplate.queryForObject("SELECT pg_notify(?, ?)", Object.class, channel, encode(event));
+    }
+
+    String encode(AlbumCreatedEvent event) {
+        try {
+            String json = objectMapper.writeValueAsString(new Payload(instanceId, event.id(), event.titulo(), event.ano()));
+            if (json.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES) {
+                json = objectMapper.writeValueAsString(new Payload(instanceId, event.id(), null, event.ano()));
+            }
+            return json;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar evento de álbum", e);
+        }
+    }
+
+    /**
+     * Repassa aos assinantes locais; ignora a própria réplica e payloads inválidos.
+     */
+    void dispatch(String json) {
+        Payload payload;
+        try {
+            payload = objectMapper.readValue(json, Payload.class);
+        } catch (JsonProcessingException e) {
+            log.debug("Payload inválido em {}: {}", channel, e.getMessage());
+            return;
+        }
+        if (instanceId.equals(payload.origin()) || payload.id() == null) {
+            return;
+        }
+        dispatcher.enqueue(new AlbumCreatedMessage(payload.id(), payload.titulo(), payload.ano()));
+    }
+
+    @Override
+    public void start() {
+        if (!isPostgres()) {
+            log.info("Fan-out de eventos desativado: datasource não é Postgres");
+            return;
+        }
+        running = true;
+        listener = new Thread(this::listenLoop, "album-events-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        closeQuietly(listenConnection);
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listenLoop() {
+        long backoffMs = 1000;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                listenConnection = connection;
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN \"" + channel.replace("\"", "") + "\"");
+                }
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                log.info("Escutando {} (réplica {})", channel, instanceId);
+                backoffMs = 1000;
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(pollTimeoutMs);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            dispatch(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Conexão de LISTEN em {} caiu: {}; nova tentativa em {} ms", channel, e.getMessage(), backoffMs);
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoffMs = Math.min(MAX_BACKOFF_MS, backoffMs * 2);
+            } finally {
+                listenConnection = null;
+            }
+        }
+    }
+
+    private boolean isPostgres() {
+        return url != null && url.startsWith("jdbc:postgresql:");
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // encerrando
+        }
+    }
+}
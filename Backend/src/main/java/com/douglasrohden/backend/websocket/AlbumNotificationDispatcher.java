@@ -0,0 +1,117 @@
+package com.douglasrohden.backend.websocket;
+
+import com.douglasrohden.backend.dto.AlbumCreatedBatchMessage;
+import com.douglasrohden.backend.dto.AlbumCreatedMessage;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Envio assíncrono e agrupado das notificações de álbum criado.
+ * <p>
+ * Quem publica só enfileira (fila limitada; cheia, o evento é descartado e contado) e volta. Uma
+ * thread própria esvazia a fila a cada {@code websocket.dispatch.window-ms} e envia um único frame
+ * em {@code /topic/albuns/created/batch} com tudo que chegou na janela. O tópico por álbum
+ * fica desligado por padrão; clientes antigos podem reativá-lo com
+ * {@code websocket.dispatch.per-album-topic=true}.
+ */
+@Component
+@Slf4j
+public class AlbumNotificationDispatcher implements MeterBinder, DisposableBean {
+
+    static final String TOPIC = "/topic/albuns/created";
+    static final String BATCH_TOPIC = "/topic/albuns/created/batch";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final BlockingQueue<AlbumCreatedMessage> queue;
+    private final int maxBatchSize;
+    private final boolean perAlbumTopic;
+    private final ScheduledExecutorService executor;
+    private final LongAdder dropped = new LongAdder();
+
+    public AlbumNotificationDispatcher(
+            SimpMessagingTemplate messagingTemplate,
+            @Value("${websocket.dispatch.queue-capacity:10000}") int queueCapacity,
+            @Value("${websocket.dispatch.window-ms:100}") long windowMs,
+            @Value("${websocket.dispatch.max-batch-size:500}") int maxBatchSize,
+            @Value("${websocket.dispatch.per-album-topic:false}") boolean perAlbumTopic) {
+        this.messagingTemplate = messagingTemplate;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.perAlbumTopic = perAlbumTopic;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "album-notifications");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long window = Math.max(1, windowMs);
+        executor.scheduleWithFixedDelay(this::flushSafely, window, window, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Não bloqueia: com a fila cheia o evento é descartado e o retorno é {@code false}, para quem
+     * tem como reentregar (o relay do outbox) tratar como falha.
+     */
+    public boolean enqueue(AlbumCreatedMessage message) {
+        if (!queue.offer(message)) {
+            dropped.increment();
+            log.debug("Fila de notificações cheia; álbum {} descartado", message.id());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Envia o que estiver na fila, em lotes de até {@code max-batch-size}.
+     */
+    void flush() {
+        List<AlbumCreatedMessage> batch = new ArrayList<>();
+        while (queue.drainTo(batch, maxBatchSize) > 0) {
+            messagingTemplate.convertAndSend(BATCH_TOPIC, new AlbumCreatedBatchMessage(List.copyOf(batch)));
+            if (perAlbumTopic) {
+                for (AlbumCreatedMessage message : batch) {
+                    messagingTemplate.convertAndSend(TOPIC, message);
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Falha ao enviar notificações de álbum: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("websocket.dispatch.queue", queue, BlockingQueue::size)
+                .description("Notificações de álbum aguardando envio")
+                .register(registry);
+        FunctionCounter.builder("websocket.dispatch.dropped", dropped, LongAdder::sum)
+                .description("Notificações descartadas com a fila cheia")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+        flushSafely();
+    }
+}
@@ -3,22 +3,21 @@ package com.douglasrohden.backend.websocket;
 import com.douglasrohden.backend.dto.AlbumCreatedMessage;
 import com.douglasrohden.backend.events.AlbumCreatedEvent;
 import lombok.RequiredArgsConstructor;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.event.TransactionPhase;
-import org.springframework.transaction.event.TransactionalEventListener;
 
 @Component
 @RequiredArgsConstructor
 public class AlbumNotificationsListener {
 
-    private final SimpMessagingTemplate messagingTemplate;
+    private final AlbumNotificationDispatcher dispatcher;
 
-    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    // Chamado pelo EventOutboxRelay dentro da transação do lote. Só enfileira (o envio STOMP sai
+    // desta thread); fila cheia vira exceção para o relay devolver o evento ao outbox com backoff.
+    @EventListener
     public void onAlbumCreated(AlbumCreatedEvent event) {
-        messagingTemplate.convertAndSend(
-            "/topic/albuns/created",
-            new AlbumCreatedMessage(event.id(), event.titulo(), event.ano())
-        );
+        if (!dispatcher.enqueue(new AlbumCreatedMessage(event.id(), event.titulo(), event.ano()))) {
+            throw new IllegalStateException("Fila de notificações cheia; álbum " + event.id() + " volta ao outbox");
+        }
     }
 }
@@ -0,0 +1,81 @@
+package com.douglasrohden.backend.websocket;
+
+import com.douglasrohden.backend.security.AccessTokenRevocationList;
+import com.douglasrohden.backend.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+/**
+ * Autenticação STOMP: o JWT do header {@code Authorization} do CONNECT é validado uma vez
+ * (mesmo parser e cache do {@link JwtUtil}) e o principal fica associado à sessão. SUBSCRIBE
+ * e SEND só conferem que a sessão tem principal, sem novo parse; a expiração do token é
+ * tratada pela varredura do {@link StompSessionRegistry}.
+ */
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtUtil jwtUtil;
+    private final AccessTokenRevocationList revocationList;
+    private final StompSessionRegistry sessionRegistry;
+    private final boolean required;
+
+    public StompAuthChannelInterceptor(JwtUtil jwtUtil, AccessTokenRevocationList revocationList,
+            StompSessionRegistry sessionRegistry,
+            @Value("${websocket.auth.required:true}") boolean required) {
+        this.jwtUtil = jwtUtil;
+        this.revocationList = revocationList;
+        this.sessionRegistry = sessionRegistry;
+        this.required = required;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+        StompCommand command = accessor.getCommand();
+        if (command == StompCommand.CONNECT) {
+            authenticate(accessor);
+        } else if (required && (command == StompCommand.SUBSCRIBE || command == StompCommand.SEND)
+                && accessor.getUser() == null) {
+            throw new MessageDeliveryException("Sessão STOMP não autenticada");
+        }
+        return message;
+    }
+
+    private void authenticate(StompHeaderAccessor accessor) {
+        String header = accessor.getFirstNativeHeader("Authorization");
+        if (header == null || !header.startsWith(BEARER_PREFIX)) {
+            if (required) {
+                throw new MessageDeliveryException("Token ausente no CONNECT");
+            }
+            sessionRegistry.connected(accessor.getSessionId());
+            return;
+        }
+        Claims claims;
+        try {
+            claims = jwtUtil.validateAndExtract(header.substring(BEARER_PREFIX.length()));
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new MessageDeliveryException("Token inválido ou expirado");
+        }
+        if (claims.getSubject() == null || claims.getExpiration() == null || revocationList.isRevoked(claims)) {
+            throw new MessageDeliveryException("Token revogado");
+        }
+        accessor.setUser(new UsernamePasswordAuthenticationToken(
+                claims.getSubject(), null, JwtUtil.authoritiesOf(claims)));
+        sessionRegistry.authenticated(accessor.getSessionId(), claims.getExpiration().getTime());
+    }
+}
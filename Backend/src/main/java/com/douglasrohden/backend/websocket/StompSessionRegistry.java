@@ -0,0 +1,104 @@
+package com.douglasrohden.backend.websocket;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+/**
+ * Sessões WebSocket abertas e o prazo de cada uma: primeiro o do CONNECT, depois a expiração
+ * do token apresentado nele.
+ * <p>
+ * Os prazos são conferidos por uma varredura periódica, não a cada frame. Um socket que não
+ * manda CONNECT em {@code websocket.auth.connect-grace-ms} é fechado (senão ficaria aberto
+ * para sempre, sem nunca passar pelo interceptor); quando o token expira a sessão é fechada e o
+ * cliente reconecta com um token novo.
+ */
+@Component
+@Slf4j
+public class StompSessionRegistry implements WebSocketHandlerDecoratorFactory {
+
+    private record Deadline(long atMs, boolean connected) {
+    }
+
+    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Deadline> deadlines = new ConcurrentHashMap<>();
+    private final LongSupplier clockMs;
+    private final long connectGraceMs;
+
+    @Autowired
+    public StompSessionRegistry(@Value("${websocket.auth.connect-grace-ms:10000}") long connectGraceMs) {
+        this(System::currentTimeMillis, connectGraceMs);
+    }
+
+    StompSessionRegistry(LongSupplier clockMs, long connectGraceMs) {
+        this.clockMs = clockMs;
+        this.connectGraceMs = Math.max(0, connectGraceMs);
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                sessions.put(session.getId(), session);
+                deadlines.putIfAbsent(session.getId(), new Deadline(clockMs.getAsLong() + connectGraceMs, false));
+                super.afterConnectionEstablished(session);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                sessions.remove(session.getId());
+                deadlines.remove(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    /**
+     * Chamado no CONNECT autenticado; o id é o {@code simpSessionId}, igual ao da sessão WebSocket.
+     */
+    public void authenticated(String sessionId, long tokenExpiresAtMs) {
+        deadlines.put(sessionId, new Deadline(tokenExpiresAtMs, true));
+    }
+
+    /**
+     * Chamado no CONNECT aceito sem token ({@code websocket.auth.required=false}): sem prazo.
+     */
+    public void connected(String sessionId) {
+        deadlines.remove(sessionId);
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    @Scheduled(fixedDelayString = "${websocket.auth.sweep-interval-ms:15000}")
+    public void closeExpired() {
+        long now = clockMs.getAsLong();
+        deadlines.forEach((sessionId, deadline) -> {
+            if (deadline.atMs() > now || !deadlines.remove(sessionId, deadline)) {
+                return;
+            }
+            WebSocketSession session = sessions.remove(sessionId);
+            if (session != null && session.isOpen()) {
+                try {
+                    session.close(CloseStatus.POLICY_VIOLATION
+                            .withReason(deadline.connected() ? "Token expirado" : "CONNECT não recebido"));
+                } catch (IOException e) {
+                    log.debug("Falha ao fechar sessão WebSocket {}: {}", sessionId, e.getMessage());
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,12 @@
+-- V10: Dimensões e placeholder (data URI de até 16px) das imagens
+-- Permite que as grades reservem espaço e mostrem um preview antes do download.
+
+ALTER TABLE album_imagem
+  ADD COLUMN IF NOT EXISTS width INTEGER,
+  ADD COLUMN IF NOT EXISTS height INTEGER,
+  ADD COLUMN IF NOT EXISTS placeholder TEXT;
+
+ALTER TABLE artista_imagem
+  ADD COLUMN IF NOT EXISTS width INTEGER,
+  ADD COLUMN IF NOT EXISTS height INTEGER,
+  ADD COLUMN IF NOT EXISTS placeholder TEXT;
@@ -0,0 +1,13 @@
+-- V11: Estado global de rate limit (rate-limit.mode=distributed)
+-- UNLOGGED: estado efêmero; perder os buckets num crash apenas reinicia as janelas,
+-- e evitamos WAL em uma tabela atualizada a cada concessão.
+
+CREATE UNLOGGED TABLE IF NOT EXISTS rate_limit_bucket (
+  bucket_key VARCHAR(300) PRIMARY KEY,
+  tokens BIGINT NOT NULL,
+  window_start_ms BIGINT NOT NULL,
+  last_granted BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE INDEX IF NOT EXISTS idx_rate_limit_bucket_window_start
+  ON rate_limit_bucket (window_start_ms);
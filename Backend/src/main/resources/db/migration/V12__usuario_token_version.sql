@@ -0,0 +1,3 @@
+-- V12: versão de token por usuário (modo stateless do JWT)
+-- Incrementar token_version invalida todos os access tokens já emitidos para o usuário.
+ALTER TABLE usuarios ADD COLUMN IF NOT EXISTS token_version INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,96 @@
+-- V13: refresh_tokens particionada por semana de expires_at
+-- Partições vencidas são descartadas inteiras (DETACH + DROP) pelo job de manutenção,
+-- em vez de DELETEs que incham índices e tabela. Índices por partição ficam pequenos e
+-- a quantidade de partições é limitada (validade do refresh + carência).
+
+-- 1) Tabela antiga sai do caminho; a sequence continua sendo usada pela nova
+ALTER TABLE refresh_tokens RENAME TO refresh_tokens_legacy;
+ALTER SEQUENCE refresh_tokens_id_seq OWNED BY NONE;
+DROP INDEX IF EXISTS idx_refresh_tokens_user_id;
+DROP INDEX IF EXISTS idx_refresh_tokens_user_active;
+DROP INDEX IF EXISTS idx_refresh_tokens_user_id_revoked_at;
+
+-- 2) Tabela particionada. A chave de partição precisa fazer parte de PK/UNIQUE:
+--    token_hash (HMAC de 256 bits) passa a ser único por (token_hash, expires_at).
+CREATE TABLE refresh_tokens (
+    id BIGINT NOT NULL DEFAULT nextval('refresh_tokens_id_seq'),
+    user_id BIGINT NOT NULL,
+    token_hash VARCHAR(64) NOT NULL,
+    expires_at TIMESTAMPTZ NOT NULL,
+    created_at TIMESTAMPTZ DEFAULT NOW(),
+    revoked_at TIMESTAMPTZ,
+    replaced_by_token_hash VARCHAR(64),
+    CONSTRAINT pk_refresh_tokens PRIMARY KEY (id, expires_at),
+    CONSTRAINT uq_refresh_tokens_token_hash UNIQUE (token_hash, expires_at),
+    CONSTRAINT fk_refresh_tokens_user_id FOREIGN KEY (user_id) REFERENCES usuarios(id) ON DELETE CASCADE
+) PARTITION BY RANGE (expires_at);
+
+ALTER SEQUENCE refresh_tokens_id_seq OWNED BY refresh_tokens.id;
+
+CREATE INDEX idx_refresh_tokens_user_active ON refresh_tokens(user_id) WHERE revoked_at IS NULL;
+CREATE INDEX idx_refresh_tokens_user_id_revoked_at ON refresh_tokens(user_id, revoked_at);
+
+-- Rede de segurança: linhas fora das semanas criadas nunca falham no insert.
+CREATE TABLE refresh_tokens_default PARTITION OF refresh_tokens DEFAULT;
+
+-- 3) Cria as partições semanais (refresh_tokens_pYYYYMMDD, segunda-feira de início) da semana atual
+--    até weeks_ahead semanas à frente. Idempotente.
+CREATE OR REPLACE FUNCTION refresh_tokens_ensure_partitions(weeks_ahead INTEGER)
+RETURNS INTEGER
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    week_start DATE := date_trunc('week', now())::DATE;
+    part_name TEXT;
+    created INTEGER := 0;
+BEGIN
+    FOR i IN 0..weeks_ahead LOOP
+        part_name := 'refresh_tokens_p' || to_char(week_start + 7 * i, 'YYYYMMDD');
+        IF to_regclass(part_name) IS NULL THEN
+            EXECUTE format(
+                'CREATE TABLE %I PARTITION OF refresh_tokens FOR VALUES FROM (%L) TO (%L)',
+                part_name, (week_start + 7 * i)::TIMESTAMPTZ, (week_start + 7 * (i + 1))::TIMESTAMPTZ);
+            created := created + 1;
+        END IF;
+    END LOOP;
+    RETURN created;
+END $$;
+
+-- 4) Desanexa e remove partições cujo fim já passou há mais que a carência.
+--    lock_timeout curto: se o DETACH não conseguir o lock, a chamada falha e o job
+--    recorre a DELETEs em lote.
+CREATE OR REPLACE FUNCTION refresh_tokens_drop_expired_partitions(grace INTERVAL)
+RETURNS INTEGER
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    part RECORD;
+    dropped INTEGER := 0;
+BEGIN
+    PERFORM set_config('lock_timeout', '2s', true);
+    FOR part IN
+        SELECT c.relname
+          FROM pg_inherits i
+          JOIN pg_class c ON c.oid = i.inhrelid
+         WHERE i.inhparent = 'refresh_tokens'::regclass
+           AND c.relname ~ '^refresh_tokens_p[0-9]{8}$'
+         ORDER BY c.relname
+    LOOP
+        IF to_date(substr(part.relname, 17), 'YYYYMMDD') + 7 + grace <= now() THEN
+            EXECUTE format('ALTER TABLE refresh_tokens DETACH PARTITION %I', part.relname);
+            EXECUTE format('DROP TABLE %I', part.relname);
+            dropped := dropped + 1;
+        END IF;
+    END LOOP;
+    RETURN dropped;
+END $$;
+
+-- 5) Semana atual + 2 (refresh expira em 7 dias) e cópia apenas dos tokens ainda válidos
+SELECT refresh_tokens_ensure_partitions(2);
+
+INSERT INTO refresh_tokens (id, user_id, token_hash, expires_at, created_at, revoked_at, replaced_by_token_hash)
+SELECT id, user_id, token_hash, expires_at, created_at, revoked_at, replaced_by_token_hash
+  FROM refresh_tokens_legacy
+ WHERE expires_at > now();
+
+DROP TABLE refresh_tokens_legacy;
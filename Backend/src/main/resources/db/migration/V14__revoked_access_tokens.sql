@@ -0,0 +1,15 @@
+-- V14: revogação de access tokens por jti
+-- Cada réplica mantém a lista em memória e busca aqui as revogações feitas pelas outras.
+CREATE TABLE revoked_access_tokens (
+    jti VARCHAR(36) PRIMARY KEY,
+    expires_at TIMESTAMPTZ NOT NULL,
+    revoked_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_revoked_access_tokens_revoked_at ON revoked_access_tokens(revoked_at);
+CREATE INDEX idx_revoked_access_tokens_expires_at ON revoked_access_tokens(expires_at);
+
+-- Access token emitido junto com cada refresh token: na detecção de reuso, os jti da família
+-- revogada vão para a lista acima.
+ALTER TABLE refresh_tokens ADD COLUMN access_jti VARCHAR(36);
+ALTER TABLE refresh_tokens ADD COLUMN access_expires_at TIMESTAMPTZ;
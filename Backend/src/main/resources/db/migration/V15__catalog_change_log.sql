@@ -0,0 +1,13 @@
+-- V15: feed de alterações do catálogo (álbuns, artistas e imagens)
+-- Clientes pedem "alterações desde seq N" e mantêm um cache local só com deltas.
+-- As gravações serializam a inserção com um advisory lock de transação, então a ordem de seq
+-- é a ordem de commit: quem leu até N nunca verá depois um seq menor que N aparecer.
+CREATE TABLE catalog_change_log (
+    seq BIGSERIAL PRIMARY KEY,
+    entity_type VARCHAR(16) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    operation VARCHAR(16) NOT NULL,
+    changed_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_catalog_change_log_changed_at ON catalog_change_log(changed_at);
@@ -0,0 +1,18 @@
+-- V16: outbox transacional de eventos de domínio
+-- O evento é gravado na mesma transação da escrita de negócio; um relay reivindica lotes com
+-- FOR UPDATE SKIP LOCKED (várias réplicas dividem o trabalho sem se bloquear), entrega aos
+-- assinantes e marca processed_at. Falhas voltam para a fila com available_at no futuro.
+CREATE TABLE event_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    event_type VARCHAR(100) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    available_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    attempts INT NOT NULL DEFAULT 0,
+    last_error VARCHAR(500),
+    processed_at TIMESTAMPTZ
+);
+
+-- Só as linhas pendentes interessam ao relay; as processadas ficam fora do índice.
+CREATE INDEX idx_event_outbox_pending ON event_outbox(available_at, id) WHERE processed_at IS NULL;
+CREATE INDEX idx_event_outbox_processed_at ON event_outbox(processed_at) WHERE processed_at IS NOT NULL;
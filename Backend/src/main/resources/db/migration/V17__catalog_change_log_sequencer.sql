@@ -0,0 +1,14 @@
+-- V17: seq do feed deixa de ser atribuído no INSERT (que exigia um advisory lock global
+-- segurando todos os escritores até o commit). A escrita só grava a linha com o xid da sua
+-- transação; um sequenciador atribui seq depois, apenas para linhas cujo xid é menor que o
+-- xmin do snapshot corrente. Qualquer linha que ainda vá ficar visível tem xid >= xmin e,
+-- portanto, recebe seq maior: quem leu até N nunca verá depois um seq menor que N aparecer.
+ALTER TABLE catalog_change_log DROP CONSTRAINT catalog_change_log_pkey;
+ALTER TABLE catalog_change_log ALTER COLUMN seq DROP DEFAULT;
+ALTER TABLE catalog_change_log ALTER COLUMN seq DROP NOT NULL;
+
+ALTER TABLE catalog_change_log ADD COLUMN id BIGSERIAL PRIMARY KEY;
+ALTER TABLE catalog_change_log ADD COLUMN tx_id xid8 NOT NULL DEFAULT pg_current_xact_id();
+
+CREATE UNIQUE INDEX idx_catalog_change_log_seq ON catalog_change_log(seq);
+CREATE INDEX idx_catalog_change_log_pending ON catalog_change_log(id) WHERE seq IS NULL;
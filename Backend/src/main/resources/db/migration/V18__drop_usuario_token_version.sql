@@ -0,0 +1,3 @@
+-- V18: remove usuarios.token_version (V12)
+-- Nenhum fluxo incrementava a versão; a revogação de access tokens é por jti (V14).
+ALTER TABLE usuarios DROP COLUMN IF EXISTS token_version;
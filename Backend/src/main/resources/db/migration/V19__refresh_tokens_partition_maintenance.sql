@@ -0,0 +1,64 @@
+-- V19: manutenção de refresh_tokens sem lock exclusivo na tabela pai
+-- O DETACH de V13 rodava dentro de função (transação) e pegava ACCESS EXCLUSIVE em refresh_tokens,
+-- bloqueando login e refresh. DETACH ... CONCURRENTLY não roda em transação nem quando existe
+-- partição DEFAULT; então a DEFAULT sai e o job (RefreshTokenMaintenanceService) desanexa as
+-- partições vencidas direto pela conexão, em autocommit.
+-- Sem DEFAULT, inserir fora das semanas criadas falha: o job cria partições à frente cobrindo
+-- toda a validade do refresh token (e roda na subida da aplicação).
+
+-- 1) Cria uma partição semanal; idempotente. Sem DEFAULT não há linhas a mover antes do CREATE.
+CREATE OR REPLACE FUNCTION refresh_tokens_create_partition(week_start DATE)
+RETURNS BOOLEAN
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    part_name TEXT := 'refresh_tokens_p' || to_char(week_start, 'YYYYMMDD');
+BEGIN
+    IF to_regclass(part_name) IS NOT NULL THEN
+        RETURN FALSE;
+    END IF;
+    EXECUTE format(
+        'CREATE TABLE %I PARTITION OF refresh_tokens FOR VALUES FROM (%L) TO (%L)',
+        part_name, week_start::TIMESTAMPTZ, (week_start + 7)::TIMESTAMPTZ);
+    RETURN TRUE;
+END $$;
+
+CREATE OR REPLACE FUNCTION refresh_tokens_ensure_partitions(weeks_ahead INTEGER)
+RETURNS INTEGER
+LANGUAGE plpgsql
+AS $$
+DECLARE
+    week_start DATE := date_trunc('week', now())::DATE;
+    created INTEGER := 0;
+BEGIN
+    FOR i IN 0..weeks_ahead LOOP
+        IF refresh_tokens_create_partition(week_start + 7 * i) THEN
+            created := created + 1;
+        END IF;
+    END LOOP;
+    RETURN created;
+END $$;
+
+-- 2) Esvazia e remove a DEFAULT: linhas ainda válidas vão para partições semanais criadas
+--    para elas; as vencidas são descartadas.
+ALTER TABLE refresh_tokens DETACH PARTITION refresh_tokens_default;
+
+SELECT refresh_tokens_create_partition(week_start)
+  FROM (SELECT DISTINCT date_trunc('week', expires_at)::DATE AS week_start
+          FROM refresh_tokens_default
+         WHERE expires_at > now()) weeks;
+
+INSERT INTO refresh_tokens
+SELECT * FROM refresh_tokens_default WHERE expires_at > now();
+
+DROP TABLE refresh_tokens_default;
+
+-- 3) O expurgo agora é feito pelo job (DETACH CONCURRENTLY não cabe numa função).
+DROP FUNCTION IF EXISTS refresh_tokens_drop_expired_partitions(INTERVAL);
+
+-- 4) Unicidade do hash: a chave de partição precisa estar na constraint, então o banco só garante
+--    (token_hash, expires_at). O token carrega o próprio vencimento (RefreshTokenCrypto) e toda
+--    busca filtra pelos dois campos: o par é a chave de busca e só uma partição é lida.
+--    token_hash é HMAC-SHA256 de 256 bits aleatórios; colisão entre tokens distintos é desprezível.
+COMMENT ON CONSTRAINT uq_refresh_tokens_token_hash ON refresh_tokens IS
+    'Chave de busca (token_hash, expires_at); expires_at vem embutido no refresh token';
@@ -0,0 +1,10 @@
+-- V20: retenção do feed de alterações do catálogo
+-- O job de expurgo remove as linhas sequenciadas mais antigas que catalog.changes.retention-hours
+-- e registra aqui o maior seq removido. Cursores (desde) abaixo dessa marca receberiam um delta
+-- incompleto: a API responde 410 e o cliente recarrega o catálogo.
+CREATE TABLE catalog_change_log_retention (
+    id BOOLEAN PRIMARY KEY DEFAULT TRUE CHECK (id),
+    purged_through BIGINT NOT NULL DEFAULT 0
+);
+
+INSERT INTO catalog_change_log_retention DEFAULT VALUES;
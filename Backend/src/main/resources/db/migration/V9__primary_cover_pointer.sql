@@ -0,0 +1,36 @@
+-- V9: Ponteiro para a capa principal em album/artista
+-- Listagens passam a buscar a capa por chave (primary_cover_id) em vez de
+-- max(id) agrupado sobre todas as imagens da página.
+
+ALTER TABLE album
+  ADD COLUMN IF NOT EXISTS primary_cover_id BIGINT;
+
+ALTER TABLE album
+  ADD CONSTRAINT fk_album_primary_cover
+  FOREIGN KEY (primary_cover_id) REFERENCES album_imagem(id) ON DELETE SET NULL;
+
+ALTER TABLE artista
+  ADD COLUMN IF NOT EXISTS primary_cover_id BIGINT;
+
+ALTER TABLE artista
+  ADD CONSTRAINT fk_artista_primary_cover
+  FOREIGN KEY (primary_cover_id) REFERENCES artista_imagem(id) ON DELETE SET NULL;
+
+-- Backfill: mantém a regra anterior (imagem mais recente é a principal)
+UPDATE album a
+SET primary_cover_id = latest.id
+FROM (
+  SELECT album_id, MAX(id) AS id
+  FROM album_imagem
+  GROUP BY album_id
+) latest
+WHERE a.id = latest.album_id;
+
+UPDATE artista a
+SET primary_cover_id = latest.id
+FROM (
+  SELECT artista_id, MAX(id) AS id
+  FROM artista_imagem
+  GROUP BY artista_id
+) latest
+WHERE a.id = latest.artista_id;
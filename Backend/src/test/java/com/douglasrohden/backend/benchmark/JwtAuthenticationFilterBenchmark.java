@@ -0,0 +1,104 @@
+package com.douglasrohden.backend.benchmark;
+
+import com.douglasrohden.backend.security.AccessTokenRevocationList;
+import com.douglasrohden.backend.security.JwtAuthenticationFilter;
+import com.douglasrohden.backend.security.JwtTestSupport;
+import com.douglasrohden.backend.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+
+/**
+ * Custo por requisição autenticada no {@link JwtAuthenticationFilter}.
+ * <p>
+ * {@code filter} mede o filtro atual (um parse com parser e chave pré-montados), com e sem
+ * o modo stateless (no benchmark o {@code UserDetailsService} é em memória, então a diferença
+ * real do stateless — uma consulta ao banco a menos — não aparece aqui);
+ * {@code legacyVerification} reproduz a verificação anterior (três parses, cada um
+ * decodificando a chave e montando um parser novo) para comparação.
+ * Rodar com {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="JwtAuthenticationFilterBenchmark -prof gc"}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    private static final FilterChain NOOP_CHAIN = (request, response) -> {
+    };
+
+    private final UserDetails user = User.withUsername("admin").password("x").authorities(List.of()).build();
+    private final UserDetailsService userDetailsService = username -> user;
+
+    /** {@code true}: autenticação só pelas claims; {@code false}: carrega o usuário a cada requisição. */
+    @Param({ "false", "true" })
+    public boolean stateless;
+
+    private JwtAuthenticationFilter filter;
+    private String token;
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() {
+        JwtUtil jwtUtil = JwtTestSupport.jwtUtil(SECRET, TimeUnit.HOURS.toMillis(1));
+        // Lista com revogações de outros tokens: o filtro passa pelo Bloom em vez do atalho "vazia".
+        AccessTokenRevocationList revocationList = new AccessTokenRevocationList(
+                TimeUnit.HOURS.toMillis(1), 60, 1024, System::currentTimeMillis);
+        for (int i = 0; i < 1000; i++) {
+            revocationList.revoke(JwtUtil.newTokenId(), System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(30));
+        }
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService, revocationList, stateless);
+        token = jwtUtil.generateToken("admin", 1L, List.of());
+        request = new MockHttpServletRequest("GET", "/v1/albuns");
+        request.addHeader("Authorization", "Bearer " + token);
+    }
+
+    @Benchmark
+    public Object filter() throws Exception {
+        request.removeAttribute(JwtAuthenticationFilter.class.getName() + ".FILTERED");
+        filter.doFilter(request, new MockHttpServletResponse(), NOOP_CHAIN);
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    @Benchmark
+    public boolean legacyVerification() {
+        String username = legacyClaims(token).getSubject();
+        UserDetails details = userDetailsService.loadUserByUsername(username);
+        return legacyClaims(token).getSubject().equals(details.getUsername())
+                && !legacyClaims(token).getExpiration().before(new Date());
+    }
+
+    private static Claims legacyClaims(String token) {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+    }
+}
@@ -0,0 +1,70 @@
+package com.douglasrohden.backend.benchmark;
+
+import com.douglasrohden.backend.service.RateLimitService;
+import com.douglasrohden.backend.service.ratelimit.BucketSpec;
+import com.douglasrohden.backend.service.ratelimit.GcraBackend;
+import com.douglasrohden.backend.service.ratelimit.KeyClass;
+import com.douglasrohden.backend.service.ratelimit.LocalBucketBackend;
+import com.douglasrohden.backend.service.ratelimit.RateLimitBackend;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Custo de memória por chave: cada operação cria o estado de uma chave nova (e despeja uma antiga).
+ * <p>
+ * Com {@code -prof gc}, {@code gc.alloc.rate.norm} aproxima os bytes retidos por chave
+ * (entrada do store + estado do algoritmo + nó do mapa), mais o {@code Probe} devolvido.
+ * As strings das chaves são pré-alocadas e não entram na conta.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RateLimitKeyFootprintBenchmark {
+
+    private static final int CAPACITY = 100_000;
+    private static final BucketSpec SPEC = new BucketSpec("default", 10, 60);
+
+    @Param({ "bucket4j", "gcra" })
+    public String algorithm;
+
+    private RateLimitBackend backend;
+    private String[] keyPool;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        backend = backend(algorithm, CAPACITY);
+        // 10× a capacidade: ao voltar a uma chave ela já foi despejada, então toda operação é uma inserção.
+        keyPool = new String[CAPACITY * 10];
+        for (int i = 0; i < keyPool.length; i++) {
+            keyPool[i] = Integer.toString(i);
+        }
+    }
+
+    @Benchmark
+    public RateLimitService.Probe newKey() {
+        String key = keyPool[next];
+        next = (next + 1) % keyPool.length;
+        return backend.tryConsume(SPEC, KeyClass.IP, key, 1);
+    }
+
+    static RateLimitBackend backend(String algorithm, long maxSize) {
+        return switch (algorithm) {
+            case "gcra" -> new GcraBackend(120, maxSize, System::currentTimeMillis, System::nanoTime);
+            default -> new LocalBucketBackend(120, maxSize, System::currentTimeMillis);
+        };
+    }
+}
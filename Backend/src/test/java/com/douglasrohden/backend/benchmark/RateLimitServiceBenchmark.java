@@ -0,0 +1,68 @@
+package com.douglasrohden.backend.benchmark;
+
+import com.douglasrohden.backend.service.RateLimitService;
+import com.douglasrohden.backend.service.ratelimit.KeyClass;
+import com.douglasrohden.backend.service.ratelimit.RateLimitPolicy;
+import com.douglasrohden.backend.service.ratelimit.RateLimitPolicyRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Vazão e alocação de {@link RateLimitService#tryConsume} sob 64 threads, por algoritmo.
+ * <p>
+ * Rodar com {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="RateLimitServiceBenchmark -prof gc"};
+ * {@code gc.alloc.rate.norm} mostra bytes alocados por operação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+public class RateLimitServiceBenchmark {
+
+    /** Número de chaves distintas em uso (usuários/IPs ativos). */
+    @Param({ "1", "1000", "100000" })
+    public int keys;
+
+    @Param({ "bucket4j", "gcra" })
+    public String algorithm;
+
+    private RateLimitService service;
+    private String[] keyPool;
+
+    @Setup
+    public void setUp() {
+        // Limite alto: mede o caminho de consumo, não o de rejeição.
+        RateLimitPolicy fallback = new RateLimitPolicy(RateLimitPolicy.DEFAULT_NAME, "/**", List.of(),
+                1_000_000_000L, 60, 1, 0);
+        service = new RateLimitService(
+                RateLimitKeyFootprintBenchmark.backend(algorithm, 50_000),
+                new RateLimitPolicyRegistry(List::of, fallback), new SimpleMeterRegistry(), 1_000_000_000L, 60);
+        keyPool = new String[keys];
+        for (int i = 0; i < keys; i++) {
+            keyPool[i] = "usuario" + i;
+        }
+    }
+
+    @Benchmark
+    public RateLimitService.Probe tryConsume() {
+        String key = keyPool[ThreadLocalRandom.current().nextInt(keyPool.length)];
+        return service.tryConsume(KeyClass.USER, key);
+    }
+}
@@ -0,0 +1,74 @@
+package com.douglasrohden.backend.benchmark;
+
+import com.douglasrohden.backend.security.RefreshTokenCrypto;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Latência e alocação de {@link RefreshTokenCrypto} sob 32 threads, como num pico de logins/refresh.
+ * <p>
+ * {@code hash}/{@code generate} medem a implementação atual (Mac por thread, hex por tabela,
+ * SecureRandom em faixas); {@code legacy*} reproduzem a anterior ({@code Mac.getInstance} + {@code init}
+ * por chamada, {@code Character.forDigit} num StringBuilder, um único SecureRandom compartilhado).
+ * Rodar com {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="RefreshTokenCryptoBenchmark -prof gc"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(32)
+public class RefreshTokenCryptoBenchmark {
+
+    private static final String PEPPER = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    private static final String TOKEN = "Xq3b9yZ0kQeV1c2mN4pR7sT8uW5xA6dF0gH1jK2lM3n";
+
+    private final RefreshTokenCrypto crypto = new RefreshTokenCrypto(PEPPER);
+    private final SecretKeySpec keySpec = new SecretKeySpec(PEPPER.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+    private final SecureRandom sharedRandom = new SecureRandom();
+
+    @Benchmark
+    public String hash() {
+        return crypto.hash(TOKEN);
+    }
+
+    @Benchmark
+    public String legacyHash() throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(keySpec);
+        byte[] digest = mac.doFinal(TOKEN.getBytes(StandardCharsets.UTF_8));
+        StringBuilder sb = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+            sb.append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    @Benchmark
+    public String generate() {
+        return crypto.generateOpaqueToken();
+    }
+
+    @Benchmark
+    public String legacyGenerate() {
+        byte[] bytes = new byte[32];
+        sharedRandom.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,60 @@
+package com.douglasrohden.backend.config;
+
+import com.douglasrohden.backend.service.ratelimit.RateLimitPolicy;
+import com.douglasrohden.backend.service.ratelimit.RateLimitPolicyRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Recarga das políticas de rate limit pelo actuator.
+ */
+@DisplayName("RateLimitPolicyEndpoint - Recarga de políticas")
+class RateLimitPolicyEndpointTest {
+
+    private static final RateLimitPolicy FALLBACK = new RateLimitPolicy(RateLimitPolicy.DEFAULT_NAME, "/**",
+            List.of(), 10, 60, 1, 0);
+
+    @TempDir
+    Path dir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Deve responder 409 quando não há arquivo de políticas para recarregar")
+    void deveRecusarSemArquivo() {
+        RateLimitPolicyProperties properties = new RateLimitPolicyProperties();
+        RateLimitPolicyEndpoint endpoint = new RateLimitPolicyEndpoint(
+                new RateLimitPolicyRegistry(() -> properties.load(objectMapper), FALLBACK), properties);
+
+        WebEndpointResponse<Map<String, Object>> response = endpoint.reload();
+
+        assertEquals(409, response.getStatus());
+        assertTrue(response.getBody().containsKey("error"));
+    }
+
+    @Test
+    @DisplayName("Deve recarregar as políticas do arquivo configurado")
+    void deveRecarregarDoArquivo() throws Exception {
+        Path file = dir.resolve("policies.json");
+        Files.writeString(file, "[]");
+        RateLimitPolicyProperties properties = new RateLimitPolicyProperties();
+        properties.setPoliciesFile(file.toString());
+        RateLimitPolicyEndpoint endpoint = new RateLimitPolicyEndpoint(
+                new RateLimitPolicyRegistry(() -> properties.load(objectMapper), FALLBACK), properties);
+
+        Files.writeString(file, "[{\"name\":\"upload\",\"pattern\":\"/v1/albuns/*/capas\",\"limit\":5}]");
+        WebEndpointResponse<Map<String, Object>> response = endpoint.reload();
+
+        assertEquals(WebEndpointResponse.STATUS_OK, response.getStatus());
+        assertEquals(1, ((List<?>) response.getBody().get("policies")).size());
+    }
+}
@@ -0,0 +1,119 @@
+package com.douglasrohden.backend.config;
+
+import com.douglasrohden.backend.controller.AlbumController;
+import com.douglasrohden.backend.security.AccessTokenRevocationList;
+import com.douglasrohden.backend.security.JwtUtil;
+import com.douglasrohden.backend.service.AlbumService;
+import com.douglasrohden.backend.service.RateLimitService;
+import com.douglasrohden.backend.service.RateLimitService.Probe;
+import com.douglasrohden.backend.service.ratelimit.PreAuthRateLimiter;
+import com.douglasrohden.backend.service.ratelimit.RateLimitPolicy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Regras de acesso aos endpoints administrativos do actuator. O slice MVC não registra os
+ * endpoints do actuator: quem passa pela segurança recebe 404, quem é barrado recebe 401/403.
+ */
+@WebMvcTest(AlbumController.class)
+@Import(SecurityConfig.class)
+@DisplayName("SecurityConfig - Endpoints administrativos")
+class SecurityConfigTest {
+
+    private static final RateLimitPolicy DEFAULT_POLICY =
+            new RateLimitPolicy(RateLimitPolicy.DEFAULT_NAME, "/**", List.of(), 10, 60, 1, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private AlbumService albumService;
+
+    @MockBean
+    private RateLimitService rateLimitService;
+
+    @MockBean
+    private PreAuthRateLimiter preAuthRateLimiter;
+
+    @MockBean
+    private JwtUtil jwtUtil;
+
+    @MockBean
+    private AccessTokenRevocationList accessTokenRevocationList;
+
+    @MockBean
+    private UserDetailsService userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        when(preAuthRateLimiter.tryConsume(any())).thenReturn(new Probe(true, 300, 0));
+        when(rateLimitService.resolvePolicy(any(), any())).thenReturn(DEFAULT_POLICY);
+        when(rateLimitService.tryConsume(any(), anyString(), any(), anyLong())).thenReturn(new Probe(true, 10, 0));
+    }
+
+    @Test
+    @DisplayName("Deve exigir autenticação para recarregar políticas")
+    void deveExigirAutenticacaoNaRecarga() throws Exception {
+        mockMvc.perform(post("/actuator/ratelimitpolicies"))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Deve negar recarga de políticas a usuário comum")
+    void deveNegarRecargaAUsuarioComum() throws Exception {
+        mockMvc.perform(post("/actuator/ratelimitpolicies"))
+            .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(authorities = "ROLE_ADMIN")
+    @DisplayName("Deve permitir recarga de políticas ao administrador")
+    void devePermitirRecargaAoAdmin() throws Exception {
+        mockMvc.perform(post("/actuator/ratelimitpolicies"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Deve manter a leitura das políticas pública")
+    void deveManterLeituraPublica() throws Exception {
+        mockMvc.perform(get("/actuator/ratelimitpolicies"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser
+    @DisplayName("Deve negar leitura e limpeza das hot keys a usuário comum")
+    void deveNegarHotKeysAUsuarioComum() throws Exception {
+        mockMvc.perform(get("/actuator/ratelimithotkeys"))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/actuator/ratelimithotkeys"))
+            .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(authorities = "ROLE_ADMIN")
+    @DisplayName("Deve permitir hot keys ao administrador")
+    void devePermitirHotKeysAoAdmin() throws Exception {
+        mockMvc.perform(get("/actuator/ratelimithotkeys"))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/actuator/ratelimithotkeys"))
+            .andExpect(status().isNotFound());
+    }
+}
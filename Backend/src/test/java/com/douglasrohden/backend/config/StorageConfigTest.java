@@ -0,0 +1,60 @@
+package com.douglasrohden.backend.config;
+
+import com.douglasrohden.backend.storage.BlobStore;
+import com.douglasrohden.backend.storage.InMemoryBlobStore;
+import com.douglasrohden.backend.storage.ResilientBlobStore;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.minio.MinioClient;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Seleção do backend de storage: o cliente MinIO só existe quando o backend é MinIO.
+ */
+@DisplayName("StorageConfig - Seleção do backend de storage")
+class StorageConfigTest {
+
+    @Configuration
+    @EnableConfigurationProperties({ StorageProperties.class, MinioProperties.class })
+    static class Registries {
+        @Bean
+        CircuitBreakerRegistry circuitBreakerRegistry() {
+            return CircuitBreakerRegistry.ofDefaults();
+        }
+
+        @Bean
+        BulkheadRegistry bulkheadRegistry() {
+            return BulkheadRegistry.ofDefaults();
+        }
+    }
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withUserConfiguration(Registries.class, MinioConfig.class, StorageConfig.class);
+
+    @Test
+    @DisplayName("Deve subir o backend em memória sem cliente MinIO")
+    void deveSubirSemMinio() {
+        runner.withPropertyValues("storage.backend=memory").run(context -> {
+            assertThat(context).hasNotFailed();
+            assertThat(context).doesNotHaveBean(MinioClient.class);
+            assertThat(context.getBean(BlobStore.class)).isInstanceOf(InMemoryBlobStore.class);
+        });
+    }
+
+    @Test
+    @DisplayName("Deve criar o cliente MinIO no backend padrão")
+    void deveCriarClienteMinioPorPadrao() {
+        runner.withPropertyValues("minio.endpoint=http://localhost:9000",
+                "minio.access-key=a", "minio.secret-key=b").run(context -> {
+            assertThat(context).hasSingleBean(MinioClient.class);
+            assertThat(context.getBean(BlobStore.class)).isInstanceOf(ResilientBlobStore.class);
+        });
+    }
+}
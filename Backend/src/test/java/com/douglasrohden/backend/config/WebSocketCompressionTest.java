@@ -0,0 +1,107 @@
+package com.douglasrohden.backend.config;
+
+import com.douglasrohden.backend.websocket.StompAuthChannelInterceptor;
+import com.douglasrohden.backend.websocket.StompSessionRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.websocket.servlet.WebSocketServletAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Handshake real no Tomcat embutido: o endpoint WebSocket puro negocia permessage-deflate
+ * quando o cliente oferece, e não envia a extensão quando não oferece.
+ */
+@SpringBootTest(classes = WebSocketCompressionTest.App.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@DisplayName("WebSocketConfig - Compressão no endpoint /stomp")
+class WebSocketCompressionTest {
+
+    @Configuration
+    @ImportAutoConfiguration({ ServletWebServerFactoryAutoConfiguration.class,
+            DispatcherServletAutoConfiguration.class, WebSocketServletAutoConfiguration.class })
+    @Import(WebSocketConfig.class)
+    static class App {
+
+        @Bean
+        StompSessionRegistry stompSessionRegistry() {
+            return new StompSessionRegistry(10_000L);
+        }
+    }
+
+    @MockBean
+    private StompAuthChannelInterceptor stompAuthChannelInterceptor;
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    @DisplayName("Deve aceitar permessage-deflate oferecido pelo cliente")
+    void deveNegociarDeflate() throws Exception {
+        Map<String, String> headers = handshake("permessage-deflate; client_max_window_bits");
+
+        assertEquals("101", headers.get(":status"));
+        assertTrue(headers.getOrDefault("sec-websocket-extensions", "").startsWith("permessage-deflate"),
+                () -> "Sec-WebSocket-Extensions: " + headers.get("sec-websocket-extensions"));
+    }
+
+    @Test
+    @DisplayName("Não deve enviar extensão quando o cliente não oferece")
+    void naoDeveNegociarSemOferta() throws Exception {
+        Map<String, String> headers = handshake(null);
+
+        assertEquals("101", headers.get(":status"));
+        assertFalse(headers.containsKey("sec-websocket-extensions"));
+    }
+
+    /**
+     * Upgrade HTTP/1.1 escrito à mão: o {@code HttpClient} do JDK não permite os headers de upgrade.
+     */
+    private Map<String, String> handshake(String extensions) throws Exception {
+        try (Socket socket = new Socket("localhost", port)) {
+            socket.setSoTimeout(5_000);
+            StringBuilder request = new StringBuilder()
+                    .append("GET ").append(WebSocketConfig.NATIVE_ENDPOINT).append(" HTTP/1.1\r\n")
+                    .append("Host: localhost:").append(port).append("\r\n")
+                    .append("Origin: http://localhost:5173\r\n")
+                    .append("Upgrade: websocket\r\n")
+                    .append("Connection: Upgrade\r\n")
+                    .append("Sec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\n")
+                    .append("Sec-WebSocket-Version: 13\r\n")
+                    .append("Sec-WebSocket-Protocol: v12.stomp\r\n");
+            if (extensions != null) {
+                request.append("Sec-WebSocket-Extensions: ").append(extensions).append("\r\n");
+            }
+            request.append("\r\n");
+            OutputStream out = socket.getOutputStream();
+            out.write(request.toString().getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            BufferedReader in = new BufferedReader(
+                    new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+            Map<String, String> headers = new HashMap<>();
+            headers.put(":status", in.readLine().split(" ")[1]);
+            for (String line = in.readLine(); line != null && !line.isEmpty(); line = in.readLine()) {
+                int colon = line.indexOf(':');
+                headers.put(line.substring(0, colon).trim().toLowerCase(), line.substring(colon + 1).trim());
+            }
+            return headers;
+        }
+    }
+}
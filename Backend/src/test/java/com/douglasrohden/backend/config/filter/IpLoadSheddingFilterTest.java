@@ -0,0 +1,56 @@
+package com.douglasrohden.backend.config.filter;
+
+import com.douglasrohden.backend.service.RateLimitService;
+import com.douglasrohden.backend.service.ratelimit.PreAuthRateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * O descarte por IP deve responder 429 sem seguir a cadeia (JWT, usuário, banco).
+ */
+@DisplayName("IpLoadSheddingFilter - Descarte por IP antes da autenticação")
+class IpLoadSheddingFilterTest {
+
+    private final RateLimitService rateLimitService = mock(RateLimitService.class);
+    private final IpLoadSheddingFilter filter = new IpLoadSheddingFilter(
+            new PreAuthRateLimiter(new SimpleMeterRegistry(), 2, 60, 100), rateLimitService, new ObjectMapper());
+
+    @Test
+    @DisplayName("Deve rejeitar a enxurrada de um IP sem chamar o restante da cadeia")
+    void deveRejeitarSemSeguirCadeia() throws Exception {
+        when(rateLimitService.buildErrorBody(anyLong(), any())).thenReturn(Map.of("code", "RATE_LIMIT"));
+        FilterChain chain = mock(FilterChain.class);
+
+        for (int i = 0; i < 2; i++) {
+            MockHttpServletResponse ok = execute("10.0.0.1", chain);
+            assertEquals(200, ok.getStatus());
+        }
+        MockHttpServletResponse rejected = execute("10.0.0.1", chain);
+
+        assertEquals(429, rejected.getStatus());
+        assertNotNull(rejected.getHeader("Retry-After"));
+        verify(chain, times(2)).doFilter(any(), any());
+
+        assertEquals(200, execute("10.0.0.2", chain).getStatus());
+    }
+
+    private MockHttpServletResponse execute(String ip, FilterChain chain) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/albuns");
+        request.setRemoteAddr(ip);
+        request.addHeader("Authorization", "Bearer lixo");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
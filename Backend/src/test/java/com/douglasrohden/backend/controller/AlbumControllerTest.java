@@ -4,10 +4,13 @@ import com.douglasrohden.backend.dto.AlbumRequest;
 import com.douglasrohden.backend.dto.AlbumWithArtistDTO;
 import com.douglasrohden.backend.dto.AlbumWithArtistDTO;
 import com.douglasrohden.backend.model.Album;
+import com.douglasrohden.backend.security.AccessTokenRevocationList;
 import com.douglasrohden.backend.security.JwtUtil;
 import com.douglasrohden.backend.service.AlbumService;
 import com.douglasrohden.backend.service.RateLimitService;
 import com.douglasrohden.backend.service.RateLimitService.Probe;
+import com.douglasrohden.backend.service.ratelimit.PreAuthRateLimiter;
+import com.douglasrohden.backend.service.ratelimit.RateLimitPolicy;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -44,6 +47,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.
 @DisplayName("AlbumController - Testes de CRUD de Álbuns")
 class AlbumControllerTest {
 
+    private static final RateLimitPolicy DEFAULT_POLICY =
+            new RateLimitPolicy(RateLimitPolicy.DEFAULT_NAME, "/**", List.of(), 10, 60, 1, 0);
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -53,15 +59,23 @@ class AlbumControllerTest {
     @MockBean
     private RateLimitService rateLimitService;
 
+    @MockBean
+    private PreAuthRateLimiter preAuthRateLimiter;
+
     @MockBean
     private JwtUtil jwtUtil;
 
+    @MockBean
+    private AccessTokenRevocationList accessTokenRevocationList;
+
     @Autowired
     private ObjectMapper objectMapper;
 
     @BeforeEach
     void setUp() {
-        when(rateLimitService.tryConsume(anyString())).thenReturn(new Probe(true, 10, 0));
+        when(preAuthRateLimiter.tryConsume(any())).thenReturn(new Probe(true, 300, 0));
+        when(rateLimitService.resolvePolicy(any(), any())).thenReturn(DEFAULT_POLICY);
+        when(rateLimitService.tryConsume(any(), anyString(), any(), anyLong())).thenReturn(new Probe(true, 10, 0));
     }
 
     @Test
@@ -89,7 +103,7 @@ class AlbumControllerTest {
     @WithMockUser
     @DisplayName("Deve listar álbuns com paginação")
     void deveListarAlbuns() throws Exception {
-        AlbumWithArtistDTO dto = new AlbumWithArtistDTO(1L, "Álbum Teste", 2020, "Artista", new HashSet<>(), null, true, false, true, false);
+        AlbumWithArtistDTO dto = new AlbumWithArtistDTO(1L, "Álbum Teste", 2020, "Artista", new HashSet<>(), null, null, null, null, true, false, true, false);
         Page<AlbumWithArtistDTO> page = new PageImpl<>(List.of(dto), PageRequest.of(0, 10), 1);
 
         when(albumService.search(any(), any(), any(), any(), any(), any(Pageable.class))).thenReturn(page);
@@ -3,10 +3,13 @@ package com.douglasrohden.backend.controller;
 import com.douglasrohden.backend.dto.ArtistaDto;
 import com.douglasrohden.backend.model.Artista;
 import com.douglasrohden.backend.model.ArtistaTipo;
+import com.douglasrohden.backend.security.AccessTokenRevocationList;
 import com.douglasrohden.backend.security.JwtUtil;
 import com.douglasrohden.backend.service.ArtistaService;
 import com.douglasrohden.backend.service.RateLimitService;
 import com.douglasrohden.backend.service.RateLimitService.Probe;
+import com.douglasrohden.backend.service.ratelimit.PreAuthRateLimiter;
+import com.douglasrohden.backend.service.ratelimit.RateLimitPolicy;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -38,6 +41,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @DisplayName("ArtistaController - Testes de CRUD de Artistas")
 class ArtistaControllerTest {
 
+    private static final RateLimitPolicy DEFAULT_POLICY =
+            new RateLimitPolicy(RateLimitPolicy.DEFAULT_NAME, "/**", List.of(), 10, 60, 1, 0);
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -47,15 +53,23 @@ class ArtistaControllerTest {
     @MockBean
     private RateLimitService rateLimitService;
 
+    @MockBean
+    private PreAuthRateLimiter preAuthRateLimiter;
+
     @MockBean
     private JwtUtil jwtUtil;
 
+    @MockBean
+    private AccessTokenRevocationList accessTokenRevocationList;
+
     @Autowired
     private ObjectMapper objectMapper;
 
     @BeforeEach
     void setUp() {
-        when(rateLimitService.tryConsume(anyString())).thenReturn(new Probe(true, 10, 0));
+        when(preAuthRateLimiter.tryConsume(any())).thenReturn(new Probe(true, 300, 0));
+        when(rateLimitService.resolvePolicy(any(), any())).thenReturn(DEFAULT_POLICY);
+        when(rateLimitService.tryConsume(any(), anyString(), any(), anyLong())).thenReturn(new Probe(true, 10, 0));
     }
 
     @Test
@@ -79,7 +93,7 @@ class ArtistaControllerTest {
     @WithMockUser
     @DisplayName("Deve listar artistas com paginação")
     void deveListarArtistas() throws Exception {
-        ArtistaDto dto = new ArtistaDto(1L, "Artista Teste", 5L, "CANTOR", null);
+        ArtistaDto dto = new ArtistaDto(1L, "Artista Teste", 5L, "CANTOR", null, null, null, null);
         Page<ArtistaDto> page = new PageImpl<>(List.of(dto), PageRequest.of(0, 10), 1);
 
         when(artistaService.search(
@@ -0,0 +1,94 @@
+package com.douglasrohden.backend.controller;
+
+import com.douglasrohden.backend.storage.FilesystemBlobStore;
+import com.douglasrohden.backend.storage.LocalUrlSigner;
+import java.io.ByteArrayInputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Entrega de mídia local: sendfile do Tomcat quando disponível, cópia pelo stream caso contrário.
+ */
+@DisplayName("LocalMediaController - Mídia local assinada")
+class LocalMediaControllerTest {
+
+    private static final byte[] DATA = { 1, 2, 3, 4, 5 };
+
+    @TempDir
+    Path root;
+
+    private FilesystemBlobStore store;
+    private LocalMediaController controller;
+
+    @BeforeEach
+    void setUp() {
+        store = new FilesystemBlobStore(root, new LocalUrlSigner("segredo-de-teste"), "");
+        store.ensureReady();
+        store.put("album/1/capa.png", new ByteArrayInputStream(DATA), DATA.length, "image/png");
+        controller = new LocalMediaController(store);
+    }
+
+    private MockHttpServletRequest signedRequest() {
+        var params = UriComponentsBuilder.fromUriString(store.presign("album/1/capa.png", Duration.ofMinutes(5)))
+                .build().getQueryParams();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/media/album/1/capa.png");
+        request.setParameter("expires", params.getFirst("expires"));
+        request.setParameter("signature", params.getFirst("signature"));
+        return request;
+    }
+
+    private void serve(MockHttpServletRequest request, MockHttpServletResponse response) throws Exception {
+        controller.serve(Long.parseLong(request.getParameter("expires")), request.getParameter("signature"),
+                request, response);
+    }
+
+    @Test
+    @DisplayName("Deve delegar o corpo ao sendfile do conector sem escrever no stream")
+    void deveDelegarAoSendfile() throws Exception {
+        MockHttpServletRequest request = signedRequest();
+        request.setAttribute(LocalMediaController.SENDFILE_SUPPORTED, Boolean.TRUE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        serve(request, response);
+
+        assertEquals(root.resolve("album/1/capa.png").toRealPath().toString(),
+                request.getAttribute(LocalMediaController.SENDFILE_FILENAME));
+        assertEquals(0L, request.getAttribute(LocalMediaController.SENDFILE_START));
+        assertEquals((long) DATA.length, request.getAttribute(LocalMediaController.SENDFILE_END));
+        assertEquals(DATA.length, response.getContentLengthLong());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    @DisplayName("Deve copiar pelo stream quando o conector não suporta sendfile")
+    void deveCopiarSemSendfile() throws Exception {
+        MockHttpServletRequest request = signedRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        serve(request, response);
+
+        assertNull(request.getAttribute(LocalMediaController.SENDFILE_FILENAME));
+        assertArrayEquals(DATA, response.getContentAsByteArray());
+        assertEquals("image/png", response.getContentType());
+    }
+
+    @Test
+    @DisplayName("Deve recusar assinatura inválida")
+    void deveRecusarAssinaturaInvalida() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/media/album/1/capa.png");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        controller.serve(Long.MAX_VALUE, "invalida", request, response);
+
+        assertEquals(403, response.getStatus());
+    }
+}
@@ -0,0 +1,207 @@
+package com.douglasrohden.backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.messaging.converter.ByteArrayMessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.socket.WebSocketExtension;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.WebSocketClient;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.RestTemplateXhrTransport;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+/**
+ * Teste de carga dos transportes STOMP: mantém N conexões abertas contra um backend em execução,
+ * mede a memória de heap do servidor por conexão (via actuator) e a vazão de mensagens recebidas
+ * enquanto álbuns são criados pela API.
+ * <p>
+ * Transportes: {@code native} ({@code /stomp}, oferecendo permessage-deflate), {@code sockjs}
+ * ({@code /ws} via WebSocket) e {@code sockjs-xhr} ({@code /ws} via XHR streaming, o fallback).
+ * <p>
+ * Rodar (com o backend de pé e {@code ulimit -n} acima do número de conexões):
+ * <pre>
+ * mvn -q test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *   -Dexec.args="-Xss256k -cp %classpath com.douglasrohden.backend.loadtest.WebSocketLoadTest \
+ *   http://localhost:3001 native 10000 30 admin admin"
+ * </pre>
+ * Argumentos: baseUrl, transporte, conexões, segundos de publicação, usuário, senha.
+ * Os handshakes saem todos do mesmo IP: suba o backend com {@code rate-limit.pre-auth.requests-per-window}
+ * acima do número de conexões, senão o descarte por IP responde 429.
+ * A diferença de heap é aproximada (sem GC forçado no servidor); rode cada transporte mais de uma vez.
+ */
+public final class WebSocketLoadTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final HttpClient HTTP = HttpClient.newHttpClient();
+
+    private WebSocketLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = arg(args, 0, "http://localhost:3001");
+        String transport = arg(args, 1, "native");
+        int connections = Integer.parseInt(arg(args, 2, "10000"));
+        int publishSeconds = Integer.parseInt(arg(args, 3, "30"));
+        String username = arg(args, 4, "admin");
+        String password = arg(args, 5, "admin");
+
+        String token = login(baseUrl, username, password);
+        WebSocketStompClient stompClient = stompClient(transport);
+        String url = "native".equals(transport)
+                ? baseUrl.replaceFirst("^http", "ws") + "/stomp"
+                : baseUrl + "/ws";
+
+        double heapBefore = serverMetric(baseUrl, "jvm.memory.used", "area:heap");
+        double threadsBefore = serverMetric(baseUrl, "jvm.threads.live", null);
+
+        LongAdder received = new LongAdder();
+        AtomicInteger failures = new AtomicInteger();
+        List<StompSession> sessions = new ArrayList<>(connections);
+        Semaphore inFlight = new Semaphore(200);
+        long connectStart = System.nanoTime();
+        List<CompletableFuture<StompSession>> pending = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            inFlight.acquire();
+            WebSocketHttpHeaders handshakeHeaders = new WebSocketHttpHeaders();
+            handshakeHeaders.setSecWebSocketExtensions(List.of(new WebSocketExtension("permessage-deflate")));
+            StompHeaders connectHeaders = new StompHeaders();
+            connectHeaders.add("Authorization", "Bearer " + token);
+            CompletableFuture<StompSession> future = stompClient
+                    .connectAsync(url, handshakeHeaders, connectHeaders, new StompSessionHandlerAdapter() {
+                    });
+            future.whenComplete((session, error) -> {
+                inFlight.release();
+                if (error != null) {
+                    failures.incrementAndGet();
+                    return;
+                }
+                session.subscribe("/topic/albuns/created/batch", counting(received));
+            });
+            pending.add(future);
+        }
+        for (CompletableFuture<StompSession> future : pending) {
+            try {
+                sessions.add(future.get(60, TimeUnit.SECONDS));
+            } catch (Exception e) {
+                // contado em failures
+            }
+        }
+        double connectSeconds = (System.nanoTime() - connectStart) / 1e9;
+        Thread.sleep(5_000);
+
+        double heapAfter = serverMetric(baseUrl, "jvm.memory.used", "area:heap");
+        double threadsAfter = serverMetric(baseUrl, "jvm.threads.live", null);
+        int open = sessions.size();
+
+        long publishEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(publishSeconds);
+        int created = 0;
+        long receivedStart = received.sum();
+        long publishStart = System.nanoTime();
+        while (System.nanoTime() < publishEnd) {
+            createAlbum(baseUrl, token, "Carga " + created);
+            created++;
+        }
+        Thread.sleep(2_000);
+        double publishElapsed = (System.nanoTime() - publishStart) / 1e9;
+        long frames = received.sum() - receivedStart;
+
+        System.out.printf("transport=%s connections=%d open=%d failed=%d connect=%.1fs%n",
+                transport, connections, open, failures.get(), connectSeconds);
+        System.out.printf("server heap: %.1f MB -> %.1f MB (%.1f KB/conexão), threads %d -> %d%n",
+                heapBefore / 1e6, heapAfter / 1e6, open == 0 ? 0 : (heapAfter - heapBefore) / 1024 / open,
+                (long) threadsBefore, (long) threadsAfter);
+        System.out.printf("albums=%d frames recebidos=%d (%.0f msg/s)%n",
+                created, frames, frames / publishElapsed);
+
+        sessions.forEach(StompSession::disconnect);
+        stompClient.stop();
+    }
+
+    private static WebSocketStompClient stompClient(String transport) {
+        StandardWebSocketClient webSocketClient = new StandardWebSocketClient();
+        WebSocketClient client = switch (transport) {
+            case "native" -> webSocketClient;
+            case "sockjs" -> new SockJsClient(List.of(new WebSocketTransport(webSocketClient)));
+            case "sockjs-xhr" -> new SockJsClient(List.of(new RestTemplateXhrTransport(new RestTemplate())));
+            default -> throw new IllegalArgumentException("Transporte desconhecido: " + transport);
+        };
+        WebSocketStompClient stompClient = new WebSocketStompClient(client);
+        stompClient.setMessageConverter(new ByteArrayMessageConverter());
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(4);
+        scheduler.initialize();
+        stompClient.setTaskScheduler(scheduler);
+        // Sem heartbeats: a medida é do custo da conexão ociosa.
+        stompClient.setDefaultHeartbeat(new long[] { 0, 0 });
+        return stompClient;
+    }
+
+    private static StompFrameHandler counting(LongAdder received) {
+        return new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return byte[].class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                received.increment();
+            }
+        };
+    }
+
+    private static String login(String baseUrl, String username, String password) throws Exception {
+        String body = MAPPER.writeValueAsString(Map.of("username", username, "password", password));
+        HttpResponse<String> response = HTTP.send(HttpRequest.newBuilder(URI.create(baseUrl + "/v1/autenticacao/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login falhou: HTTP " + response.statusCode());
+        }
+        return MAPPER.readTree(response.body()).path("accessToken").asText();
+    }
+
+    private static void createAlbum(String baseUrl, String token, String titulo) throws Exception {
+        String body = MAPPER.writeValueAsString(Map.of("titulo", titulo, "ano", 2024));
+        HTTP.send(HttpRequest.newBuilder(URI.create(baseUrl + "/v1/albuns"))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + token)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.discarding());
+    }
+
+    private static double serverMetric(String baseUrl, String name, String tag) throws Exception {
+        String query = tag == null ? "" : "?tag=" + tag;
+        HttpResponse<String> response = HTTP.send(HttpRequest.newBuilder(
+                URI.create(baseUrl + "/actuator/metrics/" + name + query)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        JsonNode measurements = MAPPER.readTree(response.body()).path("measurements");
+        return measurements.isArray() && !measurements.isEmpty() ? measurements.get(0).path("value").asDouble() : 0;
+    }
+
+    private static String arg(String[] args, int index, String defaultValue) {
+        return args.length > index ? args[index] : defaultValue;
+    }
+}
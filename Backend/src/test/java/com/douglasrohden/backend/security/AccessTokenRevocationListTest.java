@@ -0,0 +1,87 @@
+package com.douglasrohden.backend.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AccessTokenRevocationList - Revogação em memória")
+class AccessTokenRevocationListTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private final AccessTokenRevocationList list = new AccessTokenRevocationList(300_000L, 60, 64, now::get);
+
+    @Test
+    @DisplayName("Deve reconhecer apenas os jti revogados")
+    void deveReconhecerRevogados() {
+        long exp = now.get() + 120_000L;
+        for (int i = 0; i < 500; i++) {
+            list.revoke("revogado-" + i, exp);
+        }
+
+        for (int i = 0; i < 500; i++) {
+            assertTrue(list.isRevoked("revogado-" + i, exp));
+            assertFalse(list.isRevoked("ativo-" + i, exp));
+        }
+        assertEquals(500, list.size());
+    }
+
+    @Test
+    @DisplayName("Deve esquecer a revogação quando o token expira")
+    void deveExpirarJuntoComToken() {
+        long exp = now.get() + 30_000L;
+        list.revoke("jti", exp);
+        assertTrue(list.isRevoked("jti", exp));
+
+        now.addAndGet(120_000L);
+        list.purgeExpired();
+
+        assertFalse(list.isRevoked("jti", exp));
+        assertEquals(0, list.size());
+    }
+
+    @Test
+    @DisplayName("Deve manter revogação com exp além do horizonte do anel")
+    void deveManterExpAlemDoAnel() {
+        long exp = now.get() + 3_600_000L;
+        list.revoke("longo", exp);
+
+        assertTrue(list.isRevoked("longo", exp));
+        assertFalse(list.isRevoked("outro", exp));
+    }
+
+    @Test
+    @DisplayName("Deve ignorar token já expirado")
+    void deveIgnorarExpirado() {
+        list.revoke("velho", now.get() - 1);
+
+        assertFalse(list.isRevoked("velho", now.get() - 1));
+        assertEquals(0, list.size());
+    }
+
+    @Test
+    @DisplayName("Deve manter revogação do overflow depois que o balde do mesmo exp é criado")
+    void deveConsultarOverflowComBaldeExistente() {
+        long exp = now.get() + 7 * 60_000L;
+        list.revoke("antigo", exp);
+
+        now.addAndGet(120_000L);
+        list.revoke("novo", exp);
+
+        assertTrue(list.isRevoked("antigo", exp));
+        assertTrue(list.isRevoked("novo", exp));
+    }
+
+    @Test
+    @DisplayName("Deve voltar a reconhecer revogações feitas depois de uma purga que esvaziou a lista")
+    void deveReconhecerRevogacaoAposPurga() {
+        long exp = now.get() + 30_000L;
+        list.purgeExpired();
+        list.revoke("jti", exp);
+
+        assertTrue(list.isRevoked("jti", exp));
+        list.purgeExpired();
+        assertTrue(list.isRevoked("jti", exp));
+    }
+}
@@ -0,0 +1,75 @@
+package com.douglasrohden.backend.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Modo stateless: autenticação só pelas claims, com revogação por jti.
+ */
+@DisplayName("JwtAuthenticationFilter - Autenticação stateless")
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private final UserDetailsService userDetailsService = mock(UserDetailsService.class);
+    private JwtUtil jwtUtil;
+    private AccessTokenRevocationList revocationList;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 60_000L);
+        revocationList = new AccessTokenRevocationList(60_000L, 10, 64, System::currentTimeMillis);
+        filter = new JwtAuthenticationFilter(jwtUtil, userDetailsService, revocationList, true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Deve autenticar pelas claims sem consultar o usuário")
+    void deveAutenticarPelasClaims() throws Exception {
+        Authentication authentication = execute(jwtUtil.generateToken("admin", 7L, List.of("ROLE_ADMIN")));
+
+        assertNotNull(authentication);
+        assertEquals("admin", authentication.getName());
+        assertEquals("ROLE_ADMIN", authentication.getAuthorities().iterator().next().getAuthority());
+        verify(userDetailsService, never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    @DisplayName("Deve ignorar token cujo jti foi revogado")
+    void deveIgnorarJtiRevogado() throws Exception {
+        String token = jwtUtil.generateToken("admin", 7L, List.of());
+        var claims = jwtUtil.validateAndExtract(token);
+
+        revocationList.revoke(claims.getId(), claims.getExpiration().getTime());
+
+        assertNull(execute(token));
+    }
+
+    private Authentication execute(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/albuns");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        assertNotNull(chain.getRequest());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
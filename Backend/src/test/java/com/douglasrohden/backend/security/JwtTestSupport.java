@@ -0,0 +1,14 @@
+package com.douglasrohden.backend.security;
+
+/**
+ * Acesso dos testes de outros pacotes ao construtor de {@link JwtUtil} sem contexto Spring.
+ */
+public final class JwtTestSupport {
+
+    private JwtTestSupport() {
+    }
+
+    public static JwtUtil jwtUtil(String secret, long expirationMs) {
+        return new JwtUtil(secret, expirationMs);
+    }
+}
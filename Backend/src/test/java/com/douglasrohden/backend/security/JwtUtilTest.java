@@ -0,0 +1,53 @@
+package com.douglasrohden.backend.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes da validação de JWT em um único parse.
+ */
+@DisplayName("JwtUtil - Emissão e validação de tokens")
+class JwtUtilTest {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private final UserDetails admin = User.withUsername("admin").password("x").authorities(List.of()).build();
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil(SECRET, 60_000L);
+    }
+
+    @Test
+    @DisplayName("Deve validar e extrair claims de token válido")
+    void deveValidarTokenValido() {
+        String token = jwtUtil.generateToken(admin);
+
+        Claims claims = jwtUtil.validateAndExtract(token);
+
+        assertEquals("admin", claims.getSubject());
+        assertNotNull(claims.getExpiration());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar token adulterado ou expirado")
+    void deveRejeitarTokenInvalido() {
+        String token = jwtUtil.generateToken(admin);
+        String adulterado = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        assertThrows(JwtException.class, () -> jwtUtil.validateAndExtract(adulterado));
+
+        String expirado = new JwtUtil(SECRET, -1_000L).generateToken(admin);
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.validateAndExtract(expirado));
+    }
+}
@@ -0,0 +1,106 @@
+package com.douglasrohden.backend.security;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("PasswordVerifier - Executor limitado de BCrypt")
+class PasswordVerifierTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private PasswordVerifier verifier;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        callers.shutdownNow();
+        if (verifier != null) {
+            verifier.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve delegar a verificação ao encoder")
+    void deveDelegarAoEncoder() {
+        verifier = new PasswordVerifier(fixedEncoder(), 1, 1, 1000);
+
+        assertTrue(verifier.matches("senha", "senha"));
+        assertFalse(verifier.matches("senha", "outra"));
+    }
+
+    @Test
+    @DisplayName("Deve responder 503 imediatamente quando pool e fila estão cheios")
+    void deveRejeitarQuandoSaturado() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        verifier = new PasswordVerifier(blockingEncoder(started), 1, 1, 10_000);
+
+        callers.submit(() -> verifier.matches("a", "a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        callers.submit(() -> verifier.matches("b", "b"));
+        waitForQueueDepth(1);
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> verifier.matches("c", "c"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Deve responder 503 quando a verificação excede o timeout")
+    void deveRejeitarPorTimeout() {
+        verifier = new PasswordVerifier(blockingEncoder(new CountDownLatch(1)), 1, 1, 50);
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> verifier.matches("a", "a"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatusCode());
+    }
+
+    private void waitForQueueDepth(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (verifier.queueDepth() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, verifier.queueDepth());
+    }
+
+    private PasswordEncoder blockingEncoder(CountDownLatch started) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }
+        };
+    }
+
+    private static PasswordEncoder fixedEncoder() {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return rawPassword.toString().equals(encodedPassword);
+            }
+        };
+    }
+}
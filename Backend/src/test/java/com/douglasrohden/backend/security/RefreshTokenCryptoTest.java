@@ -0,0 +1,79 @@
+package com.douglasrohden.backend.security;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("RefreshTokenCrypto - Geração e hash de refresh token")
+class RefreshTokenCryptoTest {
+
+    private static final String PEPPER = "pepper-de-teste";
+
+    private final RefreshTokenCrypto crypto = new RefreshTokenCrypto(PEPPER);
+
+    @Test
+    @DisplayName("Deve gerar o mesmo hex que um HMAC-SHA256 de referência")
+    void deveGerarHashDeReferencia() throws Exception {
+        assertEquals(referenceHash("token"), crypto.hash("token"));
+        assertEquals(64, crypto.hash("").length());
+    }
+
+    @Test
+    @DisplayName("Deve produzir hashes corretos com várias threads reaproveitando o Mac")
+    void deveSerThreadSafe() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<Boolean>> tasks = IntStream.range(0, 200)
+                    .mapToObj(i -> (Callable<Boolean>) () -> referenceHash("t" + i).equals(crypto.hash("t" + i)))
+                    .toList();
+            for (Future<Boolean> result : pool.invokeAll(tasks)) {
+                assertTrue(result.get());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve gerar tokens opacos distintos de 32 bytes")
+    void deveGerarTokensDistintos() {
+        String a = crypto.generateOpaqueToken();
+        String b = crypto.generateOpaqueToken();
+
+        assertNotEquals(a, b);
+        assertEquals(43, a.length());
+    }
+
+    @Test
+    @DisplayName("Deve embutir e recuperar o vencimento do token")
+    void deveEmbutirVencimento() {
+        OffsetDateTime expiresAt = OffsetDateTime.of(2026, 10, 26, 12, 0, 0, 0, ZoneOffset.UTC);
+
+        String token = crypto.generateOpaqueToken(expiresAt);
+
+        assertEquals(Optional.of(expiresAt), RefreshTokenCrypto.expiresAtOf(token));
+        assertEquals(Optional.empty(), RefreshTokenCrypto.expiresAtOf(crypto.generateOpaqueToken()));
+        assertEquals(Optional.empty(), RefreshTokenCrypto.expiresAtOf("abc.xyz"));
+        assertEquals(Optional.empty(), RefreshTokenCrypto.expiresAtOf("abc."));
+    }
+
+    private static String referenceHash(String value) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(PEPPER.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(value.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,57 @@
+package com.douglasrohden.backend.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do cache de tokens verificados.
+ */
+@DisplayName("VerifiedTokenCache - Tokens já verificados")
+class VerifiedTokenCacheTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000L);
+    private final VerifiedTokenCache cache = new VerifiedTokenCache(64, clock::get);
+
+    @Test
+    @DisplayName("Deve servir o token verificado até a expiração e contar acertos")
+    void deveServirAteExpirar() {
+        Claims claims = Jwts.claims().setSubject("admin").setExpiration(new Date(clock.get() + 60_000));
+        cache.put("a.b.assinatura", claims);
+
+        assertSame(claims, cache.get("a.b.assinatura"));
+        assertNull(cache.get("a.b.outra"));
+
+        clock.addAndGet(60_000);
+        assertNull(cache.get("a.b.assinatura"));
+        assertEquals(1, cache.hits());
+        assertEquals(2, cache.misses());
+        assertEquals(1 / 3d, cache.hitRate(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Não deve guardar token já expirado ou sem exp")
+    void naoDeveGuardarExpirado() {
+        cache.put("x.y.expirado", Jwts.claims().setExpiration(new Date(clock.get() - 1)));
+        cache.put("x.y.semexp", Jwts.claims());
+
+        assertNull(cache.get("x.y.expirado"));
+        assertNull(cache.get("x.y.semexp"));
+    }
+
+    @Test
+    @DisplayName("Deve dimensionar pela validade do token e pela cadência de refresh")
+    void deveDimensionarPelaValidadeERefresh() {
+        // Refresh no vencimento: o token atual e o da troca.
+        assertEquals(2_000, VerifiedTokenCache.capacityFor(1_000, 300_000, 300_000));
+        // Refresh a cada minuto com token de 5 minutos: cinco ainda válidos mais o da troca.
+        assertEquals(6_000, VerifiedTokenCache.capacityFor(1_000, 300_000, 60_000));
+        assertEquals(16, VerifiedTokenCache.capacityFor(1, 300_000, 0));
+    }
+}
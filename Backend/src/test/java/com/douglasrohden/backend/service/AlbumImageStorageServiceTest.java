@@ -0,0 +1,107 @@
+package com.douglasrohden.backend.service;
+
+import com.douglasrohden.backend.config.MinioProperties;
+import com.douglasrohden.backend.model.Album;
+import com.douglasrohden.backend.model.AlbumImage;
+import com.douglasrohden.backend.repository.AlbumImageRepository;
+import com.douglasrohden.backend.repository.AlbumRepository;
+import com.douglasrohden.backend.storage.InMemoryBlobStore;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Upload de capas: storage fora da transação, persistência atômica e compensação no storage.
+ */
+@DisplayName("AlbumImageStorageService - Upload de capas")
+class AlbumImageStorageServiceTest {
+
+    private final AlbumRepository albumRepository = mock(AlbumRepository.class);
+    private final AlbumImageRepository albumImageRepository = mock(AlbumImageRepository.class);
+    private final CatalogChangeLogService changeLog = mock(CatalogChangeLogService.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private InMemoryBlobStore blobStore;
+    private AlbumImageStorageService service;
+
+    @BeforeEach
+    void setUp() {
+        blobStore = new InMemoryBlobStore();
+        MinioProperties properties = new MinioProperties();
+        properties.setMaxFileSizeBytes(1024L);
+        service = new AlbumImageStorageService(albumRepository, albumImageRepository,
+                new MediaStorageService(blobStore, properties), changeLog, new TransactionTemplate(transactionManager));
+        Album album = new Album();
+        album.setId(5L);
+        when(albumRepository.existsById(5L)).thenReturn(true);
+        when(albumRepository.findById(5L)).thenReturn(Optional.of(album));
+    }
+
+    private static MultipartFile[] files() {
+        return new MultipartFile[] {
+                new MockMultipartFile("files", "a.jpg", "image/jpeg", new byte[] { 1 }),
+                new MockMultipartFile("files", "b.jpg", "image/jpeg", new byte[] { 2 }) };
+    }
+
+    @Test
+    @DisplayName("Deve persistir capas, capa principal e feed na mesma transação")
+    void devePersistirNaMesmaTransacao() {
+        when(albumImageRepository.save(any())).thenAnswer(inv -> {
+            AlbumImage image = inv.getArgument(0);
+            image.setId(1L);
+            return image;
+        });
+
+        assertEquals(2, service.uploadCovers(5L, files()).size());
+
+        verify(transactionManager, times(1)).getTransaction(any());
+        verify(transactionManager, times(1)).commit(any());
+        verify(albumRepository).updatePrimaryCover(eq(5L), any());
+        assertEquals(2, blobStore.list("album/5/").size());
+    }
+
+    @Test
+    @DisplayName("Deve remover do storage os objetos gravados quando a persistência falha")
+    void deveCompensarFalhaNaPersistencia() {
+        when(albumImageRepository.save(any())).thenThrow(new DataIntegrityViolationException("falha"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> service.uploadCovers(5L, files()));
+
+        verify(transactionManager).rollback(any());
+        verify(changeLog, never()).record(any(), any(), any());
+        assertTrue(blobStore.list("album/5/").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve apagar objetos das capas removidas só após o commit")
+    void deveApagarCapasAposCommit() {
+        MediaStorageService.StoredMedia stored = new MediaStorageService(blobStore, new MinioProperties())
+                .store("album", 5L, new MockMultipartFile("files", "a.jpg", "image/jpeg", new byte[] { 1 }));
+        AlbumImage image = AlbumImage.builder().objectKey(stored.objectKey()).build();
+        when(albumImageRepository.findByAlbumId(5L)).thenReturn(List.of(image));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.deleteAllCovers(5L);
+            verify(albumImageRepository).deleteAll(List.of(image));
+            assertEquals(1, blobStore.list("album/5/").size());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertTrue(blobStore.list("album/5/").isEmpty());
+    }
+}
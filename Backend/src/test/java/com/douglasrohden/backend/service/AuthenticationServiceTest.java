@@ -0,0 +1,129 @@
+package com.douglasrohden.backend.service;
+
+import com.douglasrohden.backend.dto.LoginResponse;
+import com.douglasrohden.backend.repository.RefreshTokenRepository;
+import com.douglasrohden.backend.repository.RefreshTokenRotationRepository;
+import com.douglasrohden.backend.repository.RefreshTokenRotationRepository.IssuedAccessToken;
+import com.douglasrohden.backend.repository.RefreshTokenRotationRepository.RotatedUser;
+import com.douglasrohden.backend.repository.RefreshTokenRotationRepository.TokenKey;
+import com.douglasrohden.backend.repository.UsuarioRepository;
+import com.douglasrohden.backend.security.JwtTestSupport;
+import com.douglasrohden.backend.security.JwtUtil;
+import com.douglasrohden.backend.security.PasswordVerifier;
+import com.douglasrohden.backend.security.RefreshTokenCrypto;
+import com.douglasrohden.backend.security.UserRoles;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Rotação de refresh token em um único comando, detecção de reuso e logout.
+ */
+@DisplayName("AuthenticationService - Refresh token e revogação")
+class AuthenticationServiceTest {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private final RefreshTokenRotationRepository rotationRepository = mock(RefreshTokenRotationRepository.class);
+    private final AccessTokenRevocationService revocationService = mock(AccessTokenRevocationService.class);
+    private final RefreshTokenCrypto crypto = new RefreshTokenCrypto(SECRET);
+    private AuthenticationService service;
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = JwtTestSupport.jwtUtil(SECRET, 300_000L);
+        service = new AuthenticationService(mock(UsuarioRepository.class), mock(RefreshTokenRepository.class),
+                rotationRepository, jwtUtil, mock(PasswordVerifier.class), crypto,
+                new SimpleMeterRegistry(), revocationService, new UserRoles("admin"));
+        ReflectionTestUtils.setField(service, "jwtExpiration", 300_000L);
+        ReflectionTestUtils.setField(service, "refreshExpiration", 600_000L);
+    }
+
+    @Test
+    @DisplayName("Deve rotacionar e emitir tokens a partir da linha devolvida")
+    void deveRotacionar() {
+        when(rotationRepository.rotate(eq(legacyKey("antigo")), anyString(), any(), any()))
+                .thenReturn(Optional.of(new RotatedUser(7L, "admin")));
+
+        LoginResponse response = service.refresh("antigo");
+
+        assertNotEquals("antigo", response.getRefreshToken());
+        Claims claims = jwtUtil.validateAndExtract(response.getAccessToken());
+        assertEquals("admin", claims.getSubject());
+        // O jti gravado junto do refresh token é o do access token emitido.
+        verify(rotationRepository).rotate(eq(legacyKey("antigo")), eq(crypto.hash(response.getRefreshToken())), any(),
+                argThat(issued -> issued.jti().equals(claims.getId())));
+    }
+
+    @Test
+    @DisplayName("Deve buscar pelo vencimento embutido e embuti-lo no novo token")
+    void deveBuscarPeloVencimento() {
+        OffsetDateTime expiresAt = OffsetDateTime.now(ZoneOffset.UTC).plusDays(3).truncatedTo(ChronoUnit.SECONDS);
+        String raw = crypto.generateOpaqueToken(expiresAt);
+        when(rotationRepository.rotate(eq(new TokenKey(crypto.hash(raw), expiresAt)), anyString(), any(), any()))
+                .thenReturn(Optional.of(new RotatedUser(7L, "admin")));
+
+        LoginResponse response = service.refresh(raw);
+
+        ArgumentCaptor<OffsetDateTime> newExpiresAt = ArgumentCaptor.forClass(OffsetDateTime.class);
+        verify(rotationRepository).rotate(any(), anyString(), newExpiresAt.capture(), any());
+        assertEquals(Optional.of(newExpiresAt.getValue()), RefreshTokenCrypto.expiresAtOf(response.getRefreshToken()));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar token já usado, revogado ou expirado")
+    void deveRejeitarTokenInativo() {
+        when(rotationRepository.rotate(any(), anyString(), any(), any())).thenReturn(Optional.empty());
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> service.refresh("usado"));
+        assertEquals(HttpStatus.UNAUTHORIZED, ex.getStatusCode());
+        verifyNoInteractions(revocationService);
+    }
+
+    @Test
+    @DisplayName("Deve revogar os access tokens da família ao detectar reuso")
+    void deveRevogarNoReuso() {
+        OffsetDateTime expiresAt = OffsetDateTime.now(ZoneOffset.UTC).plusMinutes(5);
+        when(rotationRepository.rotate(any(), anyString(), any(), any())).thenReturn(Optional.empty());
+        when(rotationRepository.revokeAllOnReuse(legacyKey("reusado")))
+                .thenReturn(List.of(new IssuedAccessToken("jti-1", expiresAt)));
+
+        assertThrows(ResponseStatusException.class, () -> service.refresh("reusado"));
+
+        verify(revocationService).revoke("jti-1", expiresAt.toInstant());
+    }
+
+    @Test
+    @DisplayName("Deve revogar access e refresh token no logout")
+    void deveRevogarNoLogout() {
+        String accessToken = jwtUtil.generateToken("admin", 7L, List.of());
+        Claims claims = jwtUtil.validateAndExtract(accessToken);
+
+        service.logout(accessToken, "refresh");
+
+        verify(revocationService).revoke(claims.getId(), claims.getExpiration().toInstant());
+        verify(rotationRepository).revoke(legacyKey("refresh"));
+    }
+
+    /** Token sem vencimento embutido (emitido antes do V19): busca só pelo hash. */
+    private TokenKey legacyKey(String raw) {
+        return new TokenKey(crypto.hash(raw), null);
+    }
+}
@@ -0,0 +1,171 @@
+package com.douglasrohden.backend.service;
+
+import com.douglasrohden.backend.dto.CatalogChangesResponse;
+import com.douglasrohden.backend.model.CatalogChange;
+import com.douglasrohden.backend.repository.CatalogChangeLogRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Feed "alterações desde seq N": lotes limitados, cursor, anúncio após o commit, atraso do
+ * sequenciador e retenção.
+ */
+@DisplayName("CatalogChangeLogService - Feed de alterações do catálogo")
+class CatalogChangeLogServiceTest {
+
+    private final CatalogChangeLogRepository repository = mock(CatalogChangeLogRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    private CatalogChangeLogService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new CatalogChangeLogService(repository, eventPublisher, messagingTemplate);
+        ReflectionTestUtils.setField(service, "maxBatchSize", 3);
+        ReflectionTestUtils.setField(service, "lagWarnSeconds", 30L);
+        ReflectionTestUtils.setField(service, "retentionHours", 168L);
+        ReflectionTestUtils.setField(service, "purgeBatchSize", 2);
+    }
+
+    private static List<CatalogChange> changes(long from, long to) {
+        return LongStream.rangeClosed(from, to)
+                .mapToObj(seq -> new CatalogChange(seq, CatalogChange.EntityType.ALBUM, seq,
+                        CatalogChange.Operation.UPDATE, OffsetDateTime.now()))
+                .toList();
+    }
+
+    @Test
+    @DisplayName("Deve limitar o lote e sinalizar que há mais alterações")
+    void deveLimitarLote() {
+        when(repository.findSince(10L, 4)).thenReturn(changes(11, 14));
+
+        CatalogChangesResponse response = service.changesSince(10L, 50);
+
+        assertEquals(3, response.alteracoes().size());
+        assertEquals(13L, response.ultimaSeq());
+        assertTrue(response.temMais());
+    }
+
+    @Test
+    @DisplayName("Deve manter o cursor quando não há alterações novas")
+    void deveManterCursorSemAlteracoes() {
+        when(repository.findSince(42L, 3)).thenReturn(List.of());
+
+        CatalogChangesResponse response = service.changesSince(42L, 2);
+
+        assertTrue(response.alteracoes().isEmpty());
+        assertEquals(42L, response.ultimaSeq());
+        assertFalse(response.temMais());
+    }
+
+    @Test
+    @DisplayName("Deve registrar alteração sem atribuir seq nem publicar na escrita")
+    void deveRegistrarSemPublicar() {
+        service.record(CatalogChange.EntityType.ALBUM, 7L, CatalogChange.Operation.UPDATE);
+
+        verify(repository).append(CatalogChange.EntityType.ALBUM, 7L, CatalogChange.Operation.UPDATE);
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Deve publicar as alterações sequenciadas para o anúncio pós-commit")
+    void devePublicarSequenciadas() {
+        List<CatalogChange> sequenced = changes(7, 8);
+        when(repository.sequencePending(3)).thenReturn(sequenced);
+
+        service.sequencePending();
+        sequenced.forEach(service::announce);
+
+        verify(eventPublisher).publishEvent(sequenced.get(0));
+        verify(eventPublisher).publishEvent(sequenced.get(1));
+        verify(messagingTemplate).convertAndSend(CatalogChangeLogService.TOPIC, sequenced.get(0));
+        verify(messagingTemplate).convertAndSend(CatalogChangeLogService.TOPIC, sequenced.get(1));
+    }
+
+    @Test
+    @DisplayName("Deve ignorar entidade sem id")
+    void deveIgnorarEntidadeSemId() {
+        service.record(CatalogChange.EntityType.ARTISTA, null, CatalogChange.Operation.CREATE);
+
+        verify(repository, never()).append(any(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Deve recusar com 410 cursor anterior ao último seq expurgado")
+    void deveRecusarCursorExpurgado() {
+        when(repository.findSince(5L, 4)).thenReturn(changes(21, 24));
+        when(repository.purgedThrough()).thenReturn(20L);
+        when(repository.latestSeq()).thenReturn(90L);
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> service.changesSince(5L, 3));
+
+        assertEquals(HttpStatus.GONE, ex.getStatusCode());
+        assertTrue(ex.getReason().contains("mínimo 20"));
+        assertTrue(ex.getReason().contains("desde=90"));
+    }
+
+    @Test
+    @DisplayName("Deve aceitar cursor igual ao último seq expurgado")
+    void deveAceitarCursorNaMarca() {
+        when(repository.findSince(20L, 4)).thenReturn(changes(21, 22));
+        when(repository.purgedThrough()).thenReturn(20L);
+
+        CatalogChangesResponse response = service.changesSince(20L, 3);
+
+        assertEquals(22L, response.ultimaSeq());
+    }
+
+    @Test
+    @DisplayName("Deve expor no gauge o atraso da pendente mais antiga")
+    void deveExporAtrasoDoSequenciador() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        service.bindTo(registry);
+        when(repository.sequencePending(3)).thenReturn(List.of());
+        when(repository.oldestPendingAgeSeconds()).thenReturn(45L, 0L);
+
+        service.sequencePending();
+        assertEquals(45.0, registry.get("catalog.changes.sequencer.lag").gauge().value());
+
+        service.sequencePending();
+        assertEquals(0.0, registry.get("catalog.changes.sequencer.lag").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Deve expurgar em lotes até um lote parcial")
+    void deveExpurgarEmLotes() {
+        when(repository.purgeOlderThan(Duration.ofHours(168), 2)).thenReturn(2, 2, 1);
+
+        service.purgeExpired();
+
+        verify(repository, times(3)).purgeOlderThan(Duration.ofHours(168), 2);
+    }
+
+    @Test
+    @DisplayName("Deve interromper o expurgo quando o banco falha")
+    void deveInterromperExpurgoComFalha() {
+        when(repository.purgeOlderThan(any(), anyInt()))
+                .thenReturn(2)
+                .thenThrow(new QueryTimeoutException("timeout"));
+
+        assertDoesNotThrow(service::purgeExpired);
+        verify(repository, times(2)).purgeOlderThan(any(), anyInt());
+    }
+}
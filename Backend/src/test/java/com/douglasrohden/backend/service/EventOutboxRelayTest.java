@@ -0,0 +1,144 @@
+package com.douglasrohden.backend.service;
+
+import com.douglasrohden.backend.events.AlbumCreatedEvent;
+import com.douglasrohden.backend.repository.EventOutboxRepository;
+import com.douglasrohden.backend.repository.EventOutboxRepository.OutboxEntry;
+import com.douglasrohden.backend.websocket.AlbumNotificationDispatcher;
+import com.douglasrohden.backend.websocket.AlbumNotificationsListener;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Relay do outbox: entrega em lote, baixa das linhas entregues e backoff nas falhas.
+ */
+@DisplayName("EventOutboxRelay - Entrega do outbox em lotes")
+class EventOutboxRelayTest {
+
+    private final EventOutboxRepository repository = mock(EventOutboxRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private EventOutboxService outboxService;
+    private EventOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        outboxService = new EventOutboxService(repository, objectMapper, eventPublisher);
+        relay = new EventOutboxRelay(repository, outboxService, eventPublisher,
+                mock(PlatformTransactionManager.class), 2, 500, 1000, 8000, 5, 24);
+    }
+
+    private OutboxEntry entry(long id, AlbumCreatedEvent event) throws Exception {
+        return new OutboxEntry(id, "AlbumCreatedEvent", objectMapper.writeValueAsString(event), 0);
+    }
+
+    @Test
+    @DisplayName("Deve republicar eventos do lote e marcar como processados")
+    void deveEntregarLote() throws Exception {
+        AlbumCreatedEvent first = new AlbumCreatedEvent(1L, "Um", 2020);
+        AlbumCreatedEvent second = new AlbumCreatedEvent(2L, "Dois", 2021);
+        when(repository.claimBatch(2, 5)).thenReturn(List.of(entry(10, first), entry(11, second)));
+
+        int claimed = relay.relayBatch();
+
+        assertEquals(2, claimed);
+        verify(eventPublisher).publishEvent(first);
+        verify(eventPublisher).publishEvent(second);
+        verify(repository).markProcessed(List.of(10L, 11L));
+    }
+
+    @Test
+    @DisplayName("Deve devolver à fila com backoff o evento que falhou")
+    void deveDevolverEventoComFalha() throws Exception {
+        AlbumCreatedEvent ok = new AlbumCreatedEvent(1L, "Um", 2020);
+        when(repository.claimBatch(2, 5)).thenReturn(List.of(
+                entry(10, ok), new OutboxEntry(11, "Desconhecido", "{}", 2)));
+
+        relay.relayBatch();
+
+        verify(repository).markFailed(eq(11L), anyString(), eq(Duration.ofMillis(4000)));
+        verify(repository).markProcessed(List.of(10L));
+    }
+
+    @Test
+    @DisplayName("Deve devolver só o evento cujo assinante falhou e seguir com o lote")
+    void deveIsolarFalhaDeAssinante() throws Exception {
+        AlbumNotificationDispatcher dispatcher = new AlbumNotificationDispatcher(
+                mock(SimpMessagingTemplate.class), 1, 60_000, 10, false);
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.registerBean(FailingNotify.class);
+            context.registerBean(AlbumNotificationsListener.class, () -> new AlbumNotificationsListener(dispatcher));
+            context.refresh();
+            EventOutboxRelay realRelay = new EventOutboxRelay(repository, outboxService, context,
+                    mock(PlatformTransactionManager.class), 3, 500, 1000, 8000, 5, 24);
+            when(repository.claimBatch(3, 5)).thenReturn(List.of(
+                    entry(10, new AlbumCreatedEvent(1L, "Um", 2020)),
+                    entry(11, new AlbumCreatedEvent(FailingNotify.POISON, "Veneno", 2020)),
+                    entry(12, new AlbumCreatedEvent(3L, "Três", 2020))));
+
+            realRelay.relayBatch();
+
+            // 11: o "pg_notify" falha; 12: a fila local (capacidade 1) já está cheia.
+            verify(repository).markFailed(eq(11L), anyString(), eq(Duration.ofMillis(1000)));
+            verify(repository).markFailed(eq(12L), anyString(), eq(Duration.ofMillis(1000)));
+            verify(repository).markProcessed(List.of(10L));
+        } finally {
+            dispatcher.destroy();
+        }
+    }
+
+    /** Faz o papel do NOTIFY entre réplicas falhando para um evento específico. */
+    static class FailingNotify {
+        static final long POISON = 2L;
+
+        @EventListener
+        public void onAlbumCreated(AlbumCreatedEvent event) {
+            if (event.id() == POISON) {
+                throw new DataAccessResourceFailureException("pg_notify falhou");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Deve buscar de novo na hora com lote cheio e recuar com o banco fora")
+    void deveAjustarIntervaloDePoll() throws Exception {
+        when(repository.claimBatch(2, 5))
+                .thenReturn(List.of(entry(1, new AlbumCreatedEvent(1L, "a", 1)), entry(2, new AlbumCreatedEvent(2L, "b", 2))))
+                .thenReturn(List.of())
+                .thenThrow(new DataAccessResourceFailureException("fora"))
+                .thenThrow(new DataAccessResourceFailureException("fora"));
+
+        assertEquals(0, relay.runOnce());
+        assertEquals(500, relay.runOnce());
+        assertEquals(500, relay.runOnce());
+        assertEquals(1000, relay.runOnce());
+    }
+
+    @Test
+    @DisplayName("Deve limitar o backoff por evento")
+    void deveLimitarBackoff() {
+        assertEquals(Duration.ofMillis(1000), relay.retryDelay(0));
+        assertEquals(Duration.ofMillis(8000), relay.retryDelay(10));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar evento não registrado no outbox")
+    void deveRejeitarEventoNaoRegistrado() {
+        assertThrows(IllegalArgumentException.class, () -> outboxService.append("texto"));
+        verify(repository, never()).append(anyString(), anyString());
+    }
+}
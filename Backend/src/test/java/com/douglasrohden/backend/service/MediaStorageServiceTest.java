@@ -0,0 +1,124 @@
+package com.douglasrohden.backend.service;
+
+import com.douglasrohden.backend.config.MinioProperties;
+import com.douglasrohden.backend.storage.InMemoryBlobStore;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do motor de armazenamento de mídia sobre o BlobStore em memória.
+ */
+@DisplayName("MediaStorageService - Armazenamento de mídia")
+class MediaStorageServiceTest {
+
+    private InMemoryBlobStore blobStore;
+    private MediaStorageService mediaStorage;
+
+    @BeforeEach
+    void setUp() {
+        blobStore = new InMemoryBlobStore();
+        MinioProperties properties = new MinioProperties();
+        properties.setMaxFileSizeBytes(1024L);
+        mediaStorage = new MediaStorageService(blobStore, properties);
+    }
+
+    @Test
+    @DisplayName("Deve gravar arquivo com chave prefixada pelo dono")
+    void deveGravarArquivo() {
+        MockMultipartFile file = new MockMultipartFile("files", "capa.PNG", "image/png", new byte[] { 1, 2, 3 });
+
+        MediaStorageService.StoredMedia stored = mediaStorage.store("album", 7L, file);
+
+        assertTrue(stored.objectKey().startsWith("album/7/"));
+        assertTrue(stored.objectKey().endsWith(".png"));
+        assertEquals(3, stored.sizeBytes());
+        assertTrue(blobStore.stat(stored.objectKey()).isPresent());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar arquivo acima do tamanho máximo")
+    void deveRejeitarArquivoGrande() {
+        MockMultipartFile file = new MockMultipartFile("files", "capa.png", "image/png", new byte[2048]);
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> mediaStorage.store("album", 1L, file));
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar tipo de arquivo não permitido")
+    void deveRejeitarTipoNaoPermitido() {
+        MockMultipartFile file = new MockMultipartFile("files", "doc.pdf", "application/pdf", new byte[] { 1 });
+
+        assertThrows(ResponseStatusException.class, () -> mediaStorage.store("artista", 1L, file));
+        assertTrue(blobStore.list("artista/").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve remover objeto e assinar URL com expiração")
+    void deveRemoverEAssinar() {
+        MockMultipartFile file = new MockMultipartFile("files", "a.jpg", "image/jpeg", new byte[] { 1 });
+        String key = mediaStorage.store("artista", 2L, file).objectKey();
+
+        MediaStorageService.SignedUrl signed = mediaStorage.sign(key);
+        assertNotNull(signed.url());
+        assertNotNull(signed.expiresAt());
+
+        mediaStorage.delete(key);
+        assertTrue(blobStore.stat(key).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve extrair dimensões e placeholder de imagem enviada")
+    void deveExtrairDimensoesEPlaceholder() throws Exception {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(320, 160, BufferedImage.TYPE_INT_RGB), "png", png);
+        MockMultipartFile file = new MockMultipartFile("files", "capa.png", "image/png", png.toByteArray());
+
+        MediaStorageService.StoredMedia stored = mediaStorage.store("album", 3L, file);
+
+        assertEquals(320, stored.width());
+        assertEquals(160, stored.height());
+        assertTrue(stored.placeholder().startsWith("data:image/png;base64,"));
+    }
+
+    @Test
+    @DisplayName("Deve gravar sem metadados quando a imagem não pode ser lida")
+    void deveGravarSemMetadados() {
+        MockMultipartFile file = new MockMultipartFile("files", "capa.webp", "image/webp", new byte[] { 1, 2 });
+
+        MediaStorageService.StoredMedia stored = mediaStorage.store("album", 3L, file);
+
+        assertNull(stored.width());
+        assertNull(stored.placeholder());
+    }
+
+    @Test
+    @DisplayName("Deve adiar a remoção do objeto até o commit da transação")
+    void deveRemoverAposCommit() {
+        MockMultipartFile file = new MockMultipartFile("files", "a.jpg", "image/jpeg", new byte[] { 1 });
+        String key = mediaStorage.store("album", 4L, file).objectKey();
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            mediaStorage.deleteAfterCommit(key);
+            assertTrue(blobStore.stat(key).isPresent());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertTrue(blobStore.stat(key).isEmpty());
+    }
+}
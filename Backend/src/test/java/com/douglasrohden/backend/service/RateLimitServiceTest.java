@@ -0,0 +1,45 @@
+package com.douglasrohden.backend.service;
+
+import com.douglasrohden.backend.service.ratelimit.GcraBackend;
+import com.douglasrohden.backend.service.ratelimit.KeyClass;
+import com.douglasrohden.backend.service.ratelimit.RateLimitPolicy;
+import com.douglasrohden.backend.service.ratelimit.RateLimitPolicyRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Normalização da chave antes do bucket.
+ */
+@DisplayName("RateLimitService - Chaves de rate limit")
+class RateLimitServiceTest {
+
+    private final RateLimitService service = new RateLimitService(
+            new GcraBackend(120, 1000, System::currentTimeMillis, System::nanoTime),
+            new RateLimitPolicyRegistry(List::of,
+                    new RateLimitPolicy(RateLimitPolicy.DEFAULT_NAME, "/**", List.of(), 2, 60, 1, 0)),
+            new SimpleMeterRegistry(), 2, 60);
+
+    @Test
+    @DisplayName("Deve tratar chaves com espaços nas bordas como a mesma chave")
+    void deveIgnorarEspacosNasBordas() {
+        assertTrue(service.tryConsume(KeyClass.USER, "alice").consumed());
+        assertTrue(service.tryConsume(KeyClass.USER, " alice ").consumed());
+        assertFalse(service.tryConsume(KeyClass.USER, "alice ").consumed());
+    }
+
+    @Test
+    @DisplayName("Deve separar buckets por classe da chave e qualificar as rejeitadas no top-K")
+    void deveSepararPorClasse() {
+        service.tryConsume(KeyClass.USER, "10.0.0.1");
+        service.tryConsume(KeyClass.USER, "10.0.0.1");
+        assertFalse(service.tryConsume(KeyClass.USER, "10.0.0.1").consumed());
+
+        assertTrue(service.tryConsume(KeyClass.IP, "10.0.0.1").consumed());
+        assertEquals("default user:10.0.0.1", service.topRejectedKeys(1).get(0).key());
+    }
+}
@@ -0,0 +1,87 @@
+package com.douglasrohden.backend.service;
+
+import com.douglasrohden.backend.service.RefreshTokenMaintenanceService.ExpiredPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Expurgo das partições vencidas de refresh_tokens com DETACH CONCURRENTLY.
+ */
+@DisplayName("RefreshTokenMaintenanceService - Partições de refresh_tokens")
+class RefreshTokenMaintenanceServiceTest {
+
+    private static final long ONE_WEEK_MS = 7L * 24 * 60 * 60 * 1000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate = mock(NamedParameterJdbcTemplate.class);
+    private final JdbcOperations jdbc = mock(JdbcOperations.class);
+    private RefreshTokenMaintenanceService service;
+
+    @BeforeEach
+    void setUp() {
+        when(jdbcTemplate.getJdbcOperations()).thenReturn(jdbc);
+        service = new RefreshTokenMaintenanceService(jdbcTemplate, 2, ONE_WEEK_MS, 24, 100);
+    }
+
+    @Test
+    @DisplayName("Deve desanexar com CONCURRENTLY, concluir pendentes e remover órfãs")
+    void deveDesanexarConcorrentemente() {
+        expired(new ExpiredPartition("refresh_tokens_p20260105", true, false),
+                new ExpiredPartition("refresh_tokens_p20260112", true, true),
+                new ExpiredPartition("refresh_tokens_p20260119", false, false));
+
+        assertTrue(service.dropExpiredPartitions());
+
+        InOrder order = inOrder(jdbc);
+        order.verify(jdbc).execute("ALTER TABLE refresh_tokens DETACH PARTITION \"refresh_tokens_p20260105\" CONCURRENTLY");
+        order.verify(jdbc).execute("DROP TABLE \"refresh_tokens_p20260105\"");
+        order.verify(jdbc).execute("ALTER TABLE refresh_tokens DETACH PARTITION \"refresh_tokens_p20260112\" FINALIZE");
+        order.verify(jdbc).execute("DROP TABLE \"refresh_tokens_p20260112\"");
+        order.verify(jdbc).execute("DROP TABLE \"refresh_tokens_p20260119\"");
+        verifyNoMoreInteractions(jdbc);
+    }
+
+    @Test
+    @DisplayName("Deve expurgar em lotes quando o DETACH falha")
+    void deveExpurgarEmLotesNaFalha() {
+        expired(new ExpiredPartition("refresh_tokens_p20260105", true, false));
+        doThrow(new QueryTimeoutException("lock")).when(jdbc).execute(contains("CONCURRENTLY"));
+        when(jdbcTemplate.update(contains("DELETE FROM refresh_tokens"), any(MapSqlParameterSource.class)))
+                .thenReturn(100, 7);
+
+        service.maintain();
+
+        verify(jdbc, never()).execute(startsWith("DROP TABLE"));
+        verify(jdbcTemplate, times(2)).update(contains("DELETE FROM refresh_tokens"), any(MapSqlParameterSource.class));
+    }
+
+    @Test
+    @DisplayName("Deve criar partições à frente cobrindo toda a validade do refresh token")
+    void deveCobrirValidadeDoRefresh() {
+        service = new RefreshTokenMaintenanceService(jdbcTemplate, 1, 5 * ONE_WEEK_MS + 1, 24, 100);
+
+        service.ensurePartitions();
+
+        verify(jdbcTemplate).queryForObject(anyString(),
+                argThat((MapSqlParameterSource params) -> Integer.valueOf(6).equals(params.getValue("weeksAhead"))),
+                eq(Integer.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void expired(ExpiredPartition... partitions) {
+        when(jdbcTemplate.query(contains("pg_inherits"), any(MapSqlParameterSource.class), any(RowMapper.class)))
+                .thenReturn(List.of(partitions));
+    }
+}
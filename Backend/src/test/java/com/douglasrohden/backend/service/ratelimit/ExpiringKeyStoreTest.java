@@ -0,0 +1,107 @@
+package com.douglasrohden.backend.service.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes da expiração por roda de tempo e do despejo por capacidade.
+ */
+@DisplayName("ExpiringKeyStore - Estado de rate limit por chave")
+class ExpiringKeyStoreTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000L);
+    private static final BucketSpec SPEC = new BucketSpec("default", 10, 60);
+    private final Function<BucketSpec, Object> factory = spec -> new Object();
+
+    private ExpiringKeyStore<Object> store;
+
+    @BeforeEach
+    void setUp() {
+        store = new ExpiringKeyStore<>(60_000L, 3, clock::get);
+    }
+
+    @Test
+    @DisplayName("Deve reutilizar o valor por chave e separar por política")
+    void deveReutilizarValor() {
+        Object first = store.get(SPEC, KeyClass.USER, "a", factory);
+
+        assertSame(first, store.get(SPEC, KeyClass.USER, "a", factory));
+        assertNotSame(first, store.get(new BucketSpec("login", 10, 60), KeyClass.USER, "a", factory));
+        assertEquals(2, store.size());
+    }
+
+    @Test
+    @DisplayName("Deve expirar chaves ociosas e manter as ativas")
+    void deveExpirarOciosas() {
+        Object ativo = store.get(SPEC, KeyClass.USER, "ativo", factory);
+        store.get(SPEC, KeyClass.USER, "ocioso", factory);
+
+        for (int i = 0; i < 12; i++) {
+            clock.addAndGet(10_000L);
+            assertSame(ativo, store.get(SPEC, KeyClass.USER, "ativo", factory));
+        }
+
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    @DisplayName("Deve despejar a chave ociosa há mais tempo ao exceder a capacidade")
+    void deveDespejarMaisAntiga() {
+        store.get(SPEC, KeyClass.USER, "antigo", factory);
+        clock.addAndGet(5_000L);
+        Object b = store.get(SPEC, KeyClass.USER, "b", factory);
+        clock.addAndGet(5_000L);
+        Object c = store.get(SPEC, KeyClass.USER, "c", factory);
+        clock.addAndGet(5_000L);
+
+        store.get(SPEC, KeyClass.USER, "d", factory);
+
+        assertEquals(3, store.size());
+        assertEquals(1, store.evictions());
+        assertSame(b, store.get(SPEC, KeyClass.USER, "b", factory));
+        assertSame(c, store.get(SPEC, KeyClass.USER, "c", factory));
+    }
+
+    @Test
+    @DisplayName("Deve manter a capacidade como limite rígido com todas as chaves ativas")
+    void deveRespeitarCapacidadeComChavesAtivas() {
+        for (int i = 0; i < 20; i++) {
+            clock.addAndGet(2_000L);
+            // Todas continuam ativas: nenhuma está ociosa, então o despejo precisa ser forçado.
+            for (int k = 0; k <= i; k++) {
+                store.get(SPEC, KeyClass.USER, String.valueOf(k), factory);
+                assertTrue(store.size() <= 3, "tamanho " + store.size() + " acima da capacidade");
+            }
+        }
+        assertTrue(store.evictions() > 0);
+    }
+
+    @Test
+    @DisplayName("Deve terminar dentro da capacidade com inserções concorrentes de chaves distintas")
+    void deveRespeitarCapacidadeSobConcorrencia() throws Exception {
+        ExpiringKeyStore<Object> concurrent = new ExpiringKeyStore<>(60_000L, 100, clock::get);
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            int offset = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    concurrent.get(SPEC, KeyClass.IP, offset + ":" + i, factory);
+                    if (i % 1_000 == 0) {
+                        clock.addAndGet(500L);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(concurrent.size() <= 100, "tamanho final " + concurrent.size());
+    }
+}
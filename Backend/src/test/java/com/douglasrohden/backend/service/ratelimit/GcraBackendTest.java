@@ -0,0 +1,61 @@
+package com.douglasrohden.backend.service.ratelimit;
+
+import com.douglasrohden.backend.service.RateLimitService.Probe;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do limitador GCRA com relógio controlado.
+ */
+@DisplayName("GcraBackend - Rate limit com um TAT por chave")
+class GcraBackendTest {
+
+    private static final BucketSpec SPEC = new BucketSpec("default", 10, 60);
+
+    private final AtomicLong nanos = new AtomicLong(5_000_000_000L);
+    private final GcraBackend backend = new GcraBackend(120, 1000, () -> nanos.get() / 1_000_000L, nanos::get);
+
+    @Test
+    @DisplayName("Deve liberar a rajada do limite e informar saldo e espera como o Bucket4j")
+    void deveLiberarRajadaEBloquear() {
+        for (int i = 9; i >= 0; i--) {
+            Probe probe = backend.tryConsume(SPEC, KeyClass.IP, "1", 1);
+            assertTrue(probe.consumed());
+            assertEquals(i, probe.remainingTokens());
+        }
+
+        Probe rejected = backend.tryConsume(SPEC, KeyClass.IP, "1", 1);
+        assertFalse(rejected.consumed());
+        assertEquals(0, rejected.remainingTokens());
+        assertEquals(6_000_000_000L, rejected.nanosToWaitForRefill());
+    }
+
+    @Test
+    @DisplayName("Deve devolver um token a cada janela/limite")
+    void deveRecarregarContinuamente() {
+        for (int i = 0; i < 10; i++) {
+            backend.tryConsume(SPEC, KeyClass.IP, "2", 1);
+        }
+
+        nanos.addAndGet(6_000_000_000L);
+        assertTrue(backend.tryConsume(SPEC, KeyClass.IP, "2", 1).consumed());
+        assertFalse(backend.tryConsume(SPEC, KeyClass.IP, "2", 1).consumed());
+
+        nanos.addAndGet(60_000_000_000L);
+        assertEquals(9, backend.tryConsume(SPEC, KeyClass.IP, "2", 1).remainingTokens());
+    }
+
+    @Test
+    @DisplayName("Deve cobrar custo maior que 1 e rejeitar sem consumir")
+    void deveCobrarCusto() {
+        assertEquals(6, backend.tryConsume(SPEC, KeyClass.IP, "3", 4).remainingTokens());
+
+        Probe rejected = backend.tryConsume(SPEC, KeyClass.IP, "3", 7);
+        assertFalse(rejected.consumed());
+        assertEquals(6, rejected.remainingTokens());
+        assertTrue(backend.tryConsume(SPEC, KeyClass.IP, "3", 6).consumed());
+    }
+}
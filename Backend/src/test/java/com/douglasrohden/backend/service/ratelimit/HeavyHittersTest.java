@@ -0,0 +1,50 @@
+package com.douglasrohden.backend.service.ratelimit;
+
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do top-K Space-Saving com memória fixa.
+ */
+@DisplayName("HeavyHitters - Chaves mais frequentes")
+class HeavyHittersTest {
+
+    @Test
+    @DisplayName("Deve manter as chaves frequentes mesmo com muitas chaves raras")
+    void deveManterChavesFrequentes() {
+        HeavyHitters hitters = new HeavyHitters(4, 8);
+
+        for (int i = 0; i < 10_000; i++) {
+            hitters.record("ip:ruido-" + i);
+            if (i % 2 == 0) {
+                hitters.record("ip:abusivo");
+            }
+            if (i % 5 == 0) {
+                hitters.record("user:alice");
+            }
+        }
+
+        List<HeavyHitters.HeavyHitter> top = hitters.top(2);
+        assertEquals("ip:abusivo", top.get(0).key());
+        assertEquals("user:alice", top.get(1).key());
+        // Estimativa nunca abaixo da contagem real; error limita o excesso.
+        assertTrue(top.get(0).count() >= 5_000);
+        assertTrue(top.get(0).count() - top.get(0).error() <= 5_000);
+    }
+
+    @Test
+    @DisplayName("Deve usar memória fixa e limpar sob demanda")
+    void deveUsarMemoriaFixa() {
+        HeavyHitters hitters = new HeavyHitters(2, 4);
+        for (int i = 0; i < 1_000; i++) {
+            hitters.record("k" + i);
+        }
+
+        assertTrue(hitters.top(100).size() <= 8);
+        hitters.clear();
+        assertTrue(hitters.top(100).isEmpty());
+    }
+}
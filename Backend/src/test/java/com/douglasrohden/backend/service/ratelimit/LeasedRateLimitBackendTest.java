@@ -0,0 +1,160 @@
+package com.douglasrohden.backend.service.ratelimit;
+
+import com.douglasrohden.backend.service.RateLimitService.Probe;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Várias "réplicas" (instâncias de {@link LeasedRateLimitBackend}) compartilhando o mesmo
+ * {@link LeaseStore} devem respeitar o limite global.
+ */
+@DisplayName("LeasedRateLimitBackend - Rate limit entre réplicas")
+class LeasedRateLimitBackendTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000L);
+
+    @Test
+    @DisplayName("Deve respeitar o limite global com várias instâncias concorrentes")
+    void deveRespeitarLimiteGlobal() throws Exception {
+        SharedLeaseStore store = new SharedLeaseStore(clock);
+        int replicas = 4;
+        List<LeasedRateLimitBackend> backends = new ArrayList<>();
+        for (int i = 0; i < replicas; i++) {
+            backends.add(newBackend(store, 0.2));
+        }
+
+        AtomicInteger allowed = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            LeasedRateLimitBackend backend = backends.get(t % replicas);
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 50; i++) {
+                    if (backend.tryConsume(spec(100), KeyClass.USER, "alice", 1).consumed()) {
+                        allowed.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) {
+            f.get(10, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(100, allowed.get());
+    }
+
+    @Test
+    @DisplayName("Deve arrendar tokens em lote e evitar ida ao store por requisição")
+    void deveArrendarEmLote() {
+        SharedLeaseStore store = new SharedLeaseStore(clock);
+        LeasedRateLimitBackend backend = newBackend(store, 0.2);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(backend.tryConsume(spec(100), KeyClass.USER, "bob", 1).consumed());
+        }
+        Probe rejected = backend.tryConsume(spec(100), KeyClass.USER, "bob", 1);
+
+        assertFalse(rejected.consumed());
+        assertTrue(rejected.nanosToWaitForRefill() > 0);
+        // 5 arrendamentos de 20 tokens + 1 consulta que encontrou o bucket vazio
+        assertEquals(6, store.calls.get());
+
+        // Bucket vazio é lembrado localmente até a recarga
+        backend.tryConsume(spec(100), KeyClass.USER, "bob", 1);
+        assertEquals(6, store.calls.get());
+    }
+
+    @Test
+    @DisplayName("Deve liberar novamente após a janela")
+    void deveLiberarAposJanela() {
+        SharedLeaseStore store = new SharedLeaseStore(clock);
+        LeasedRateLimitBackend backend = newBackend(store, 0.5);
+
+        assertTrue(backend.tryConsume(spec(2), KeyClass.IP, "1.2.3.4", 1).consumed());
+        assertTrue(backend.tryConsume(spec(2), KeyClass.IP, "1.2.3.4", 1).consumed());
+        assertFalse(backend.tryConsume(spec(2), KeyClass.IP, "1.2.3.4", 1).consumed());
+
+        clock.addAndGet(60_000L);
+        assertTrue(backend.tryConsume(spec(2), KeyClass.IP, "1.2.3.4", 1).consumed());
+    }
+
+    @Test
+    @DisplayName("Deve recorrer ao limite local quando o store falha")
+    void deveRecorrerAoLocal() {
+        LeaseStore failing = new LeaseStore() {
+            @Override
+            public LeaseGrant acquire(String bucketKey, long limit, long windowMs, long requested) {
+                throw new IllegalStateException("db down");
+            }
+
+            @Override
+            public int purgeIdle(long idleMs) {
+                return 0;
+            }
+        };
+        LeasedRateLimitBackend backend = new LeasedRateLimitBackend(failing,
+                new LocalBucketBackend(120, 1000, clock::get), 60, 0.2, 1000, clock::get);
+
+        assertTrue(backend.tryConsume(spec(1), KeyClass.USER, "carol", 1).consumed());
+        assertFalse(backend.tryConsume(spec(1), KeyClass.USER, "carol", 1).consumed());
+    }
+
+    private static BucketSpec spec(long limit) {
+        return new BucketSpec("default", limit, 60);
+    }
+
+    private LeasedRateLimitBackend newBackend(LeaseStore store, double leaseFraction) {
+        return new LeasedRateLimitBackend(store, new LocalBucketBackend(120, 1000, clock::get),
+                60, leaseFraction, 1000, clock::get);
+    }
+
+    /**
+     * Equivalente em memória do upsert de {@link JdbcLeaseStore}.
+     */
+    private static final class SharedLeaseStore implements LeaseStore {
+        private final AtomicLong clock;
+        private final Map<String, long[]> buckets = new HashMap<>();
+        private final AtomicInteger calls = new AtomicInteger();
+
+        private SharedLeaseStore(AtomicLong clock) {
+            this.clock = clock;
+        }
+
+        @Override
+        public synchronized LeaseGrant acquire(String bucketKey, long limit, long windowMs, long requested) {
+            calls.incrementAndGet();
+            long now = clock.get();
+            long[] b = buckets.computeIfAbsent(bucketKey, k -> new long[] { limit, now });
+            if (b[1] + windowMs <= now) {
+                b[0] = limit;
+                b[1] = now - ((now - b[1]) % windowMs);
+            }
+            long granted = Math.min(requested, b[0]);
+            b[0] -= granted;
+            return new LeaseGrant(granted, b[0], b[1] + windowMs - now);
+        }
+
+        @Override
+        public synchronized int purgeIdle(long idleMs) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.douglasrohden.backend.service.ratelimit;
+
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do matcher de políticas por rota e do custo por tamanho.
+ */
+@DisplayName("PolicyMatcher - Políticas de rate limit por rota")
+class PolicyMatcherTest {
+
+    private final RateLimitPolicy fallback = policy("default", "/**", List.of(), 0);
+    private final RateLimitPolicy login = policy("login", "/v1/autenticacao/login", List.of("POST"), 0);
+    private final RateLimitPolicy uploads = policy("uploads", "/v1/albuns/{albumId}/capas", List.of("POST"), 1024);
+    private final RateLimitPolicy albuns = policy("albuns", "/v1/albuns/**", List.of(), 0);
+
+    private final PolicyMatcher matcher = new PolicyMatcher(List.of(albuns, login, uploads), fallback);
+
+    @Test
+    @DisplayName("Deve preferir segmento literal/curinga a ** e respeitar o método")
+    void deveEscolherPoliticaMaisEspecifica() {
+        assertSame(login, matcher.match("POST", "/v1/autenticacao/login"));
+        assertSame(fallback, matcher.match("GET", "/v1/autenticacao/login"));
+        assertSame(uploads, matcher.match("POST", "/v1/albuns/42/capas"));
+        assertSame(albuns, matcher.match("GET", "/v1/albuns/42/capas"));
+        assertSame(albuns, matcher.match("GET", "/v1/albuns"));
+        assertSame(fallback, matcher.match("GET", "/v1/artistas/1"));
+    }
+
+    @Test
+    @DisplayName("Deve cobrar tokens extras pelo tamanho, limitado ao máximo da política")
+    void deveCalcularCustoPorTamanho() {
+        assertEquals(1, uploads.cost(-1));
+        assertEquals(3, uploads.cost(2000));
+        assertEquals(10, uploads.cost(1024L * 1024));
+        assertEquals(1, login.cost(1024L * 1024));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar políticas com o mesmo nome")
+    void deveRejeitarNomeDuplicado() {
+        RateLimitPolicy artistas = policy("uploads", "/v1/artistas/{id}/imagens", List.of("POST"), 1024);
+
+        assertThrows(IllegalArgumentException.class, () -> new PolicyMatcher(List.of(uploads, artistas), fallback));
+        assertThrows(IllegalArgumentException.class,
+                () -> new PolicyMatcher(List.of(policy("default", "/v1/**", List.of(), 0)), fallback));
+    }
+
+    private static RateLimitPolicy policy(String name, String pattern, List<String> methods, long bytesPerToken) {
+        return new RateLimitPolicy(name, pattern, methods, 10, 60, 1, bytesPerToken);
+    }
+}
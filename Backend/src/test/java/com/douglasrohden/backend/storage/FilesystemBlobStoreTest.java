@@ -0,0 +1,85 @@
+package com.douglasrohden.backend.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do BlobStore em sistema de arquivos e das URLs locais assinadas.
+ */
+@DisplayName("FilesystemBlobStore - Storage local")
+class FilesystemBlobStoreTest {
+
+    @TempDir
+    Path root;
+
+    private FilesystemBlobStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new FilesystemBlobStore(root, new LocalUrlSigner("segredo-de-teste"), "http://localhost:3001");
+        store.ensureReady();
+    }
+
+    @Test
+    @DisplayName("Deve gravar, ler e remover objeto sem deixar arquivos temporários")
+    void deveGravarLerERemover() throws Exception {
+        byte[] data = { 1, 2, 3, 4 };
+        store.put("album/1/capa.png", new ByteArrayInputStream(data), data.length, "image/png");
+
+        try (InputStream is = store.get("album/1/capa.png")) {
+            assertArrayEquals(data, is.readAllBytes());
+        }
+        assertEquals(4, store.stat("album/1/capa.png").orElseThrow().size());
+        try (var files = Files.list(root.resolve("album/1"))) {
+            assertEquals(1, files.count());
+        }
+
+        store.delete("album/1/capa.png");
+        assertTrue(store.stat("album/1/capa.png").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar chave que escapa do diretório raiz")
+    void deveRejeitarPathTraversal() {
+        assertThrows(BlobStoreException.class,
+                () -> store.put("../fora.png", new ByteArrayInputStream(new byte[] { 1 }), 1, "image/png"));
+    }
+
+    @Test
+    @DisplayName("Deve assinar URL verificável apenas até a expiração")
+    void deveAssinarUrl() {
+        String url = store.presign("artista/2/foto.jpg", Duration.ofMinutes(5));
+        assertTrue(url.startsWith("http://localhost:3001/media/artista/2/foto.jpg?expires="));
+
+        LocalUrlSigner signer = store.signer();
+        long expires = Instant.now().getEpochSecond() + 60;
+        String signature = signer.sign("artista/2/foto.jpg", expires);
+        assertTrue(signer.verify("artista/2/foto.jpg", expires, signature, expires - 1));
+        assertFalse(signer.verify("artista/2/foto.jpg", expires, signature, expires + 1));
+        assertFalse(signer.verify("artista/2/outra.jpg", expires, signature, expires - 1));
+    }
+
+    @Test
+    @DisplayName("Deve assinar com chave derivada, distinta do segredo bruto")
+    void deveDerivarChaveDeAssinatura() {
+        byte[] secret = "segredo-de-teste".getBytes(StandardCharsets.UTF_8);
+        byte[] derived = LocalUrlSigner.deriveKey(secret);
+
+        assertEquals(32, derived.length);
+        assertFalse(Arrays.equals(secret, derived));
+        assertArrayEquals(derived, LocalUrlSigner.deriveKey(secret));
+        assertNotEquals(new LocalUrlSigner("outro-segredo").sign("a.png", 1L), store.signer().sign("a.png", 1L));
+    }
+}
@@ -0,0 +1,119 @@
+package com.douglasrohden.backend.storage;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes do decorador com circuit breaker e bulkhead sobre o BlobStore.
+ */
+@DisplayName("ResilientBlobStore - Falha rápida do storage")
+class ResilientBlobStoreTest {
+
+    private static CircuitBreaker breaker() {
+        return CircuitBreaker.of("test", CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMinutes(1))
+                .build());
+    }
+
+    @Test
+    @DisplayName("Deve abrir o circuito e parar de chamar o backend após falhas")
+    void deveAbrirCircuito() {
+        AtomicInteger calls = new AtomicInteger();
+        BlobStore failing = new InMemoryBlobStore() {
+            @Override
+            public List<BlobStat> list(String prefix) {
+                calls.incrementAndGet();
+                throw new BlobStoreException("timeout", null);
+            }
+        };
+        ResilientBlobStore store = new ResilientBlobStore(failing, breaker(), Bulkhead.ofDefaults("test"));
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(BlobStoreException.class, () -> store.list("album/"));
+        }
+        assertThrows(BlobStoreUnavailableException.class, () -> store.list("album/"));
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar imediatamente quando o bulkhead está cheio")
+    void deveRejeitarComBulkheadCheio() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BlobStore slow = new InMemoryBlobStore() {
+            @Override
+            public void delete(String key) {
+                entered.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        Bulkhead bulkhead = Bulkhead.of("test", BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        ResilientBlobStore store = new ResilientBlobStore(slow, breaker(), bulkhead);
+
+        Thread worker = new Thread(() -> store.delete("album/1/a.png"));
+        worker.start();
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        assertThrows(BlobStoreUnavailableException.class, () -> store.delete("album/1/b.png"));
+
+        release.countDown();
+        worker.join();
+    }
+
+    @Test
+    @DisplayName("Deve assinar URL com o bulkhead cheio e recusar só com o circuito aberto")
+    void deveAssinarForaDoBulkhead() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BlobStore slow = new InMemoryBlobStore() {
+            @Override
+            public void delete(String key) {
+                entered.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        Bulkhead bulkhead = Bulkhead.of("test", BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        CircuitBreaker breaker = breaker();
+        ResilientBlobStore store = new ResilientBlobStore(slow, breaker, bulkhead);
+
+        Thread worker = new Thread(() -> store.delete("album/1/a.png"));
+        worker.start();
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        assertNotNull(store.presign("album/1/a.png", Duration.ofMinutes(5)));
+
+        release.countDown();
+        worker.join();
+
+        breaker.transitionToOpenState();
+        assertThrows(BlobStoreUnavailableException.class, () -> store.presign("album/1/a.png", Duration.ofMinutes(5)));
+    }
+}
@@ -0,0 +1,54 @@
+package com.douglasrohden.backend.websocket;
+
+import com.douglasrohden.backend.dto.AlbumCreatedMessage;
+import com.douglasrohden.backend.events.AlbumCreatedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("AlbumEventsBridge - Fan-out via LISTEN/NOTIFY")
+class AlbumEventsBridgeTest {
+
+    private final AlbumNotificationDispatcher dispatcher = mock(AlbumNotificationDispatcher.class);
+
+    private AlbumEventsBridge bridge() {
+        return new AlbumEventsBridge(mock(JdbcTemplate.class), dispatcher, new ObjectMapper(),
+                "album_events", "jdbc:postgresql://localhost/db", "u", "p", 1000);
+    }
+
+    @Test
+    @DisplayName("Deve repassar aos assinantes locais eventos de outra réplica")
+    void deveRepassarEventoRemoto() {
+        AlbumEventsBridge replicaA = bridge();
+        AlbumEventsBridge replicaB = bridge();
+
+        replicaB.dispatch(replicaA.encode(new AlbumCreatedEvent(5L, "Álbum", 2020)));
+
+        verify(dispatcher).enqueue(new AlbumCreatedMessage(5L, "Álbum", 2020));
+    }
+
+    @Test
+    @DisplayName("Deve descartar a notificação da própria réplica")
+    void deveDescartarPropria() {
+        AlbumEventsBridge replica = bridge();
+
+        replica.dispatch(replica.encode(new AlbumCreatedEvent(5L, "Álbum", 2020)));
+        replica.dispatch("{nao-json");
+
+        verify(dispatcher, never()).enqueue(any());
+    }
+
+    @Test
+    @DisplayName("Deve omitir o título quando o payload excede o limite do NOTIFY")
+    void deveOmitirTituloGrande() {
+        String payload = bridge().encode(new AlbumCreatedEvent(5L, "x".repeat(9000), 2020));
+
+        assertTrue(payload.length() < 8000);
+        assertFalse(payload.contains("xxx"));
+    }
+}
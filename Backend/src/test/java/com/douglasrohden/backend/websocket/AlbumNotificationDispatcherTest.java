@@ -0,0 +1,55 @@
+package com.douglasrohden.backend.websocket;
+
+import com.douglasrohden.backend.dto.AlbumCreatedBatchMessage;
+import com.douglasrohden.backend.dto.AlbumCreatedMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("AlbumNotificationDispatcher - Envio agrupado")
+class AlbumNotificationDispatcherTest {
+
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    private AlbumNotificationDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.destroy();
+    }
+
+    @Test
+    @DisplayName("Deve agrupar os eventos da janela em lotes limitados")
+    void deveAgruparEmLotes() {
+        // Janela longa: só o flush explícito envia.
+        dispatcher = new AlbumNotificationDispatcher(messagingTemplate, 100, 60_000, 2, false);
+        for (long id = 1; id <= 3; id++) {
+            dispatcher.enqueue(new AlbumCreatedMessage(id, "A" + id, 2020));
+        }
+
+        dispatcher.flush();
+
+        ArgumentCaptor<AlbumCreatedBatchMessage> batches = ArgumentCaptor.forClass(AlbumCreatedBatchMessage.class);
+        verify(messagingTemplate, times(2)).convertAndSend(eq(AlbumNotificationDispatcher.BATCH_TOPIC), batches.capture());
+        assertEquals(2, batches.getAllValues().get(0).albuns().size());
+        assertEquals(1, batches.getAllValues().get(1).albuns().size());
+    }
+
+    @Test
+    @DisplayName("Deve descartar eventos com a fila cheia sem bloquear")
+    void deveDescartarComFilaCheia() {
+        dispatcher = new AlbumNotificationDispatcher(messagingTemplate, 1, 60_000, 10, true);
+        dispatcher.enqueue(new AlbumCreatedMessage(1L, "A", 2020));
+        dispatcher.enqueue(new AlbumCreatedMessage(2L, "B", 2020));
+
+        dispatcher.flush();
+
+        verify(messagingTemplate).convertAndSend(AlbumNotificationDispatcher.TOPIC, new AlbumCreatedMessage(1L, "A", 2020));
+        verify(messagingTemplate, never()).convertAndSend(AlbumNotificationDispatcher.TOPIC, new AlbumCreatedMessage(2L, "B", 2020));
+    }
+}
@@ -0,0 +1,146 @@
+package com.douglasrohden.backend.websocket;
+
+import com.douglasrohden.backend.security.AccessTokenRevocationList;
+import com.douglasrohden.backend.security.JwtTestSupport;
+import com.douglasrohden.backend.security.JwtUtil;
+import java.security.Principal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("StompAuthChannelInterceptor - JWT no CONNECT")
+class StompAuthChannelInterceptorTest {
+
+    private static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private final AtomicLong now = new AtomicLong(System.currentTimeMillis());
+    private final StompSessionRegistry sessionRegistry = new StompSessionRegistry(now::get, 10_000L);
+    private JwtUtil jwtUtil;
+    private StompAuthChannelInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = spy(JwtTestSupport.jwtUtil(SECRET, 60_000L));
+        interceptor = new StompAuthChannelInterceptor(jwtUtil,
+                new AccessTokenRevocationList(60_000L, 10, 64, System::currentTimeMillis), sessionRegistry, true);
+    }
+
+    @Test
+    @DisplayName("Deve autenticar o CONNECT e associar o principal à sessão")
+    void deveAutenticarConnect() {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.setSessionId("s1");
+        accessor.addNativeHeader("Authorization", "Bearer " + jwtUtil.generateToken("admin", 7L, List.of()));
+        accessor.setLeaveMutable(true);
+
+        Message<?> result = interceptor.preSend(message(accessor), null);
+
+        Principal user = StompHeaderAccessor.wrap(result).getUser();
+        assertNotNull(user);
+        assertEquals("admin", user.getName());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar CONNECT sem token")
+    void deveRejeitarConnectSemToken() {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.setLeaveMutable(true);
+
+        assertThrows(MessageDeliveryException.class, () -> interceptor.preSend(message(accessor), null));
+    }
+
+    @Test
+    @DisplayName("Deve aceitar SUBSCRIBE da sessão autenticada sem novo parse")
+    void deveAceitarSubscribeSemParse() {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setUser(() -> "admin");
+        accessor.setLeaveMutable(true);
+
+        interceptor.preSend(message(accessor), null);
+
+        verify(jwtUtil, never()).validateAndExtract(any());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar SUBSCRIBE de sessão sem principal")
+    void deveRejeitarSubscribeAnonimo() {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setLeaveMutable(true);
+
+        assertThrows(MessageDeliveryException.class, () -> interceptor.preSend(message(accessor), null));
+    }
+
+    @Test
+    @DisplayName("Deve fechar na varredura a sessão cujo token expirou")
+    void deveFecharSessaoExpirada() throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn("s2");
+        when(session.isOpen()).thenReturn(true);
+        sessionRegistry.decorate(mock(WebSocketHandler.class)).afterConnectionEstablished(session);
+        sessionRegistry.authenticated("s2", now.get() + 1_000L);
+
+        sessionRegistry.closeExpired();
+        verify(session, never()).close(any(CloseStatus.class));
+
+        now.addAndGet(2_000L);
+        sessionRegistry.closeExpired();
+        verify(session).close(any(CloseStatus.class));
+        assertEquals(0, sessionRegistry.size());
+    }
+
+    @Test
+    @DisplayName("Deve fechar o socket que não envia CONNECT dentro do prazo")
+    void deveFecharSocketSemConnect() throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn("s3");
+        when(session.isOpen()).thenReturn(true);
+        sessionRegistry.decorate(mock(WebSocketHandler.class)).afterConnectionEstablished(session);
+
+        now.addAndGet(5_000L);
+        sessionRegistry.closeExpired();
+        verify(session, never()).close(any(CloseStatus.class));
+
+        now.addAndGet(6_000L);
+        sessionRegistry.closeExpired();
+        verify(session).close(any(CloseStatus.class));
+        assertEquals(0, sessionRegistry.size());
+    }
+
+    @Test
+    @DisplayName("Deve manter aberta após o prazo a sessão que autenticou no CONNECT")
+    void deveManterSessaoAutenticada() throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn("s4");
+        when(session.isOpen()).thenReturn(true);
+        sessionRegistry.decorate(mock(WebSocketHandler.class)).afterConnectionEstablished(session);
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECT);
+        accessor.setSessionId("s4");
+        accessor.addNativeHeader("Authorization", "Bearer " + jwtUtil.generateToken("admin", 7L, List.of()));
+        accessor.setLeaveMutable(true);
+        interceptor.preSend(message(accessor), null);
+
+        now.addAndGet(20_000L);
+        sessionRegistry.closeExpired();
+
+        verify(session, never()).close(any(CloseStatus.class));
+        assertEquals(1, sessionRegistry.size());
+    }
+
+    private static Message<byte[]> message(StompHeaderAccessor accessor) {
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -34,8 +34,18 @@ function FullScreenFallback() {
 export default function App() {
   useEffect(() => {
     void authFacade.init();
-    notificationsFacade.connect();
-    return () => notificationsFacade.disconnect();
+    // O backend exige JWT no CONNECT do STOMP: só conecta com sessão autenticada.
+    const subscription = authFacade.isAuthenticated$.subscribe((authenticated) => {
+      if (authenticated) {
+        notificationsFacade.connect();
+      } else {
+        notificationsFacade.disconnect();
+      }
+    });
+    return () => {
+      subscription.unsubscribe();
+      notificationsFacade.disconnect();
+    };
   }, []);
 
   return (
@@ -225,6 +225,18 @@ function AlbumCard({
             <img
               src={src || "https://flowbite.com/docs/images/blog/image-1.jpg"}
               alt={album.titulo}
+              width={album.capaWidth ?? undefined}
+              height={album.capaHeight ?? undefined}
+              loading="lazy"
+              decoding="async"
+              style={
+                album.capaPlaceholder
+                  ? {
+                      backgroundImage: `url(${album.capaPlaceholder})`,
+                      backgroundSize: "cover",
+                    }
+                  : undefined
+              }
               className="h-48 w-full object-cover"
             />
           </div>
@@ -1,6 +1,7 @@
 import { BehaviorSubject } from "rxjs";
-import { Client } from "@stomp/stompjs";
+import { Client, type IStompSocket } from "@stomp/stompjs";
 import SockJS from "sockjs-client";
+import { getAuthAdapter } from "../lib/http/authAdapter";
 
 export type AlbumCreatedMessage = {
   id: number;
@@ -8,6 +9,10 @@ export type AlbumCreatedMessage = {
   ano?: number;
 };
 
+export type AlbumCreatedBatchMessage = {
+  albuns: AlbumCreatedMessage[];
+};
+
 export type NotificationItem =
   | {
     type: "album.created";
@@ -16,10 +21,19 @@ export type NotificationItem =
     read: boolean;
   };
 
-function getWebSocketUrl(): string {
+function getApiRoot(): string {
   const apiBase = import.meta.env.VITE_API_URL || "http://localhost:8080";
-  const root = apiBase.endsWith("/v1") ? apiBase.slice(0, -3) : apiBase;
-  return `${root}/ws`;
+  return apiBase.endsWith("/v1") ? apiBase.slice(0, -3) : apiBase;
+}
+
+// WebSocket puro em /stomp (o navegador negocia permessage-deflate); SockJS em /ws só
+// quando o navegador não tem WebSocket.
+function createSocket(): IStompSocket {
+  const root = getApiRoot();
+  if (typeof WebSocket !== "undefined") {
+    return new WebSocket(`${root.replace(/^http/, "ws")}/stomp`);
+  }
+  return new SockJS(`${root}/ws`);
 }
 
 class NotificationsFacade {
@@ -41,31 +55,42 @@ class NotificationsFacade {
     this.started = true;
 
     const client = new Client({
-      webSocketFactory: () => new SockJS(getWebSocketUrl()),
+      webSocketFactory: createSocket,
       reconnectDelay: 3000,
+      // JWT vai no CONNECT; a cada reconexão (ex.: sessão fechada por token expirado) usa o token atual.
+      beforeConnect: () => {
+        const token = getAuthAdapter()?.getAccessToken();
+        client.connectHeaders = token ? { Authorization: `Bearer ${token}` } : {};
+      },
       onConnect: () => {
         this.connected$.next(true);
         this.error$.next(null);
 
-        client.subscribe("/topic/albuns/created", (message) => {
+        // Lote por janela: um frame por grupo de álbuns criados.
+        client.subscribe("/topic/albuns/created/batch", (message) => {
           try {
-            const data = JSON.parse(message.body) as AlbumCreatedMessage;
-            if (!data || typeof data.id !== "number") return;
-
-            this.lastAlbumCreated$.next(data);
-
-            const next: NotificationItem = {
-              type: "album.created",
-              createdAt: Date.now(),
-              payload: data,
-              read: false,
-            };
+            const data = JSON.parse(message.body) as AlbumCreatedBatchMessage;
+            const albuns = (data?.albuns ?? []).filter(
+              (album) => album && typeof album.id === "number",
+            );
+            if (albuns.length === 0) return;
+
+            this.lastAlbumCreated$.next(albuns[albuns.length - 1]);
+
+            const now = Date.now();
+            const incoming: NotificationItem[] = albuns
+              .map((payload) => ({
+                type: "album.created" as const,
+                createdAt: now,
+                payload,
+                read: false,
+              }))
+              .reverse();
 
             const current = this.notifications$.getValue();
-            const updated = [next, ...current].slice(0, 50);
+            const updated = [...incoming, ...current].slice(0, 50);
             this.notifications$.next(updated);
             this.unreadCount$.next(updated.filter((n) => !n.read).length);
-
           } catch {
             // ignore invalid payload
           }
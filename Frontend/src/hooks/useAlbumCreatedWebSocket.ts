@@ -1,12 +1,13 @@
 import { useEffect } from "react";
 import { Client } from "@stomp/stompjs";
 import SockJS from "sockjs-client";
+import { getAuthAdapter } from "../lib/http/authAdapter";
+import type {
+  AlbumCreatedBatchMessage,
+  AlbumCreatedMessage,
+} from "../facades/NotificationsFacade";
 
-export type AlbumCreatedMessage = {
-  id: number;
-  titulo: string;
-  ano?: number;
-};
+export type { AlbumCreatedMessage };
 
 function getWebSocketUrl() {
   const apiBase = import.meta.env.VITE_API_URL || "http://localhost:3001/v1";
@@ -21,11 +22,20 @@ export function useAlbumCreatedWebSocket(
     const client = new Client({
       webSocketFactory: () => new SockJS(getWebSocketUrl()),
       reconnectDelay: 3000,
+      beforeConnect: () => {
+        const token = getAuthAdapter()?.getAccessToken();
+        client.connectHeaders = token ? { Authorization: `Bearer ${token}` } : {};
+      },
       onConnect: () => {
-        client.subscribe("/topic/albuns/created", (message) => {
+        // Lote por janela (como o NotificationsFacade): um frame por grupo de álbuns criados.
+        client.subscribe("/topic/albuns/created/batch", (message) => {
           try {
-            const data = JSON.parse(message.body) as AlbumCreatedMessage;
-            onAlbumCreated(data);
+            const data = JSON.parse(message.body) as AlbumCreatedBatchMessage;
+            for (const album of data?.albuns ?? []) {
+              if (album && typeof album.id === "number") {
+                onAlbumCreated(album);
+              }
+            }
           } catch {
             // ignore invalid payload
           }
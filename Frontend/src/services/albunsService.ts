@@ -8,6 +8,9 @@ export interface Album {
   artistaNome?: string;
   individual?: boolean;
   capaUrl?: string | null;
+  capaWidth?: number | null;
+  capaHeight?: number | null;
+  capaPlaceholder?: string | null;
   temCantor?: boolean;
   temBanda?: boolean;
   apenasCantores?: boolean;
@@ -21,6 +24,9 @@ export interface AlbumImage {
   objectKey: string;
   contentType: string;
   sizeBytes: number;
+  width?: number | null;
+  height?: number | null;
+  placeholder?: string | null;
 }
 
 export type GetAlbunsFilters = {
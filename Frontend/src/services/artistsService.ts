@@ -8,6 +8,9 @@ export interface Artista {
   albumCount?: number;
   albuns?: Album[];
   imageUrl?: string;
+  imageWidth?: number | null;
+  imageHeight?: number | null;
+  imagePlaceholder?: string | null;
 }
 
 export interface Album {
@@ -24,6 +27,9 @@ export interface ArtistImage {
   objectKey: string;
   contentType: string;
   sizeBytes: number;
+  width?: number | null;
+  height?: number | null;
+  placeholder?: string | null;
 }
 
 export const artistsService = {